@@ -0,0 +1,94 @@
+package com.example.gatewayservice.filter;
+
+import java.time.Duration;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code AdaptiveConcurrencyLimit} route filter: caps the requests a route forwards at once and adapts the cap to the
+ * backend's latency. Declare it after {@code RequestRateLimiter} so that rate-limited requests never take a slot.
+ */
+@Component
+public class AdaptiveConcurrencyLimitGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+  private final MeterRegistry meterRegistry;
+
+  public AdaptiveConcurrencyLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config.getRouteId(), config.getInitialLimit(),
+        config.getMinLimit(), config.getMaxLimit(), config.getLatencyThreshold(), config.getBackoffRatio(),
+        meterRegistry);
+    return limiter::filter;
+  }
+
+  public static class Config implements HasRouteId {
+
+    private String routeId;
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+    private Duration latencyThreshold = Duration.ofSeconds(2);
+    private double backoffRatio = 0.9;
+
+    @Override
+    public String getRouteId() {
+      return routeId;
+    }
+
+    @Override
+    public void setRouteId(String routeId) {
+      this.routeId = routeId;
+    }
+
+    public int getInitialLimit() {
+      return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+      return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+      return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+    }
+
+    public Duration getLatencyThreshold() {
+      return latencyThreshold;
+    }
+
+    public void setLatencyThreshold(Duration latencyThreshold) {
+      this.latencyThreshold = latencyThreshold;
+    }
+
+    public double getBackoffRatio() {
+      return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+      this.backoffRatio = backoffRatio;
+    }
+  }
+}
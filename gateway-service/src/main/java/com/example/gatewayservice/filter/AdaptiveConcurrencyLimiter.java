@@ -0,0 +1,120 @@
+package com.example.gatewayservice.filter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * AIMD concurrency limit of one route. Requests beyond the current limit are shed at once with 503 and
+ * {@code Retry-After} instead of queuing in front of a backend that is already slow.
+ * <p>
+ * A response slower than {@code latencyThreshold}, a 502/503/504 or an upstream error multiplies the limit by
+ * {@code backoffRatio}. Other responses raise it by 1/limit while at least half of it is in use, which is roughly one
+ * more slot per limit's worth of good responses. Latency is taken when the response is committed, so the time a client
+ * spends downloading the body does not count as backend slowness; the slot itself is held until the response
+ * completes. Requests cancelled before the commit release their slot without adjusting the limit.
+ */
+class AdaptiveConcurrencyLimiter {
+
+  private static final String RETRY_AFTER_SECONDS = "1";
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+  private double limit;
+  private int inFlight;
+  private final Counter shedCounter;
+
+  AdaptiveConcurrencyLimiter(String routeId, int initialLimit, int minLimit, int maxLimit,
+      Duration latencyThreshold, double backoffRatio, MeterRegistry meterRegistry) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.backoffRatio = backoffRatio;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.shedCounter = Counter.builder("gateway.concurrency.shed")
+        .description("Requests rejected because the route was at its concurrency limit")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    Gauge.builder("gateway.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+        .description("Current adaptive concurrency limit")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    Gauge.builder("gateway.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+        .description("Requests of the route currently forwarded")
+        .tag("route", routeId)
+        .register(meterRegistry);
+  }
+
+  Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    ServerHttpResponse response = exchange.getResponse();
+    if (!tryAcquire()) {
+      shedCounter.increment();
+      response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+      response.getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+      return response.setComplete();
+    }
+    long startedAtNanos = System.nanoTime();
+    AtomicBoolean measured = new AtomicBoolean();
+    response.beforeCommit(() -> {
+      if (measured.compareAndSet(false, true)) {
+        adjust(System.nanoTime() - startedAtNanos, isOverloaded(response.getStatusCode()));
+      }
+      return Mono.empty();
+    });
+    return chain.filter(exchange).doFinally(signal -> {
+      // Failed or finished without committing a response
+      if (signal != SignalType.CANCEL && measured.compareAndSet(false, true)) {
+        adjust(System.nanoTime() - startedAtNanos,
+            signal == SignalType.ON_ERROR || isOverloaded(response.getStatusCode()));
+      }
+      release();
+    });
+  }
+
+  synchronized double getLimit() {
+    return limit;
+  }
+
+  synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  private synchronized boolean tryAcquire() {
+    if (inFlight >= (int) limit) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  private synchronized void release() {
+    inFlight--;
+  }
+
+  private synchronized void adjust(long latencyNanos, boolean overloaded) {
+    if (overloaded || latencyNanos > latencyThresholdNanos) {
+      limit = Math.max(minLimit, limit * backoffRatio);
+    } else if (inFlight * 2 >= limit) {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+  }
+
+  private static boolean isOverloaded(HttpStatusCode status) {
+    return Objects.nonNull(status) && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.gatewayservice.filter;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code RequestCoalescing} route filter: concurrent identical GETs on the route share one upstream call. Declared
+ * together with {@code ResponseCache}, it sits behind the cache so that only cache misses are coalesced.
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+  // Between ResponseCacheGatewayFilterFactory and NettyWriteResponseFilter
+  static final int FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+  private final MeterRegistry meterRegistry;
+
+  public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    RouteRequestCoalescer coalescer = new RouteRequestCoalescer(config.getRouteId(), config.getKeyHeaders(),
+        config.getMaxWait(), config.getMaxResponseBytes(), meterRegistry);
+    return new OrderedGatewayFilter(coalescer::filter, FILTER_ORDER);
+  }
+
+  public static class Config implements HasRouteId {
+
+    private String routeId;
+    private List<String> keyHeaders = List.of("Authorization", "Accept", "Range");
+    private Duration maxWait = Duration.ofSeconds(5);
+    private int maxResponseBytes = 1024 * 1024;
+
+    @Override
+    public String getRouteId() {
+      return routeId;
+    }
+
+    @Override
+    public void setRouteId(String routeId) {
+      this.routeId = routeId;
+    }
+
+    public List<String> getKeyHeaders() {
+      return keyHeaders;
+    }
+
+    public void setKeyHeaders(List<String> keyHeaders) {
+      this.keyHeaders = keyHeaders;
+    }
+
+    public Duration getMaxWait() {
+      return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+      this.maxWait = maxWait;
+    }
+
+    public int getMaxResponseBytes() {
+      return maxResponseBytes;
+    }
+
+    public void setMaxResponseBytes(int maxResponseBytes) {
+      this.maxResponseBytes = maxResponseBytes;
+    }
+  }
+}
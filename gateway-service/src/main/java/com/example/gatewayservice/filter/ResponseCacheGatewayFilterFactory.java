@@ -0,0 +1,80 @@
+package com.example.gatewayservice.filter;
+
+import java.time.Duration;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code ResponseCache} route filter: keeps GET responses of the route in memory and drops them when a POST, PUT,
+ * PATCH or DELETE goes through the same route. Each route that declares the filter gets its own cache.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+  // Must run before NettyWriteResponseFilter, which writes the body into whatever response it was handed, and before
+  // request coalescing so that hits never wait on an upstream call
+  private static final int FILTER_ORDER = RequestCoalescingGatewayFilterFactory.FILTER_ORDER - 1;
+
+  private final MeterRegistry meterRegistry;
+
+  public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    RouteResponseCache cache = new RouteResponseCache(config.getRouteId(), config.getMaxEntries(),
+        config.getTtl(), config.getMaxEntryBytes(), meterRegistry);
+    return new OrderedGatewayFilter(cache::filter, FILTER_ORDER);
+  }
+
+  public static class Config implements HasRouteId {
+
+    private String routeId;
+    private int maxEntries = 1000;
+    private Duration ttl = Duration.ofSeconds(30);
+    private int maxEntryBytes = 256 * 1024;
+
+    @Override
+    public String getRouteId() {
+      return routeId;
+    }
+
+    @Override
+    public void setRouteId(String routeId) {
+      this.routeId = routeId;
+    }
+
+    public int getMaxEntries() {
+      return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+    }
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    public int getMaxEntryBytes() {
+      return maxEntryBytes;
+    }
+
+    public void setMaxEntryBytes(int maxEntryBytes) {
+      this.maxEntryBytes = maxEntryBytes;
+    }
+  }
+}
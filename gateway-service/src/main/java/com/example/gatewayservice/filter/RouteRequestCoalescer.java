@@ -0,0 +1,217 @@
+package com.example.gatewayservice.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Single-flight for the GETs of one route. The first request for a key goes upstream; identical requests arriving
+ * while it is in flight wait for its response, at most {@code maxWait}, and receive a copy of it.
+ * <p>
+ * The key is the path, the query, the configured headers and the request's validators (If-None-Match,
+ * If-Modified-Since). The leader's body is only buffered when someone is waiting for it and the response is a 200 with
+ * a Content-Length of at most {@code maxResponseBytes}; otherwise it is streamed as usual. When nothing is shared
+ * because of that, because the leader fails, or because the wait runs out, every waiter makes its own upstream call,
+ * as it would without this filter. Requests arriving once the leader's response has started are not joined.
+ */
+class RouteRequestCoalescer {
+
+  private final List<String> keyHeaders;
+  private final Duration maxWait;
+  private final int maxResponseBytes;
+  private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+  private final Counter leaderCounter;
+  private final Counter coalescedCounter;
+  private final Counter upstreamCallsSavedCounter;
+
+  RouteRequestCoalescer(String routeId, List<String> keyHeaders, Duration maxWait, int maxResponseBytes,
+      MeterRegistry meterRegistry) {
+    this.keyHeaders = List.copyOf(keyHeaders);
+    this.maxWait = maxWait;
+    this.maxResponseBytes = maxResponseBytes;
+    this.leaderCounter = Counter.builder("gateway.coalescing.upstream.calls")
+        .description("GETs that went upstream on behalf of themselves and any waiters")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    this.coalescedCounter = Counter.builder("gateway.coalescing.requests")
+        .description("GETs that joined an identical request already in flight")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    this.upstreamCallsSavedCounter = Counter.builder("gateway.coalescing.upstream.calls.saved")
+        .description("Joined GETs answered from the in-flight request's response")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    Gauge.builder("gateway.coalescing.in.flight", inFlight, Map::size)
+        .description("Distinct keys currently being fetched")
+        .tag("route", routeId)
+        .register(meterRegistry);
+  }
+
+  Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+      return chain.filter(exchange);
+    }
+    String key = coalescingKey(exchange.getRequest());
+    InFlight created = new InFlight();
+    InFlight existing = inFlight.putIfAbsent(key, created);
+    if (Objects.isNull(existing)) {
+      leaderCounter.increment();
+      LeaderResponse response = new LeaderResponse(exchange.getResponse(), key, created);
+      return chain.filter(exchange.mutate().response(response).build())
+          .doFinally(signal -> release(key, created));
+    }
+    if (!existing.join()) {
+      return chain.filter(exchange);
+    }
+    coalescedCounter.increment();
+    return existing.result()
+        .timeout(maxWait, Mono.empty())
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .flatMap(shared -> {
+          if (shared.isEmpty()) {
+            existing.leave();
+            return chain.filter(exchange);
+          }
+          upstreamCallsSavedCounter.increment();
+          return writeShared(exchange.getResponse(), shared.get());
+        });
+  }
+
+  private Mono<Void> writeShared(ServerHttpResponse response, SharedResponse shared) {
+    response.setStatusCode(shared.status());
+    response.getHeaders().putAll(shared.headers());
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+  }
+
+  // Waiters that find nothing to share go upstream themselves
+  private void release(String key, InFlight flight) {
+    inFlight.remove(key, flight);
+    flight.sink().tryEmitEmpty();
+  }
+
+  private void complete(String key, InFlight flight, SharedResponse response) {
+    inFlight.remove(key, flight);
+    flight.sink().tryEmitValue(response);
+  }
+
+  private String coalescingKey(ServerHttpRequest request) {
+    StringBuilder key = new StringBuilder(request.getURI().getRawPath())
+        .append('?').append(Objects.toString(request.getURI().getRawQuery(), ""));
+    for (String header : keyHeaders) {
+      key.append('\n').append(header).append('=').append(request.getHeaders().getOrEmpty(header));
+    }
+    // A conditional GET may be answered with a 304 that only fits callers sending the same validators
+    key.append('\n').append(request.getHeaders().getOrEmpty(HttpHeaders.IF_NONE_MATCH))
+        .append('\n').append(request.getHeaders().getOrEmpty(HttpHeaders.IF_MODIFIED_SINCE));
+    return key.toString();
+  }
+
+  /**
+   * Buffers the leader's body when there are waiters and it is a 200 small enough to hand to them, then writes it on as
+   * usual.
+   */
+  private class LeaderResponse extends ServerHttpResponseDecorator {
+
+    private final String key;
+    private final InFlight flight;
+
+    LeaderResponse(ServerHttpResponse delegate, String key, InFlight flight) {
+      super(delegate);
+      this.key = key;
+      this.flight = flight;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+      // Late arrivals start their own flight from here on
+      inFlight.remove(key, flight);
+      int waiters = flight.close();
+      long contentLength = getHeaders().getContentLength();
+      HttpStatusCode status = getStatusCode();
+      if (waiters == 0 || Objects.isNull(status) || !status.isSameCodeAs(HttpStatus.OK) || contentLength < 0
+          || contentLength > maxResponseBytes) {
+        release(key, flight);
+        return super.writeWith(body);
+      }
+      return DataBufferUtils.join(Flux.from(body))
+          .map(joined -> {
+            byte[] bytes = new byte[joined.readableByteCount()];
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+            return bytes;
+          })
+          .defaultIfEmpty(new byte[0])
+          .flatMap(bytes -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.remove(HttpHeaders.CONNECTION);
+            complete(key, flight, new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), bytes));
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+          });
+    }
+  }
+
+  private static final class InFlight {
+
+    private static final int CLOSED = -1;
+
+    private final Sinks.One<SharedResponse> sink = Sinks.one();
+    /** Requests waiting for the result, or {@link #CLOSED} once the leader's response has started. */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    Sinks.One<SharedResponse> sink() {
+      return sink;
+    }
+
+    Mono<SharedResponse> result() {
+      return sink.asMono();
+    }
+
+    /**
+     * @return false when the leader's response has already started and the caller has to go upstream itself
+     */
+    boolean join() {
+      return waiters.getAndUpdate(count -> count == CLOSED ? CLOSED : count + 1) != CLOSED;
+    }
+
+    void leave() {
+      waiters.getAndUpdate(count -> count > 0 ? count - 1 : count);
+    }
+
+    /**
+     * @return the number of requests waiting when the flight was closed
+     */
+    int close() {
+      return Math.max(0, waiters.getAndSet(CLOSED));
+    }
+  }
+
+  private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+  }
+}
@@ -0,0 +1,320 @@
+package com.example.gatewayservice.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * GET response cache of one route, an access-ordered LRU bounded by entry count and entry size.
+ * <p>
+ * Entries are keyed by path, query, Accept and a hash of the Authorization header, so a response is only replayed to
+ * a caller presenting the same credentials. Freshness is the route TTL, shortened by the backend's
+ * {@code max-age}/{@code s-maxage}; {@code no-store}, {@code private} and {@code Set-Cookie} responses are not kept.
+ * Stale or {@code no-cache} entries with an ETag are revalidated with If-None-Match, and a 304 from the backend is
+ * answered from the stored body. A request's own {@code no-cache} skips the lookup and {@code no-store} skips the cache.
+ * <p>
+ * Writes through the route clear the whole route cache both before they are forwarded and after they complete; a
+ * GET that started before a write does not store its response. Writes that reach a backend without passing the
+ * gateway (service to service calls) are only picked up when the TTL runs out.
+ */
+class RouteResponseCache {
+
+  private final String routeId;
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final int maxEntryBytes;
+  private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+  /** Bumped on every invalidation so GETs that were in flight during a write do not store what they read. */
+  private long generation;
+  private final Counter hitCounter;
+  private final Counter revalidatedCounter;
+  private final Counter missCounter;
+  private final Counter bypassCounter;
+
+  RouteResponseCache(String routeId, int maxEntries, Duration ttl, int maxEntryBytes, MeterRegistry meterRegistry) {
+    this.routeId = routeId;
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttl.toMillis();
+    this.maxEntryBytes = maxEntryBytes;
+    this.hitCounter = requestCounter(meterRegistry, "hit");
+    this.revalidatedCounter = requestCounter(meterRegistry, "revalidated");
+    this.missCounter = requestCounter(meterRegistry, "miss");
+    this.bypassCounter = requestCounter(meterRegistry, "bypass");
+    Gauge.builder("gateway.response.cache.hit.ratio", this, RouteResponseCache::hitRatio)
+        .description("Share of cacheable GETs answered without a full backend response")
+        .tag("route", routeId)
+        .register(meterRegistry);
+    Gauge.builder("gateway.response.cache.entries", this, RouteResponseCache::getEntryCount)
+        .description("Responses currently held by the route cache")
+        .tag("route", routeId)
+        .register(meterRegistry);
+  }
+
+  Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    HttpMethod method = exchange.getRequest().getMethod();
+    if (HttpMethod.GET.equals(method)) {
+      return cachedGet(exchange, chain);
+    }
+    if (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method) || HttpMethod.PATCH.equals(method)
+        || HttpMethod.DELETE.equals(method)) {
+      invalidate();
+      return chain.filter(exchange).doFinally(signal -> invalidate());
+    }
+    return chain.filter(exchange);
+  }
+
+  synchronized int getEntryCount() {
+    return entries.size();
+  }
+
+  private Mono<Void> cachedGet(ServerWebExchange exchange, GatewayFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    List<String> requestCacheControl = request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL);
+    if (hasDirective(requestCacheControl, "no-store")) {
+      bypassCounter.increment();
+      return chain.filter(exchange);
+    }
+    String key = cacheKey(request);
+    long now = System.currentTimeMillis();
+    CachedResponse cached;
+    long loadGeneration;
+    synchronized (this) {
+      cached = liveEntry(key, now);
+      loadGeneration = generation;
+    }
+    if (Objects.nonNull(cached) && cached.freshUntilMillis() > now
+        && !hasDirective(requestCacheControl, "no-cache")) {
+      hitCounter.increment();
+      return writeCached(exchange, cached);
+    }
+
+    ServerWebExchange forwarded = exchange;
+    CachedResponse revalidating = null;
+    if (Objects.nonNull(cached) && Objects.nonNull(cached.etag()) && request.getHeaders().getIfNoneMatch().isEmpty()) {
+      revalidating = cached;
+      forwarded = exchange.mutate()
+          .request(builder -> builder.headers(headers -> headers.setIfNoneMatch(cached.etag())))
+          .build();
+    }
+    CachingResponse response = new CachingResponse(forwarded.getResponse(), key, loadGeneration, revalidating);
+    return chain.filter(forwarded.mutate().response(response).build());
+  }
+
+  private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+    ServerHttpResponse response = exchange.getResponse();
+    if (Objects.nonNull(cached.etag()) && exchange.getRequest().getHeaders().getIfNoneMatch().contains(cached.etag())) {
+      response.setStatusCode(HttpStatus.NOT_MODIFIED);
+      response.getHeaders().setETag(cached.etag());
+      return response.setComplete();
+    }
+    response.setStatusCode(HttpStatus.OK);
+    response.getHeaders().putAll(cached.headers());
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+  }
+
+  private synchronized void invalidate() {
+    generation++;
+    entries.clear();
+  }
+
+  private synchronized void store(String key, CachedResponse response, long loadGeneration) {
+    if (loadGeneration != generation) {
+      return;
+    }
+    entries.put(key, response);
+    Iterator<String> eldest = entries.keySet().iterator();
+    while (entries.size() > maxEntries && eldest.hasNext()) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  // Caller holds the monitor
+  private CachedResponse liveEntry(String key, long now) {
+    CachedResponse cached = entries.get(key);
+    if (Objects.nonNull(cached) && cached.expiresAtMillis() <= now) {
+      entries.remove(key);
+      return null;
+    }
+    return cached;
+  }
+
+  /**
+   * The response to keep for {@code body}, or empty when the backend's headers forbid storing it.
+   */
+  private Optional<CachedResponse> toCachedResponse(HttpHeaders headers, byte[] body) {
+    List<String> cacheControl = headers.getOrEmpty(HttpHeaders.CACHE_CONTROL);
+    if (body.length > maxEntryBytes || headers.containsKey(HttpHeaders.SET_COOKIE)
+        || headers.getOrEmpty(HttpHeaders.VARY).contains("*")
+        || hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "private")) {
+      return Optional.empty();
+    }
+    String etag = headers.getETag();
+    long freshMillis = ttlMillis;
+    if (hasDirective(cacheControl, "no-cache")) {
+      freshMillis = 0;
+    } else {
+      OptionalLong maxAge = directiveSeconds(cacheControl, "s-maxage");
+      if (maxAge.isEmpty()) {
+        maxAge = directiveSeconds(cacheControl, "max-age");
+      }
+      if (maxAge.isPresent()) {
+        freshMillis = Math.min(ttlMillis, maxAge.getAsLong() * 1000);
+      }
+    }
+    if (freshMillis <= 0 && Objects.isNull(etag)) {
+      return Optional.empty();
+    }
+    HttpHeaders stored = new HttpHeaders();
+    stored.putAll(headers);
+    stored.remove(HttpHeaders.TRANSFER_ENCODING);
+    stored.remove(HttpHeaders.CONNECTION);
+    stored.setContentLength(body.length);
+    long now = System.currentTimeMillis();
+    return Optional.of(new CachedResponse(HttpHeaders.readOnlyHttpHeaders(stored), body, etag, now + freshMillis,
+        now + ttlMillis));
+  }
+
+  private double hitRatio() {
+    double hits = hitCounter.count();
+    double lookups = hits + revalidatedCounter.count() + missCounter.count();
+    return lookups == 0 ? 0 : hits / lookups;
+  }
+
+  private Counter requestCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("gateway.response.cache.requests")
+        .description("GETs seen by the route response cache")
+        .tag("route", routeId)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  private static String cacheKey(ServerHttpRequest request) {
+    String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    return request.getURI().getRawPath() + '?' + Objects.toString(request.getURI().getRawQuery(), "")
+        + '\n' + Objects.toString(request.getHeaders().getFirst(HttpHeaders.ACCEPT), "")
+        + '\n' + (Objects.isNull(authorization) ? "" : sha256(authorization));
+  }
+
+  private static boolean hasDirective(List<String> cacheControl, String directive) {
+    return cacheControl.stream()
+        .flatMap(value -> List.of(value.split(",")).stream())
+        .anyMatch(part -> part.trim().toLowerCase(Locale.ROOT).equals(directive));
+  }
+
+  private static OptionalLong directiveSeconds(List<String> cacheControl, String directive) {
+    String prefix = directive + "=";
+    return cacheControl.stream()
+        .flatMap(value -> List.of(value.split(",")).stream())
+        .map(part -> part.trim().toLowerCase(Locale.ROOT))
+        .filter(part -> part.startsWith(prefix))
+        .mapToLong(part -> {
+          try {
+            return Math.max(0, Long.parseLong(part.substring(prefix.length()).replace("\"", "")));
+          } catch (NumberFormatException e) {
+            return 0;
+          }
+        })
+        .findFirst();
+  }
+
+  private static String sha256(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Buffers a 200 body to store it, and turns a 304 answer to the gateway's own revalidation into the stored 200.
+   */
+  private class CachingResponse extends ServerHttpResponseDecorator {
+
+    private final String key;
+    private final long loadGeneration;
+    private final CachedResponse revalidating;
+
+    CachingResponse(ServerHttpResponse delegate, String key, long loadGeneration, CachedResponse revalidating) {
+      super(delegate);
+      this.key = key;
+      this.loadGeneration = loadGeneration;
+      this.revalidating = revalidating;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+      HttpStatusCode status = getStatusCode();
+      if (Objects.nonNull(revalidating) && Objects.nonNull(status) && status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+        revalidatedCounter.increment();
+        return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(this::writeRevalidated));
+      }
+      missCounter.increment();
+      long contentLength = getHeaders().getContentLength();
+      if (Objects.isNull(status) || !status.isSameCodeAs(HttpStatus.OK) || contentLength > maxEntryBytes) {
+        return super.writeWith(body);
+      }
+      return DataBufferUtils.join(Flux.from(body))
+          .map(joined -> {
+            byte[] bytes = new byte[joined.readableByteCount()];
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+            return bytes;
+          })
+          .defaultIfEmpty(new byte[0])
+          .flatMap(bytes -> {
+            toCachedResponse(getHeaders(), bytes).ifPresent(cached -> store(key, cached, loadGeneration));
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+          });
+    }
+
+    private Mono<Void> writeRevalidated() {
+      HttpHeaders headers = new HttpHeaders();
+      headers.putAll(revalidating.headers());
+      // A 304 may carry updated freshness directives
+      List<String> cacheControl = getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL);
+      if (!cacheControl.isEmpty()) {
+        headers.put(HttpHeaders.CACHE_CONTROL, cacheControl);
+      }
+      toCachedResponse(headers, revalidating.body()).ifPresent(cached -> store(key, cached, loadGeneration));
+      setStatusCode(HttpStatus.OK);
+      getHeaders().clear();
+      getHeaders().putAll(headers);
+      return super.writeWith(Mono.just(bufferFactory().wrap(revalidating.body())));
+    }
+  }
+
+  private record CachedResponse(HttpHeaders headers, byte[] body, String etag, long freshUntilMillis,
+                                long expiresAtMillis) {
+  }
+}
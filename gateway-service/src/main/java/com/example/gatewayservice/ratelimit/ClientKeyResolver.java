@@ -0,0 +1,57 @@
+package com.example.gatewayservice.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limit key of the {@code RequestRateLimiter} routes: the caller's address. The gateway does not validate tokens,
+ * so the Authorization header is not part of the key; a client could otherwise reset its budget by sending a new
+ * made-up token with every request.
+ * <p>
+ * X-Forwarded-For is only read when the connection comes from one of {@code gateway.rate-limit.trusted-proxies}; the
+ * caller is then the right-most address in it that is not a trusted proxy itself.
+ */
+@Component
+public class ClientKeyResolver implements KeyResolver {
+
+  private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+  private final Set<String> trustedProxies;
+
+  public ClientKeyResolver(@Value("${gateway.rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+    this.trustedProxies = trustedProxies.stream()
+        .map(String::trim)
+        .filter(proxy -> !proxy.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  @Override
+  public Mono<String> resolve(ServerWebExchange exchange) {
+    InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+    String address = Objects.nonNull(remoteAddress) ? remoteAddress.getHostString() : "unknown";
+    if (trustedProxies.contains(address)) {
+      List<String> forwardedFor = exchange.getRequest().getHeaders().getOrEmpty(X_FORWARDED_FOR).stream()
+          .flatMap(value -> List.of(value.split(",")).stream())
+          .map(String::trim)
+          .filter(hop -> !hop.isEmpty())
+          .toList();
+      for (int i = forwardedFor.size() - 1; i >= 0; i--) {
+        address = forwardedFor.get(i);
+        if (!trustedProxies.contains(address)) {
+          break;
+        }
+      }
+    }
+    return Mono.just("address:" + address);
+  }
+}
@@ -0,0 +1,171 @@
+package com.example.gatewayservice.ratelimit;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Token bucket per route and client for the {@code RequestRateLimiter} route filter, held in this gateway's memory.
+ * Budgets are set per route with {@code in-memory-rate-limiter.replenishRate} (tokens per second),
+ * {@code in-memory-rate-limiter.burstCapacity} and {@code in-memory-rate-limiter.requestedTokens}. It implements the
+ * same {@code RateLimiter} contract as {@code RedisRateLimiter}, which can replace it once several gateway instances
+ * have to share one budget; until then each instance enforces the configured rate on its own.
+ * <p>
+ * Rejected requests get a {@code Retry-After} header with the seconds until enough tokens are back.
+ */
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+  public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+  private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+  private static final long MAX_RETRY_AFTER_SECONDS = 3600;
+  private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final Config defaultConfig;
+  private final int maxBuckets;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private volatile long sweptAtNanos = System.nanoTime();
+
+  public InMemoryRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry,
+      @Value("${gateway.rate-limit.default-replenish-rate:50}") double defaultReplenishRate,
+      @Value("${gateway.rate-limit.default-burst-capacity:100}") long defaultBurstCapacity,
+      @Value("${gateway.rate-limit.max-buckets:100000}") int maxBuckets) {
+    super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+    this.meterRegistry = meterRegistry;
+    this.maxBuckets = maxBuckets;
+    this.defaultConfig = new Config();
+    this.defaultConfig.setReplenishRate(defaultReplenishRate);
+    this.defaultConfig.setBurstCapacity(defaultBurstCapacity);
+  }
+
+  @Override
+  public Mono<Response> isAllowed(String routeId, String id) {
+    Config config = getConfig().getOrDefault(routeId, defaultConfig);
+    long now = System.nanoTime();
+    if (buckets.size() >= maxBuckets && now - sweptAtNanos > SWEEP_INTERVAL_NANOS) {
+      sweptAtNanos = now;
+      evictRefilledBuckets(now);
+    }
+    TokenBucket bucket = buckets.computeIfAbsent(routeId + '\n' + id,
+        key -> new TokenBucket(config.getBurstCapacity(), config.getReplenishRate(), now));
+    double waitSeconds = bucket.tryConsume(config.getRequestedTokens(), now);
+    boolean allowed = waitSeconds == 0;
+    Counter.builder("gateway.rate.limit.requests")
+        .description("Requests checked against the route token buckets")
+        .tag("route", routeId)
+        .tag("result", allowed ? "allowed" : "rejected")
+        .register(meterRegistry)
+        .increment();
+    Map<String, String> headers = new HashMap<>();
+    headers.put(REMAINING_HEADER, String.valueOf(bucket.availableTokens()));
+    if (!allowed) {
+      long retryAfterSeconds = (long) Math.ceil(Math.min(waitSeconds, MAX_RETRY_AFTER_SECONDS));
+      headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+    return Mono.just(new Response(allowed, headers));
+  }
+
+  // Full buckets carry no state a new bucket would not have, so they are the ones to drop
+  private void evictRefilledBuckets(long now) {
+    Iterator<TokenBucket> iterator = buckets.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isFull(now)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private static final class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAtNanos;
+
+    TokenBucket(long capacity, double tokensPerSecond, long now) {
+      this.capacity = capacity;
+      this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+      this.tokens = capacity;
+      this.refilledAtNanos = now;
+    }
+
+    /**
+     * @return 0 when the tokens were taken, otherwise the seconds until {@code requested} tokens are available
+     */
+    synchronized double tryConsume(long requested, long now) {
+      refill(now);
+      if (tokens >= requested) {
+        tokens -= requested;
+        return 0;
+      }
+      if (tokensPerNano <= 0 || requested > capacity) {
+        return Double.MAX_VALUE;
+      }
+      return Math.max(1, (requested - tokens) / tokensPerNano / 1_000_000_000d);
+    }
+
+    synchronized long availableTokens() {
+      return (long) tokens;
+    }
+
+    synchronized boolean isFull(long now) {
+      refill(now);
+      return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+      tokens = Math.min(capacity, tokens + (now - refilledAtNanos) * tokensPerNano);
+      refilledAtNanos = now;
+    }
+  }
+
+  public static class Config {
+
+    private double replenishRate = 50;
+    private long burstCapacity = 100;
+    private long requestedTokens = 1;
+
+    public double getReplenishRate() {
+      return replenishRate;
+    }
+
+    public void setReplenishRate(double replenishRate) {
+      this.replenishRate = replenishRate;
+    }
+
+    public long getBurstCapacity() {
+      return burstCapacity;
+    }
+
+    public void setBurstCapacity(long burstCapacity) {
+      this.burstCapacity = burstCapacity;
+    }
+
+    public long getRequestedTokens() {
+      return requestedTokens;
+    }
+
+    public void setRequestedTokens(long requestedTokens) {
+      this.requestedTokens = requestedTokens;
+    }
+
+    @Override
+    public String toString() {
+      return "replenishRate=" + replenishRate + ", burstCapacity=" + burstCapacity
+          + ", requestedTokens=" + requestedTokens;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.gatewayservice.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void filter_shedsRequestsAtLimitWith503AndRetryAfter() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(5));
+        Sinks.Empty<Void> gate = Sinks.empty();
+
+        CompletableFuture<Void> first = limiter.filter(get(), exchange -> {
+            upstreamCalls.incrementAndGet();
+            return gate.asMono();
+        }).toFuture();
+        MockServerWebExchange shed = get();
+        limiter.filter(shed, respond(HttpStatus.OK)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.shed").counter().count());
+
+        gate.tryEmitEmpty();
+        first.join();
+        assertEquals(0, limiter.getInFlight());
+        MockServerWebExchange afterRelease = get();
+        limiter.filter(afterRelease, respond(HttpStatus.OK)).block();
+        assertEquals(HttpStatus.OK, afterRelease.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_overloadedUpstreamLowersLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofSeconds(5));
+
+        limiter.filter(get(), respond(HttpStatus.SERVICE_UNAVAILABLE)).block();
+
+        assertEquals(5.0, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void filter_latencyMeasuredAtCommitWhileSlotHeldUntilCompletion() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, Duration.ofSeconds(5));
+        Sinks.Empty<Void> bodyDone = Sinks.empty();
+
+        CompletableFuture<Void> request = limiter.filter(get(),
+                exchange -> respond(HttpStatus.OK).filter(exchange).then(bodyDone.asMono())).toFuture();
+        assertEquals(2.5, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+        assertFalse(request.isDone());
+
+        bodyDone.tryEmitEmpty();
+        request.join();
+        assertEquals(2.5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void filter_slowCommitLowersLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofMillis(10));
+
+        limiter.filter(get(), exchange -> Mono.delay(Duration.ofMillis(50))
+                .then(respond(HttpStatus.OK).filter(exchange))).block(Duration.ofSeconds(5));
+
+        assertEquals(5.0, limiter.getLimit());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimiter("resource-service", initialLimit, 1, 100, latencyThreshold, 0.5,
+                meterRegistry);
+    }
+
+    private MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/resources/1"));
+    }
+
+    private GatewayFilterChain respond(HttpStatus status) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            byte[] bytes = status.getReasonPhrase().getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        };
+    }
+}
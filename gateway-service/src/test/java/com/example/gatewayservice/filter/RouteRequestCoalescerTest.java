@@ -0,0 +1,164 @@
+package com.example.gatewayservice.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RouteRequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Backend backend;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backend = new Backend();
+    }
+
+    @Test
+    void filter_waiterReceivesCopyOfLeaderResponse() {
+        RouteRequestCoalescer coalescer = coalescer(Duration.ofSeconds(5), 1024);
+        backend.respond(HttpStatus.OK, "{\"id\":1}");
+
+        MockServerWebExchange leader = get("/songs/1");
+        CompletableFuture<Void> leaderDone = coalescer.filter(leader, backend).toFuture();
+        MockServerWebExchange waiter = get("/songs/1");
+        CompletableFuture<Void> waiterDone = coalescer.filter(waiter, backend).toFuture();
+        assertFalse(waiterDone.isDone());
+        backend.openGate();
+        leaderDone.join();
+        waiterDone.join();
+
+        assertEquals(1, backend.calls.get());
+        assertEquals("{\"id\":1}", leader.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, waiter.getResponse().getStatusCode());
+        assertEquals(8, waiter.getResponse().getHeaders().getContentLength());
+        assertEquals("{\"id\":1}", waiter.getResponse().getBodyAsString().block());
+        assertEquals(1.0, meterRegistry.get("gateway.coalescing.upstream.calls.saved").counter().count());
+    }
+
+    @Test
+    void filter_oversizeResponseNotSharedAndWaiterGoesUpstream() {
+        RouteRequestCoalescer coalescer = coalescer(Duration.ofSeconds(5), 4);
+        backend.respond(HttpStatus.OK, "{\"id\":1}");
+
+        MockServerWebExchange leader = get("/songs/1");
+        CompletableFuture<Void> leaderDone = coalescer.filter(leader, backend).toFuture();
+        MockServerWebExchange waiter = get("/songs/1");
+        CompletableFuture<Void> waiterDone = coalescer.filter(waiter, backend).toFuture();
+        backend.openGate();
+        leaderDone.join();
+        waiterDone.join();
+
+        assertEquals(2, backend.calls.get());
+        assertEquals("{\"id\":1}", leader.getResponse().getBodyAsString().block());
+        assertEquals("{\"id\":1}", waiter.getResponse().getBodyAsString().block());
+        assertEquals(0.0, meterRegistry.get("gateway.coalescing.upstream.calls.saved").counter().count());
+    }
+
+    @Test
+    void filter_errorResponseNotShared() {
+        RouteRequestCoalescer coalescer = coalescer(Duration.ofSeconds(5), 1024);
+        backend.respond(HttpStatus.SERVICE_UNAVAILABLE, "busy");
+
+        CompletableFuture<Void> leaderDone = coalescer.filter(get("/songs/1"), backend).toFuture();
+        CompletableFuture<Void> waiterDone = coalescer.filter(get("/songs/1"), backend).toFuture();
+        backend.openGate();
+        leaderDone.join();
+        waiterDone.join();
+
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    void filter_waiterGoesUpstreamWhenWaitRunsOut() {
+        RouteRequestCoalescer coalescer = coalescer(Duration.ofMillis(50), 1024);
+        backend.respond(HttpStatus.OK, "{\"id\":1}");
+
+        CompletableFuture<Void> leaderDone = coalescer.filter(get("/songs/1"), backend).toFuture();
+        MockServerWebExchange waiter = get("/songs/1");
+        coalescer.filter(waiter, backend).block(Duration.ofSeconds(5));
+
+        assertFalse(leaderDone.isDone());
+        assertEquals(2, backend.calls.get());
+        assertEquals("{\"id\":1}", waiter.getResponse().getBodyAsString().block());
+        backend.openGate();
+        leaderDone.join();
+    }
+
+    @Test
+    void filter_differentValidatorsNotCoalesced() {
+        RouteRequestCoalescer coalescer = coalescer(Duration.ofSeconds(5), 1024);
+        backend.respond(HttpStatus.OK, "{\"id\":1}");
+
+        CompletableFuture<Void> leaderDone = coalescer.filter(get("/songs/1"), backend).toFuture();
+        MockServerWebExchange conditional = MockServerWebExchange.from(MockServerHttpRequest.get("/songs/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+        coalescer.filter(conditional, backend).block(Duration.ofSeconds(5));
+
+        assertEquals(2, backend.calls.get());
+        backend.openGate();
+        leaderDone.join();
+    }
+
+    private RouteRequestCoalescer coalescer(Duration maxWait, int maxResponseBytes) {
+        return new RouteRequestCoalescer("songs", List.of("Authorization", "Accept"), maxWait, maxResponseBytes,
+                meterRegistry);
+    }
+
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    /**
+     * Holds its first call until {@link #openGate()}, so that later identical requests find it in flight; later calls
+     * are answered at once.
+     */
+    private static class Backend implements GatewayFilterChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Sinks.Empty<Void> gate = Sinks.empty();
+        private HttpStatus status;
+        private String body;
+
+        void respond(HttpStatus status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        void openGate() {
+            gate.tryEmitEmpty();
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            Mono<Void> ready = calls.incrementAndGet() == 1 ? gate.asMono() : Mono.empty();
+            return ready.then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                response.setStatusCode(status);
+                response.getHeaders().setContentLength(bytes.length);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+            }));
+        }
+    }
+}
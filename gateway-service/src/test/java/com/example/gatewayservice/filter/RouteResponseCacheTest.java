@@ -0,0 +1,169 @@
+package com.example.gatewayservice.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class RouteResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RouteResponseCache cache;
+    private Backend backend;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RouteResponseCache("songs", 10, Duration.ofMinutes(1), 1024, meterRegistry);
+        backend = new Backend();
+    }
+
+    @Test
+    void filter_freshEntryAnsweredWithoutUpstreamCall() {
+        backend.respond("{\"id\":1}", null, "max-age=60");
+
+        MockServerWebExchange first = get("/songs/1");
+        cache.filter(first, backend).block();
+        MockServerWebExchange second = get("/songs/1");
+        cache.filter(second, backend).block();
+
+        assertEquals(1, backend.requests.size());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals("{\"id\":1}", second.getResponse().getBodyAsString().block());
+        assertEquals(1.0, requestCount("miss"));
+        assertEquals(1.0, requestCount("hit"));
+    }
+
+    @Test
+    void filter_noCacheEntryRevalidatedAndBackend304AnsweredWithStoredBody() {
+        backend.respond("{\"id\":1}", "\"v1\"", "no-cache");
+
+        cache.filter(get("/songs/1"), backend).block();
+        MockServerWebExchange revalidated = get("/songs/1");
+        cache.filter(revalidated, backend).block();
+
+        assertEquals(2, backend.requests.size());
+        assertEquals(List.of("\"v1\""), backend.requests.get(1).getIfNoneMatch());
+        assertEquals(HttpStatus.NOT_MODIFIED, backend.statuses.get(1));
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals("\"v1\"", revalidated.getResponse().getHeaders().getETag());
+        assertEquals("{\"id\":1}", revalidated.getResponse().getBodyAsString().block());
+        assertEquals(1.0, requestCount("revalidated"));
+    }
+
+    @Test
+    void filter_clientIfNoneMatchOnFreshEntryGets304() {
+        backend.respond("{\"id\":1}", "\"v1\"", "max-age=60");
+
+        cache.filter(get("/songs/1"), backend).block();
+        MockServerWebExchange conditional = MockServerWebExchange.from(MockServerHttpRequest.get("/songs/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+        cache.filter(conditional, backend).block();
+
+        assertEquals(1, backend.requests.size());
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals("\"v1\"", conditional.getResponse().getHeaders().getETag());
+        assertEquals("", conditional.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void filter_writeInvalidatesRouteCache() {
+        backend.respond("{\"id\":1}", null, "max-age=60");
+        cache.filter(get("/songs/1"), backend).block();
+        assertEquals(1, cache.getEntryCount());
+
+        cache.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/songs")), backend).block();
+        assertEquals(0, cache.getEntryCount());
+
+        backend.respond("{\"id\":2}", null, "max-age=60");
+        MockServerWebExchange afterWrite = get("/songs/1");
+        cache.filter(afterWrite, backend).block();
+
+        assertEquals(3, backend.requests.size());
+        assertEquals("{\"id\":2}", afterWrite.getResponse().getBodyAsString().block());
+        assertEquals(0.0, requestCount("hit"));
+        assertEquals(2.0, requestCount("miss"));
+    }
+
+    @Test
+    void filter_privateResponseNotStored() {
+        backend.respond("{\"id\":1}", null, "private, max-age=60");
+
+        cache.filter(get("/songs/1"), backend).block();
+        cache.filter(get("/songs/1"), backend).block();
+
+        assertEquals(2, backend.requests.size());
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    private MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private double requestCount(String result) {
+        return meterRegistry.get("gateway.response.cache.requests").tag("result", result).counter().count();
+    }
+
+    /**
+     * Answers GETs with its current body, or 304 when If-None-Match carries its ETag. Like NettyWriteResponseFilter, it
+     * always hands the body to {@code writeWith}, empty or not.
+     */
+    private static class Backend implements GatewayFilterChain {
+
+        private final List<HttpHeaders> requests = new ArrayList<>();
+        private final List<HttpStatus> statuses = new ArrayList<>();
+        private String body;
+        private String etag;
+        private String cacheControl;
+
+        void respond(String body, String etag, String cacheControl) {
+            this.body = body;
+            this.etag = etag;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+            requests.add(requestHeaders);
+            ServerHttpResponse response = exchange.getResponse();
+            if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+                statuses.add(HttpStatus.CREATED);
+                response.setStatusCode(HttpStatus.CREATED);
+                return response.writeWith(Flux.empty());
+            }
+            if (Objects.nonNull(etag)) {
+                response.getHeaders().setETag(etag);
+            }
+            response.getHeaders().setCacheControl(cacheControl);
+            if (Objects.nonNull(etag) && requestHeaders.getIfNoneMatch().contains(etag)) {
+                statuses.add(HttpStatus.NOT_MODIFIED);
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.writeWith(Flux.empty());
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            statuses.add(HttpStatus.OK);
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentLength(bytes.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.gatewayservice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+class ClientKeyResolverTest {
+
+    private final ClientKeyResolver resolver = new ClientKeyResolver(List.of("10.0.0.10", "10.0.0.11"));
+
+    @Test
+    void resolve_ignoresAuthorizationHeader() {
+        assertEquals("address:192.168.1.5", resolve("192.168.1.5", "Bearer a", null));
+        assertEquals("address:192.168.1.5", resolve("192.168.1.5", "Bearer b", null));
+    }
+
+    @Test
+    void resolve_ignoresForwardedForFromUntrustedPeer() {
+        assertEquals("address:192.168.1.5", resolve("192.168.1.5", null, "203.0.113.7"));
+    }
+
+    @Test
+    void resolve_takesRightmostUntrustedForwardedForHopFromTrustedProxy() {
+        assertEquals("address:203.0.113.7", resolve("10.0.0.10", null, "198.51.100.1, 203.0.113.7, 10.0.0.11"));
+    }
+
+    private String resolve(String remoteAddress, String authorization, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/resources/1")
+                .remoteAddress(new InetSocketAddress(remoteAddress, 40000));
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        return resolver.resolve(MockServerWebExchange.from(request)).block();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.gatewayservice.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class InMemoryRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new InMemoryRateLimiter(mock(ConfigurationService.class), meterRegistry, 50, 100, 1000);
+        rateLimiter.getConfig().put("resource-upload", budget(1, 2));
+    }
+
+    @Test
+    void isAllowed_rejectsOnceBurstIsSpentWithRetryAfter() {
+        assertTrue(rateLimiter.isAllowed("resource-upload", "client").block().isAllowed());
+        RateLimiter.Response second = rateLimiter.isAllowed("resource-upload", "client").block();
+        assertTrue(second.isAllowed());
+        assertNull(second.getHeaders().get(HttpHeaders.RETRY_AFTER));
+
+        RateLimiter.Response rejected = rateLimiter.isAllowed("resource-upload", "client").block();
+
+        assertFalse(rejected.isAllowed());
+        assertEquals("1", rejected.getHeaders().get(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", rejected.getHeaders().get("X-RateLimit-Remaining"));
+        assertEquals(1.0, meterRegistry.get("gateway.rate.limit.requests")
+                .tag("route", "resource-upload").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void isAllowed_budgetsArePerRouteAndClient() {
+        rateLimiter.isAllowed("resource-upload", "client").block();
+        rateLimiter.isAllowed("resource-upload", "client").block();
+        assertFalse(rateLimiter.isAllowed("resource-upload", "client").block().isAllowed());
+
+        assertTrue(rateLimiter.isAllowed("resource-upload", "other-client").block().isAllowed());
+        RateLimiter.Response otherRoute = rateLimiter.isAllowed("song-service", "client").block();
+        assertTrue(otherRoute.isAllowed());
+        assertEquals("99", otherRoute.getHeaders().get("X-RateLimit-Remaining"));
+    }
+
+    @Test
+    void requestRateLimiter_respondsWith429AndRateLimitHeadersEvenWhenTokenRotates() {
+        RequestRateLimiterGatewayFilterFactory factory =
+                new RequestRateLimiterGatewayFilterFactory(rateLimiter, new ClientKeyResolver(List.of()));
+        RequestRateLimiterGatewayFilterFactory.Config config = new RequestRateLimiterGatewayFilterFactory.Config();
+        config.setRouteId("resource-upload");
+        GatewayFilter filter = factory.apply(config);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GatewayFilterChain chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().setComplete();
+        };
+
+        filter.filter(upload("10.0.0.1", "Bearer a"), chain).block();
+        filter.filter(upload("10.0.0.1", "Bearer b"), chain).block();
+        MockServerWebExchange rejected = upload("10.0.0.1", "Bearer c");
+        filter.filter(rejected, chain).block();
+        MockServerWebExchange otherClient = upload("10.0.0.2", "Bearer a");
+        filter.filter(otherClient, chain).block();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", rejected.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        assertEquals(HttpStatus.OK, otherClient.getResponse().getStatusCode());
+        assertEquals("1", otherClient.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+    }
+
+    private static MockServerWebExchange upload(String address, String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/resources")
+                .remoteAddress(new InetSocketAddress(address, 40000))
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+
+    private static InMemoryRateLimiter.Config budget(double replenishRate, long burstCapacity) {
+        InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        return config;
+    }
+}
@@ -3,4 +3,13 @@
 
 awslocal s3 mb s3://permanent-resource-files
 awslocal s3 mb s3://staging-resource-files
-echo "S3 bucket 'permanent-resource-files' and 'staging-resource-files' created."
\ No newline at end of file
+echo "S3 bucket 'permanent-resource-files' and 'staging-resource-files' created."
+
+# Versioning lets resource-service undo a batch delete by removing the delete markers instead of re-uploading bytes.
+# Lifecycle: backstop for multipart uploads the service could not abort itself (e.g. crashed mid-upload), and
+# expiry of the versions a completed delete leaves behind.
+for bucket in permanent-resource-files staging-resource-files; do
+  awslocal s3api put-bucket-versioning --bucket "$bucket" --versioning-configuration Status=Enabled
+  awslocal s3api put-bucket-lifecycle-configuration --bucket "$bucket" --lifecycle-configuration \
+    '{"Rules":[{"ID":"abort-incomplete-multipart-uploads","Status":"Enabled","Filter":{"Prefix":""},"AbortIncompleteMultipartUpload":{"DaysAfterInitiation":1}},{"ID":"expire-deleted-versions","Status":"Enabled","Filter":{"Prefix":""},"NoncurrentVersionExpiration":{"NoncurrentDays":1},"Expiration":{"ExpiredObjectDeleteMarker":true}}]}'
+done
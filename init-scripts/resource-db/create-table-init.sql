@@ -1,5 +1,5 @@
--- Create sequence explicitly
-CREATE SEQUENCE IF NOT EXISTS resource_seq START WITH 1 INCREMENT BY 1;
+-- Create sequence explicitly; INCREMENT BY equals allocationSize of ResourceEntity
+CREATE SEQUENCE IF NOT EXISTS resource_seq START WITH 1 INCREMENT BY 50;
 
 -- Create table using the sequence
 CREATE TABLE IF NOT EXISTS resource (
@@ -9,12 +9,29 @@ CREATE TABLE IF NOT EXISTS resource (
   uploaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
--- Create sequence explicitly
-CREATE SEQUENCE IF NOT EXISTS outbox_event_seq START WITH 1 INCREMENT BY 1;
+-- Create sequence explicitly; INCREMENT BY equals allocationSize of OutboxEvent
+CREATE SEQUENCE IF NOT EXISTS outbox_event_seq START WITH 1 INCREMENT BY 50;
 
 -- Create table using the sequence
 CREATE TABLE IF NOT EXISTS outbox_event (
   id BIGINT PRIMARY KEY DEFAULT nextval('outbox_event_seq'),
   resource_id BIGINT NOT NULL,
-  processed BOOLEAN NOT NULL DEFAULT FALSE
+  processed BOOLEAN NOT NULL DEFAULT FALSE,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
+
+-- Keeps the relay's page claim and backlog count cheap once most rows are processed
+CREATE INDEX IF NOT EXISTS outbox_event_pending_idx ON outbox_event (id) WHERE processed = FALSE;
+
+-- Wake the outbox relay: the NOTIFY is delivered when the inserting (upload) transaction commits
+CREATE OR REPLACE FUNCTION notify_outbox_event() RETURNS trigger AS $$
+BEGIN
+  PERFORM pg_notify('outbox_event', '');
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS outbox_event_notify ON outbox_event;
+CREATE TRIGGER outbox_event_notify
+  AFTER INSERT ON outbox_event
+  FOR EACH STATEMENT EXECUTE FUNCTION notify_outbox_event();
@@ -0,0 +1,56 @@
+-- Lookup-by-resource_id benchmark, run manually against SONG_DB:
+--   docker compose exec -T song_db sh -c 'psql -U "$POSTGRES_USER" -d "$POSTGRES_DB"' < init-scripts/song-db/benchmark-resource-id-lookup.sql
+-- Works on a scratch copy of the song table in its own schema, so application data is left alone.
+-- For each table size it reports:
+--   full_scan_ms - reading every row, i.e. what findAll().stream().filter(...) cost before song_resource_id_uidx
+--   indexed_ms   - average of 1000 random findByResourceId lookups through the unique index
+
+DROP SCHEMA IF EXISTS song_bench CASCADE;
+CREATE SCHEMA song_bench;
+
+CREATE TABLE song_bench.song (LIKE public.song INCLUDING DEFAULTS);
+CREATE UNIQUE INDEX song_bench_resource_id_uidx ON song_bench.song (resource_id);
+
+CREATE TABLE song_bench.result (
+    rows_in_table BIGINT,
+    full_scan_ms NUMERIC,
+    indexed_ms NUMERIC
+);
+
+DO $$
+DECLARE
+    table_size BIGINT;
+    loaded BIGINT := 0;
+    started TIMESTAMPTZ;
+    full_scan_ms NUMERIC;
+    indexed_ms NUMERIC;
+    found_name VARCHAR;
+BEGIN
+    FOREACH table_size IN ARRAY ARRAY[10000, 100000, 1000000, 3000000] LOOP
+        INSERT INTO song_bench.song (id, name, artist, album, duration, year, resource_id)
+        SELECT n, 'song ' || n, 'artist ' || (n % 5000), 'album ' || (n % 20000), '03:45', '1999', n
+        FROM generate_series(loaded + 1, table_size) AS n;
+        loaded := table_size;
+        ANALYZE song_bench.song;
+
+        started := clock_timestamp();
+        PERFORM count(*) FROM (SELECT * FROM song_bench.song) AS all_rows;
+        full_scan_ms := extract(epoch FROM clock_timestamp() - started) * 1000;
+
+        started := clock_timestamp();
+        FOR i IN 1..1000 LOOP
+            SELECT name INTO found_name FROM song_bench.song
+            WHERE resource_id = 1 + floor(random() * table_size)::INTEGER;
+        END LOOP;
+        indexed_ms := extract(epoch FROM clock_timestamp() - started) * 1000 / 1000;
+
+        INSERT INTO song_bench.result VALUES (table_size, round(full_scan_ms, 3), round(indexed_ms, 4));
+    END LOOP;
+END $$;
+
+SELECT * FROM song_bench.result ORDER BY rows_in_table;
+
+-- Plan check at the largest size: expect an Index Scan on song_bench_resource_id_uidx
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM song_bench.song WHERE resource_id = 2500000;
+
+DROP SCHEMA song_bench CASCADE;
@@ -1,5 +1,5 @@
--- Explicit sequence
-CREATE SEQUENCE IF NOT EXISTS song_seq START WITH 1 INCREMENT BY 1;
+-- Explicit sequence; INCREMENT BY matches allocationSize of SongEntity so Hibernate reserves 50 ids per nextval
+CREATE SEQUENCE IF NOT EXISTS song_seq START WITH 1 INCREMENT BY 50;
 
 -- Table definition using the explicit sequence
 CREATE TABLE IF NOT EXISTS song (
@@ -10,4 +10,7 @@ CREATE TABLE IF NOT EXISTS song (
     duration VARCHAR(255),
     year VARCHAR(255),
     resource_id INTEGER
-);
\ No newline at end of file
+);
+
+-- One metadata row per resource; also serves GET /songs/resource-identifiers/{resourceId} and DELETE /songs/by-resource
+CREATE UNIQUE INDEX IF NOT EXISTS song_resource_id_uidx ON song (resource_id);
@@ -1,5 +1,5 @@
--- Create sequence explicitly
-CREATE SEQUENCE IF NOT EXISTS storage_seq START WITH 1 INCREMENT BY 1;
+-- Create sequence explicitly; INCREMENT BY equals allocationSize of StorageEntity
+CREATE SEQUENCE IF NOT EXISTS storage_seq START WITH 1 INCREMENT BY 50;
 
 -- Create table using the sequence
 CREATE TABLE IF NOT EXISTS storage (
@@ -0,0 +1,77 @@
+package com.example.resourceprocessor;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Pooled HttpClient for the calls the processor makes to resource-service and song-service. The per-route limit
+ * covers {@code metadata.extraction.batch.parallelism} concurrent downloads from resource-service.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.max-total:20}")
+    private int maxTotal;
+    @Value("${http.client.max-per-route:10}")
+    private int maxPerRoute;
+    @Value("${http.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+    @Value("${http.client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+    @Value("${http.client.connection-request-timeout-ms:2000}")
+    private long connectionRequestTimeoutMs;
+    @Value("${http.client.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Bean
+    public PoolingHttpClientConnectionManager interServiceConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient interServiceHttpClient(PoolingHttpClientConnectionManager interServiceConnectionManager) {
+        TimeValue maxKeepAlive = TimeValue.ofSeconds(keepAliveSeconds);
+        return HttpClients.custom()
+                .setConnectionManager(interServiceConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> maxKeepAlive.min(
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)))
+                .evictIdleConnections(maxKeepAlive)
+                .evictExpiredConnections()
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory interServiceRequestFactory(CloseableHttpClient interServiceHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(interServiceHttpClient);
+    }
+
+    @Bean
+    public MeterBinder interServiceConnectionPoolMetrics(PoolingHttpClientConnectionManager interServiceConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(interServiceConnectionManager, "inter-service");
+    }
+}
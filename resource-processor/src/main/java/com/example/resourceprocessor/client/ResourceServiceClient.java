@@ -1,12 +1,19 @@
 package com.example.resourceprocessor.client;
 
+import com.example.resourceprocessor.model.ResourceRange;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Objects;
+
 @Component
 public class ResourceServiceClient {
     @Value("${resource.service.url}")
@@ -28,8 +35,35 @@ public class ResourceServiceClient {
         return restTemplate.getForObject(url, byte[].class);
     }
 
+    /**
+     * Fetches one byte range of the resource, e.g. {@code bytes=0-65535} or the suffix range {@code bytes=-128}. The
+     * total size comes from Content-Range; a server that ignores the range answers 200 with the whole body.
+     */
+    @Retryable(
+            value = Exception.class,
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 2000, multiplier = 2)
+    )
+    public ResourceRange getResourceRange(String resourceId, String range) {
+        String url = resourceServiceUrl + "/resources/" + resourceId;
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, range);
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        byte[] body = Objects.requireNonNullElse(response.getBody(), new byte[0]);
+        String contentRange = response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE);
+        if (Objects.isNull(contentRange) || !contentRange.contains("/")) {
+            return new ResourceRange(body, body.length);
+        }
+        return new ResourceRange(body, Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1).trim()));
+    }
+
     @Recover
     public void recover(Exception e, String resourceId) {
         throw new RuntimeException(e);
     }
+
+    @Recover
+    public ResourceRange recoverRange(Exception e, String resourceId, String range) {
+        throw new RuntimeException(e);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.resourceprocessor.client;
 
 import com.example.resourceprocessor.exception.MetadataClientException;
 import com.example.resourceprocessor.model.ErrorResponse;
+import com.example.resourceprocessor.model.SongBatchItemResult;
 import com.example.resourceprocessor.model.SongMetadata;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,8 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 @Component
 public class SongServiceClient {
     @Value("${song.service.url}")
@@ -32,6 +35,28 @@ public class SongServiceClient {
         return restTemplate.postForEntity(url, songMetadata, String.class);
     }
 
+    /**
+     * Saves metadata of many resources in one call; the result list has one entry per item, in request order.
+     */
+    @Retryable(
+            value = Exception.class,
+            maxAttempts = 3,
+            backoff = @Backoff(delay = 2000, multiplier = 2)
+    )
+    public List<SongBatchItemResult> saveResourceMetadataBatch(List<SongMetadata> songMetadata) {
+        String url = songServiceUrl + "/songs/batch";
+        SongBatchItemResult[] results = restTemplate.postForObject(url, songMetadata, SongBatchItemResult[].class);
+        return results == null ? List.of() : List.of(results);
+    }
+
+    @Recover
+    public List<SongBatchItemResult> recoverBatch(Exception e, List<SongMetadata> songMetadata) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setErrorCode("503");
+        errorResponse.setErrorMessage("Metadata Service can not perform database operation for a batch of " + songMetadata.size() + " resources after multiple attempts. ");
+        throw new MetadataClientException(e.getMessage(), errorResponse);
+    }
+
     @Recover
     public void recover(Exception e, SongMetadata metadata) {
         ErrorResponse errorResponse = new ErrorResponse();
@@ -4,7 +4,18 @@ import com.example.resourceprocessor.client.ResourceServiceClient;
 import com.example.resourceprocessor.client.SongServiceClient;
 import com.example.resourceprocessor.exception.InvalidDataException;
 import com.example.resourceprocessor.messaging.publisher.ProcessSongMetadataPublisher;
+import com.example.resourceprocessor.metadata.Mp3DurationEstimator;
+import com.example.resourceprocessor.metadata.Mp3Metadata;
+import com.example.resourceprocessor.metadata.Mp3MetadataParser;
+import com.example.resourceprocessor.model.ResourceRange;
+import com.example.resourceprocessor.model.SongBatchItemResult;
 import com.example.resourceprocessor.model.SongMetadata;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.ThreadContext;
@@ -13,32 +24,122 @@ import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.ParseContext;
 import org.apache.tika.parser.mp3.Mp3Parser;
 import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
 import org.xml.sax.SAXException;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 @Configuration
 public class CreateResourceMetadataListener {
     private static final Logger LOGGER = LogManager.getLogger(CreateResourceMetadataListener.class);
     public static final String PROCESS_SONG_METADATA_OUT = "processSongMetadata-out-0";
+    // Bytes past the end of the ID3v2 tag needed to find the first frame and its Xing/VBRI header
+    private static final int FRAME_PROBE_BYTES = 4096;
+    // Keeps a dead-lettered message well below RabbitMQ's default 128 KB frame size
+    private static final int MAX_STACKTRACE_CHARS = 16384;
     private final ResourceServiceClient resourceClient;
     private final SongServiceClient songClient;
     private final ProcessSongMetadataPublisher processSongMetadataPublisher;
+    private final Counter headerExtractionCounter;
+    private final Counter fullExtractionCounter;
+    private final DistributionSummary fetchedBytesSummary;
+    private final Counter nativeParserCounter;
+    private final Counter tikaParserCounter;
+    private final Mp3MetadataParser metadataParser = new Mp3MetadataParser();
+    private final DistributionSummary batchSizeSummary;
+    private final Counter batchAckedCounter;
+    private final Counter batchRejectedCounter;
+    private ExecutorService batchExecutor;
+    @Value("${metadata.extraction.header-only.enabled:true}")
+    private boolean headerOnlyExtraction;
+    @Value("${metadata.extraction.header-only.head-bytes:65536}")
+    private int headBytes;
+    @Value("${metadata.extraction.header-only.max-head-bytes:1048576}")
+    private int maxHeadBytes;
+    @Value("${metadata.extraction.batch.parallelism:8}")
+    private int batchParallelism;
+    @Value("${metadata.extraction.batch.max-attempts:3}")
+    private int batchMaxAttempts;
+    @Value("${metadata.extraction.batch.back-off-initial-interval:2000}")
+    private long batchBackOffInitialInterval;
+    @Value("${metadata.extraction.batch.back-off-max-interval:10000}")
+    private long batchBackOffMaxInterval;
+    @Value("${metadata.extraction.batch.back-off-multiplier:2.0}")
+    private double batchBackOffMultiplier;
+    @Value("${metadata.extraction.batch.dlq.exchange:DLX}")
+    private String dlqExchange;
+    @Value("${metadata.extraction.batch.dlq.routing-key:resource.exchange.createResource}")
+    private String dlqRoutingKey;
+
     public CreateResourceMetadataListener(ResourceServiceClient resourceClient, SongServiceClient songClient,
-                                         ProcessSongMetadataPublisher processSongMetadataPublisher) {
+                                         ProcessSongMetadataPublisher processSongMetadataPublisher,
+                                         MeterRegistry meterRegistry) {
         this.resourceClient = resourceClient;
         this.songClient = songClient;
         this.processSongMetadataPublisher = processSongMetadataPublisher;
+        this.headerExtractionCounter = Counter.builder("resource.metadata.extraction")
+                .description("Resources whose metadata was extracted")
+                .tag("mode", "header")
+                .register(meterRegistry);
+        this.fullExtractionCounter = Counter.builder("resource.metadata.extraction")
+                .description("Resources whose metadata was extracted")
+                .tag("mode", "full")
+                .register(meterRegistry);
+        this.fetchedBytesSummary = DistributionSummary.builder("resource.metadata.fetched.bytes")
+                .description("Resource bytes downloaded per metadata extraction attempt")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.nativeParserCounter = Counter.builder("resource.metadata.parser")
+                .description("Metadata parses by parser; tika counts files the native parser could not read")
+                .tag("parser", "native")
+                .register(meterRegistry);
+        this.tikaParserCounter = Counter.builder("resource.metadata.parser")
+                .description("Metadata parses by parser; tika counts files the native parser could not read")
+                .tag("parser", "tika")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("resource.metadata.batch.size")
+                .description("Messages delivered per createResourceMetadataBatch invocation")
+                .register(meterRegistry);
+        this.batchAckedCounter = Counter.builder("resource.metadata.batch.messages")
+                .description("Batch-consumed messages by outcome")
+                .tag("outcome", "acked")
+                .register(meterRegistry);
+        this.batchRejectedCounter = Counter.builder("resource.metadata.batch.messages")
+                .description("Batch-consumed messages by outcome")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
     }
 
     @Bean
@@ -57,8 +158,7 @@ public class CreateResourceMetadataListener {
                 ThreadContext.put("traceId", traceId);
 
                 String resourceId = message.getPayload();
-                byte[] resourceData = resourceClient.getResourceBinary(resourceId);
-                SongMetadata metadata = retrieveFileMetadata(resourceData);
+                SongMetadata metadata = extractMetadata(resourceId);
                 metadata.setResourceId(Integer.valueOf(resourceId));
                 songClient.saveResourceMetadata(metadata);
                 processSongMetadataPublisher.sendProcessedSongMetadataEvent(PROCESS_SONG_METADATA_OUT,
@@ -72,7 +172,311 @@ public class CreateResourceMetadataListener {
         };
     }
 
+    /**
+     * Batch variant, bound when spring.cloud.function.definition is createResourceMetadataBatch. The binding runs in
+     * MANUAL ack mode: resources are downloaded and parsed in parallel, all metadata goes to song-service in one
+     * call, and each delivery is then acked on its own. Failed deliveries get the single-message consumer's retry
+     * policy (max-attempts with exponential back-off, the batch waiting in between), and those still failing after the
+     * last attempt are republished to the DLQ with the same x-exception-* and x-original-* headers the binder's
+     * republish-to-dlq adds, then acked. Only created, together with its download pool, when the batch function is the
+     * one bound.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cloud.function.definition", havingValue = "createResourceMetadataBatch")
+    public Consumer<Message<List<String>>> createResourceMetadataBatch() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        batchExecutor = Executors.newFixedThreadPool(batchParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "metadata-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return this::processBatch;
+    }
+
+    @PreDestroy
+    public void shutdownBatchExecutor() {
+        if (Objects.nonNull(batchExecutor)) {
+            batchExecutor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void processBatch(Message<List<String>> message) {
+        List<String> resourceIds = message.getPayload();
+        List<Map<String, Object>> deliveryHeaders =
+                (List<Map<String, Object>>) message.getHeaders().get(AmqpHeaders.BATCH_CONVERTED_HEADERS);
+        if (Objects.isNull(deliveryHeaders) || deliveryHeaders.size() != resourceIds.size()) {
+            LOGGER.error("Batch of {} resources has no matching {} header, rejecting it", resourceIds.size(),
+                    AmqpHeaders.BATCH_CONVERTED_HEADERS);
+            batchRejectedCounter.increment(resourceIds.size());
+            // Without delivery tags only the container can settle the batch; in MANUAL mode it nacks every delivery
+            // of the batch, without requeue, when the exception asks for a manual reject
+            throw new AmqpRejectAndDontRequeueException("Missing delivery headers for batch", true, null);
+        }
+        if (resourceIds.isEmpty()) {
+            return;
+        }
+        // One channel serves the whole batch; fall back to the copy on the first delivery
+        Channel channel = Optional.ofNullable(message.getHeaders().get(AmqpHeaders.CHANNEL, Channel.class))
+                .orElseGet(() -> (Channel) deliveryHeaders.get(0).get(AmqpHeaders.CHANNEL));
+        batchSizeSummary.record(resourceIds.size());
+
+        List<Delivery> pending = new ArrayList<>(resourceIds.size());
+        for (int i = 0; i < resourceIds.size(); i++) {
+            Map<String, Object> headers = deliveryHeaders.get(i);
+            pending.add(new Delivery(resourceIds.get(i), (Long) headers.get(AmqpHeaders.DELIVERY_TAG), headers));
+        }
+        long backOffMillis = batchBackOffInitialInterval;
+        for (int attempt = 1; ; attempt++) {
+            Map<Delivery, Exception> failed = processAttempt(channel, pending);
+            if (failed.isEmpty()) {
+                return;
+            }
+            if (attempt >= batchMaxAttempts) {
+                failed.forEach((delivery, cause) -> deadLetter(channel, delivery, cause));
+                return;
+            }
+            LOGGER.warn("{} of {} deliveries failed on attempt {}, retrying in {} ms", failed.size(), pending.size(),
+                    attempt, backOffMillis);
+            if (!sleep(backOffMillis)) {
+                // Shutting down: the unacked deliveries go back to the queue with the channel
+                return;
+            }
+            backOffMillis = Math.min((long) (backOffMillis * batchBackOffMultiplier), batchBackOffMaxInterval);
+            pending = new ArrayList<>(failed.keySet());
+        }
+    }
+
+    /**
+     * Extracts, saves and publishes {@code deliveries}, acking each one that went through.
+     *
+     * @return the deliveries that failed, with the reason, in delivery order
+     */
+    private Map<Delivery, Exception> processAttempt(Channel channel, List<Delivery> deliveries) {
+        Map<Delivery, Exception> failed = new LinkedHashMap<>();
+        List<CompletableFuture<SongMetadata>> extractions = new ArrayList<>(deliveries.size());
+        for (Delivery delivery : deliveries) {
+            String traceId = traceId(delivery.headers().get("X-Trace-Id"));
+            extractions.add(CompletableFuture.supplyAsync(() -> extractWithTrace(delivery.resourceId(), traceId),
+                    batchExecutor));
+        }
+
+        List<SongMetadata> extracted = new ArrayList<>();
+        List<Delivery> extractedDeliveries = new ArrayList<>();
+        for (int i = 0; i < deliveries.size(); i++) {
+            try {
+                extracted.add(extractions.get(i).join());
+                extractedDeliveries.add(deliveries.get(i));
+            } catch (Exception e) {
+                Exception cause = e instanceof CompletionException && e.getCause() instanceof Exception
+                        ? (Exception) e.getCause() : e;
+                LOGGER.error("Metadata extraction failed for resource ID={}: {}", deliveries.get(i).resourceId(),
+                        cause.getMessage());
+                failed.put(deliveries.get(i), cause);
+            }
+        }
+        if (extracted.isEmpty()) {
+            return failed;
+        }
+
+        List<SongBatchItemResult> results;
+        try {
+            results = songClient.saveResourceMetadataBatch(extracted);
+        } catch (Exception e) {
+            LOGGER.error("Saving metadata of {} resources failed: {}", extracted.size(), e.getMessage());
+            extractedDeliveries.forEach(delivery -> failed.put(delivery, e));
+            return failed;
+        }
+        for (int i = 0; i < extracted.size(); i++) {
+            Delivery delivery = extractedDeliveries.get(i);
+            SongBatchItemResult result = i < results.size() ? results.get(i) : null;
+            if (Objects.isNull(result) || !result.isCreated()) {
+                String reason = Objects.isNull(result) ? "no result" : result.status() + " " + result.errorMessage();
+                LOGGER.error("Metadata for resource ID={} not saved: {}", delivery.resourceId(), reason);
+                failed.put(delivery, new IllegalStateException(
+                        "Metadata for resource ID=" + delivery.resourceId() + " not saved: " + reason));
+                continue;
+            }
+            try {
+                processSongMetadataPublisher.sendProcessedSongMetadataEvent(PROCESS_SONG_METADATA_OUT,
+                        MessageBuilder.withPayload(delivery.resourceId()).build());
+                ack(channel, delivery.deliveryTag());
+            } catch (Exception e) {
+                LOGGER.error("Publishing processed event for resource ID={} failed: {}", delivery.resourceId(),
+                        e.getMessage());
+                failed.put(delivery, e);
+            }
+        }
+        return failed;
+    }
+
+    private boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private SongMetadata extractWithTrace(String resourceId, String traceId) {
+        ThreadContext.put("traceId", traceId);
+        try {
+            SongMetadata metadata = extractMetadata(resourceId);
+            metadata.setResourceId(Integer.valueOf(resourceId));
+            return metadata;
+        } finally {
+            ThreadContext.clearAll();
+        }
+    }
+
+    private String traceId(Object header) {
+        return Objects.isNull(header) || header.toString().isEmpty() ? UUID.randomUUID().toString() : header.toString();
+    }
+
+    private void ack(Channel channel, long deliveryTag) {
+        try {
+            channel.basicAck(deliveryTag, false);
+            batchAckedCounter.increment();
+        } catch (IOException e) {
+            // The channel is gone; the broker redelivers every unacked message of the batch
+            LOGGER.error("Ack of delivery {} failed: {}", deliveryTag, e.getMessage());
+        }
+    }
+
+    /**
+     * Republishes the delivery to the DLQ the way the binder's republish-to-dlq does, then acks it. Falls back to a
+     * reject, which dead-letters it without the exception headers, when the republish fails.
+     */
+    private void deadLetter(Channel channel, Delivery delivery, Exception cause) {
+        Map<String, Object> headers = new HashMap<>();
+        delivery.headers().forEach((name, value) -> {
+            if (!name.startsWith(AmqpHeaders.PREFIX) && !MessageHeaders.ID.equals(name)
+                    && !MessageHeaders.TIMESTAMP.equals(name) && !MessageHeaders.CONTENT_TYPE.equals(name)
+                    && (value instanceof String || value instanceof Number || value instanceof Boolean)) {
+                headers.put(name, value);
+            }
+        });
+        headers.put(RepublishMessageRecoverer.X_EXCEPTION_MESSAGE, Objects.toString(cause.getMessage(), cause.toString()));
+        headers.put(RepublishMessageRecoverer.X_EXCEPTION_STACKTRACE, stackTrace(cause));
+        putIfPresent(headers, RepublishMessageRecoverer.X_ORIGINAL_EXCHANGE,
+                delivery.headers().get(AmqpHeaders.RECEIVED_EXCHANGE));
+        putIfPresent(headers, RepublishMessageRecoverer.X_ORIGINAL_ROUTING_KEY,
+                delivery.headers().get(AmqpHeaders.RECEIVED_ROUTING_KEY));
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN)
+                .deliveryMode(2)
+                .headers(headers)
+                .build();
+        try {
+            channel.basicPublish(dlqExchange, dlqRoutingKey, properties,
+                    delivery.resourceId().getBytes(StandardCharsets.UTF_8));
+            channel.basicAck(delivery.deliveryTag(), false);
+            batchRejectedCounter.increment();
+        } catch (IOException e) {
+            LOGGER.error("Republishing delivery {} to the DLQ failed: {}", delivery.deliveryTag(), e.getMessage());
+            reject(channel, delivery.deliveryTag());
+        }
+    }
+
+    private void reject(Channel channel, long deliveryTag) {
+        try {
+            channel.basicReject(deliveryTag, false);
+            batchRejectedCounter.increment();
+        } catch (IOException e) {
+            LOGGER.error("Reject of delivery {} failed: {}", deliveryTag, e.getMessage());
+        }
+    }
+
+    private static void putIfPresent(Map<String, Object> headers, String name, Object value) {
+        if (Objects.nonNull(value)) {
+            headers.put(name, value.toString());
+        }
+    }
+
+    private static String stackTrace(Exception cause) {
+        StringWriter stackTrace = new StringWriter();
+        cause.printStackTrace(new PrintWriter(stackTrace));
+        String trace = stackTrace.toString();
+        return trace.length() > MAX_STACKTRACE_CHARS ? trace.substring(0, MAX_STACKTRACE_CHARS) : trace;
+    }
+
+    private record Delivery(String resourceId, long deliveryTag, Map<String, Object> headers) {
+    }
+
+    private SongMetadata extractMetadata(String resourceId) {
+        if (headerOnlyExtraction) {
+            Optional<SongMetadata> fromHeaders = extractFromHeaders(resourceId);
+            if (fromHeaders.isPresent()) {
+                headerExtractionCounter.increment();
+                return fromHeaders.get();
+            }
+            LOGGER.info("Header-only metadata incomplete for resource ID={}, reading the whole file", resourceId);
+        }
+        byte[] resourceData = resourceClient.getResourceBinary(resourceId);
+        fetchedBytesSummary.record(resourceData.length);
+        fullExtractionCounter.increment();
+        return retrieveFileMetadata(resourceData);
+    }
+
+    /**
+     * Reads tags and duration from the head (ID3v2 and the first MPEG frame) and the last 128 bytes (ID3v1) of the
+     * file. Empty when the ID3v2 tag is larger than max-head-bytes or no frame header can be found.
+     */
+    private Optional<SongMetadata> extractFromHeaders(String resourceId) {
+        ResourceRange head = resourceClient.getResourceRange(resourceId, "bytes=0-" + (headBytes - 1));
+        long fetchedBytes = head.bytes().length;
+        if (head.isComplete()) {
+            fetchedBytesSummary.record(fetchedBytes);
+            return Optional.of(retrieveFileMetadata(head.bytes()));
+        }
+        int headEnd = Mp3DurationEstimator.audioStart(head.bytes()) + FRAME_PROBE_BYTES;
+        if (headEnd > head.bytes().length) {
+            if (headEnd > maxHeadBytes) {
+                fetchedBytesSummary.record(fetchedBytes);
+                return Optional.empty();
+            }
+            head = resourceClient.getResourceRange(resourceId, "bytes=0-" + (headEnd - 1));
+            fetchedBytes += head.bytes().length;
+        }
+        ResourceRange tail = resourceClient.getResourceRange(resourceId, "bytes=-" + Mp3DurationEstimator.ID3V1_TAG_SIZE);
+        fetchedBytes += tail.bytes().length;
+        fetchedBytesSummary.record(fetchedBytes);
+        Optional<Mp3Metadata> parsed = metadataParser.parse(ByteBuffer.wrap(head.bytes()), ByteBuffer.wrap(tail.bytes()),
+                head.totalLength());
+        if (parsed.isPresent()) {
+            nativeParserCounter.increment();
+            return Optional.of(toSongMetadata(parsed.get()));
+        }
+        OptionalLong durationMillis = Mp3DurationEstimator.estimateDurationMillis(head.bytes(), head.totalLength(),
+                Mp3DurationEstimator.isId3v1Tag(tail.bytes()));
+        if (durationMillis.isEmpty()) {
+            return Optional.empty();
+        }
+        // Head followed by tail lets the parser see the ID3v2 tag at the start and the ID3v1 tag at the end
+        byte[] tagBytes = Arrays.copyOf(head.bytes(), head.bytes().length + tail.bytes().length);
+        System.arraycopy(tail.bytes(), 0, tagBytes, head.bytes().length, tail.bytes().length);
+        try {
+            tikaParserCounter.increment();
+            SongMetadata songMetadata = getFileMetadata(tagBytes);
+            songMetadata.setDuration(resolveEmptyLength(formatDuration(String.valueOf(durationMillis.getAsLong()))));
+            return Optional.of(songMetadata);
+        } catch (IOException | TikaException | SAXException e) {
+            return Optional.empty();
+        }
+    }
+
     private SongMetadata retrieveFileMetadata(byte[] fileBytes) {
+        Optional<Mp3Metadata> parsed = metadataParser.parse(ByteBuffer.wrap(fileBytes));
+        if (parsed.isPresent()) {
+            nativeParserCounter.increment();
+            return toSongMetadata(parsed.get());
+        }
+        tikaParserCounter.increment();
         try {
             return getFileMetadata(fileBytes);
         } catch (IOException | TikaException | SAXException e) {
@@ -80,6 +484,16 @@ public class CreateResourceMetadataListener {
         }
     }
 
+    private SongMetadata toSongMetadata(Mp3Metadata parsed) {
+        SongMetadata songMetadata = new SongMetadata();
+        songMetadata.setName(resolveEmptyField(parsed.title()));
+        songMetadata.setArtist(resolveEmptyField(parsed.artist()));
+        songMetadata.setAlbum(resolveEmptyField(parsed.album()));
+        songMetadata.setDuration(resolveEmptyLength(formatDuration(String.valueOf(parsed.durationMillis()))));
+        songMetadata.setYear(resolveEmptyYear(parsed.year()));
+        return songMetadata;
+    }
+
     private SongMetadata getFileMetadata(final byte[] audioData) throws IOException, TikaException, SAXException {
         SongMetadata songMetadata = new SongMetadata();
 
@@ -0,0 +1,235 @@
+package com.example.resourceprocessor.metadata;
+
+import java.nio.ByteBuffer;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Estimates the playing time of an MP3 from the first bytes of the file and its total size, so the rest of the file
+ * does not have to be downloaded. The first MPEG frame after the ID3v2 tag is located and, when present, its Xing/Info
+ * or VBRI header supplies the exact frame count; otherwise the stream is treated as constant bitrate. When the whole
+ * file is at hand, {@link #scanDurationMillis} walks every frame instead. Buffers are read with absolute indexes from 0.
+ */
+public final class Mp3DurationEstimator {
+
+    public static final int ID3V1_TAG_SIZE = 128;
+    private static final int ID3V2_HEADER_SIZE = 10;
+    private static final int VBRI_OFFSET = 4 + 32;
+    // Successive frames must line up before a sync word is trusted; random tag bytes often look like a sync word.
+    private static final int FRAMES_TO_CONFIRM = 2;
+
+    private static final int[][] BITRATES_KBPS = {
+            // MPEG-1 layer I, II, III
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            // MPEG-2/2.5 layer I, II & III
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+    private static final int[][] SAMPLE_RATES = {
+            {44100, 48000, 32000}, // MPEG-1
+            {22050, 24000, 16000}, // MPEG-2
+            {11025, 12000, 8000}   // MPEG-2.5
+    };
+
+    private Mp3DurationEstimator() {
+    }
+
+    /**
+     * Offset of the first byte after a leading ID3v2 tag (including its footer), or 0 when the data has no tag.
+     */
+    public static int audioStart(byte[] head) {
+        return audioStart(ByteBuffer.wrap(head));
+    }
+
+    public static int audioStart(ByteBuffer head) {
+        if (head.limit() < ID3V2_HEADER_SIZE || head.get(0) != 'I' || head.get(1) != 'D' || head.get(2) != '3') {
+            return 0;
+        }
+        boolean hasFooter = (head.get(5) & 0x10) != 0;
+        return ID3V2_HEADER_SIZE + synchsafeInt(head, 6) + (hasFooter ? ID3V2_HEADER_SIZE : 0);
+    }
+
+    /**
+     * ID3v2 28-bit size: four bytes of which only the low seven bits are used.
+     */
+    static int synchsafeInt(ByteBuffer data, int offset) {
+        return ((data.get(offset) & 0x7F) << 21) | ((data.get(offset + 1) & 0x7F) << 14)
+                | ((data.get(offset + 2) & 0x7F) << 7) | (data.get(offset + 3) & 0x7F);
+    }
+
+    /**
+     * Duration in milliseconds, or empty when no MPEG frame can be found in {@code head}.
+     *
+     * @param head        the first bytes of the file, ideally reaching a few KB past the ID3v2 tag
+     * @param totalLength the size of the whole file
+     * @param hasId3v1    whether the file ends with a 128-byte ID3v1 tag
+     */
+    public static OptionalLong estimateDurationMillis(byte[] head, long totalLength, boolean hasId3v1) {
+        return estimateDurationMillis(ByteBuffer.wrap(head), totalLength, hasId3v1);
+    }
+
+    public static OptionalLong estimateDurationMillis(ByteBuffer head, long totalLength, boolean hasId3v1) {
+        int audioStart = audioStart(head);
+        OptionalInt frameOffset = findFirstFrame(head, audioStart);
+        if (frameOffset.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        FrameHeader frame = FrameHeader.parse(head, frameOffset.getAsInt());
+        long frameCount = readVbrFrameCount(head, frameOffset.getAsInt(), frame);
+        if (frameCount > 0) {
+            return OptionalLong.of(frameCount * frame.samplesPerFrame() * 1000L / frame.sampleRate());
+        }
+        long audioBytes = totalLength - frameOffset.getAsInt() - (hasId3v1 ? ID3V1_TAG_SIZE : 0);
+        return OptionalLong.of(Math.max(audioBytes, 0) * 8L / frame.bitrateKbps());
+    }
+
+    /**
+     * Duration of a complete file: the Xing/Info or VBRI frame count when present, otherwise the sum over every frame,
+     * skipping over junk between frames. Empty when no MPEG frame can be found.
+     */
+    public static OptionalLong scanDurationMillis(ByteBuffer file) {
+        OptionalInt firstFrame = findFirstFrame(file, audioStart(file));
+        if (firstFrame.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        int offset = firstFrame.getAsInt();
+        FrameHeader frame = FrameHeader.parse(file, offset);
+        long frameCount = readVbrFrameCount(file, offset, frame);
+        if (frameCount > 0) {
+            return OptionalLong.of(frameCount * frame.samplesPerFrame() * 1000L / frame.sampleRate());
+        }
+        double millis = 0;
+        while (offset + 4 <= file.limit()) {
+            frame = FrameHeader.parse(file, offset);
+            if (frame == null) {
+                OptionalInt next = findFirstFrame(file, offset + 1);
+                if (next.isEmpty()) {
+                    break;
+                }
+                offset = next.getAsInt();
+                continue;
+            }
+            millis += frame.samplesPerFrame() * 1000.0 / frame.sampleRate();
+            offset += frame.frameLength();
+        }
+        return OptionalLong.of((long) millis);
+    }
+
+    public static boolean isId3v1Tag(byte[] tail) {
+        return isId3v1Tag(ByteBuffer.wrap(tail));
+    }
+
+    public static boolean isId3v1Tag(ByteBuffer tail) {
+        int start = tail.limit() - ID3V1_TAG_SIZE;
+        return start >= 0 && tail.get(start) == 'T' && tail.get(start + 1) == 'A' && tail.get(start + 2) == 'G';
+    }
+
+    private static OptionalInt findFirstFrame(ByteBuffer data, int from) {
+        for (int offset = from; offset + 4 <= data.limit(); offset++) {
+            if (isConfirmedFrame(data, offset)) {
+                return OptionalInt.of(offset);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    private static boolean isConfirmedFrame(ByteBuffer data, int offset) {
+        int next = offset;
+        for (int i = 0; i < FRAMES_TO_CONFIRM; i++) {
+            FrameHeader frame = FrameHeader.parse(data, next);
+            if (frame == null) {
+                return false;
+            }
+            next += frame.frameLength();
+            if (next + 4 > data.limit()) {
+                // Ran out of buffered data after a valid header; accept rather than give up on a short head.
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private static long readVbrFrameCount(ByteBuffer data, int frameOffset, FrameHeader frame) {
+        int xing = frameOffset + 4 + frame.sideInfoLength();
+        if (matches(data, xing, "Xing") || matches(data, xing, "Info")) {
+            int flags = readInt(data, xing + 4);
+            if ((flags & 0x1) != 0 && xing + 12 <= data.limit()) {
+                return readInt(data, xing + 8) & 0xFFFFFFFFL;
+            }
+            return 0;
+        }
+        int vbri = frameOffset + VBRI_OFFSET;
+        if (matches(data, vbri, "VBRI") && vbri + 18 <= data.limit()) {
+            return readInt(data, vbri + 14) & 0xFFFFFFFFL;
+        }
+        return 0;
+    }
+
+    private static boolean matches(ByteBuffer data, int offset, String marker) {
+        if (offset < 0 || offset + marker.length() > data.limit()) {
+            return false;
+        }
+        for (int i = 0; i < marker.length(); i++) {
+            if (data.get(offset + i) != marker.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readInt(ByteBuffer data, int offset) {
+        if (offset + 4 > data.limit()) {
+            return 0;
+        }
+        return data.getInt(offset);
+    }
+
+    record FrameHeader(int version, int layer, int bitrateKbps, int sampleRate, boolean padding, boolean mono) {
+
+        static final int MPEG_1 = 0;
+
+        static FrameHeader parse(ByteBuffer data, int offset) {
+            if (offset + 4 > data.limit() || (data.get(offset) & 0xFF) != 0xFF || (data.get(offset + 1) & 0xE0) != 0xE0) {
+                return null;
+            }
+            byte second = data.get(offset + 1);
+            byte third = data.get(offset + 2);
+            int versionBits = (second >> 3) & 0x3;
+            int layerBits = (second >> 1) & 0x3;
+            int bitrateIndex = (third >> 4) & 0xF;
+            int sampleRateIndex = (third >> 2) & 0x3;
+            if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+            int version = versionBits == 3 ? MPEG_1 : versionBits == 2 ? 1 : 2;
+            int layer = 4 - layerBits;
+            int bitrateTable = version == MPEG_1 ? layer - 1 : (layer == 1 ? 3 : 4);
+            return new FrameHeader(version, layer, BITRATES_KBPS[bitrateTable][bitrateIndex],
+                    SAMPLE_RATES[version][sampleRateIndex], ((third >> 1) & 0x1) == 1,
+                    ((data.get(offset + 3) >> 6) & 0x3) == 3);
+        }
+
+        int samplesPerFrame() {
+            if (layer == 1) {
+                return 384;
+            }
+            return layer == 3 && version != MPEG_1 ? 576 : 1152;
+        }
+
+        int frameLength() {
+            if (layer == 1) {
+                return (12 * bitrateKbps * 1000 / sampleRate + (padding ? 1 : 0)) * 4;
+            }
+            return samplesPerFrame() / 8 * bitrateKbps * 1000 / sampleRate + (padding ? 1 : 0);
+        }
+
+        int sideInfoLength() {
+            if (version == MPEG_1) {
+                return mono ? 17 : 32;
+            }
+            return mono ? 9 : 17;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.resourceprocessor.metadata;
+
+/**
+ * Tag values and playing time read from an MP3 by {@link Mp3MetadataParser}. Tag values are {@code null} when
+ * neither the ID3v2 nor the ID3v1 tag carries them.
+ */
+public record Mp3Metadata(String title, String artist, String album, String year, long durationMillis) {
+}
@@ -0,0 +1,260 @@
+package com.example.resourceprocessor.metadata;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Reads title, artist, album, year and duration straight from ID3v2.3/2.4, ID3v1 and MPEG frame headers in one pass
+ * over the bytes. Only the text frames that are needed get decoded, through per-thread decoders and buffers, so a
+ * message costs a handful of small allocations instead of a Tika parse with its SAX handler and metadata map.
+ * <p>
+ * Returns empty for anything it does not fully understand (ID3v2.2, ID3v2.3 tag-wide unsynchronisation, truncated
+ * tags, no MPEG frames); callers fall back to Tika for those files.
+ */
+public final class Mp3MetadataParser {
+
+    private static final int ID3V2_HEADER_SIZE = 10;
+    private static final int FRAME_HEADER_SIZE = 10;
+    private static final int TAG_UNSYNCHRONISATION = 0x80;
+    private static final int TAG_EXTENDED_HEADER = 0x40;
+
+    private static final int TIT2 = frameId("TIT2");
+    private static final int TPE1 = frameId("TPE1");
+    private static final int TALB = frameId("TALB");
+    private static final int TYER = frameId("TYER");
+    private static final int TDRC = frameId("TDRC");
+
+    private static final ThreadLocal<DecodeBuffers> DECODE_BUFFERS = ThreadLocal.withInitial(DecodeBuffers::new);
+
+    /**
+     * Parses a complete file; the duration is summed over all frames unless a VBR header gives the frame count.
+     */
+    public Optional<Mp3Metadata> parse(ByteBuffer file) {
+        ByteBuffer data = file.slice();
+        int tailLength = Math.min(Mp3DurationEstimator.ID3V1_TAG_SIZE, data.limit());
+        return parse(data, data.slice(data.limit() - tailLength, tailLength), data.limit());
+    }
+
+    /**
+     * Parses the head and the last bytes of a file of {@code totalLength} bytes. When the head is the whole file this
+     * is the same as {@link #parse(ByteBuffer)}; otherwise the duration is estimated from the first frame.
+     */
+    public Optional<Mp3Metadata> parse(ByteBuffer head, ByteBuffer tail, long totalLength) {
+        ByteBuffer headData = head.slice();
+        ByteBuffer tailData = tail.slice();
+        TagValues values = new TagValues();
+        if (!readId3v2(headData, values)) {
+            return Optional.empty();
+        }
+        boolean hasId3v1 = Mp3DurationEstimator.isId3v1Tag(tailData);
+        if (hasId3v1) {
+            readId3v1(tailData, tailData.limit() - Mp3DurationEstimator.ID3V1_TAG_SIZE, values);
+        }
+        OptionalLong durationMillis = headData.limit() >= totalLength
+                ? Mp3DurationEstimator.scanDurationMillis(headData)
+                : Mp3DurationEstimator.estimateDurationMillis(headData, totalLength, hasId3v1);
+        if (durationMillis.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Mp3Metadata(values.title, values.artist, values.album, values.year,
+                durationMillis.getAsLong()));
+    }
+
+    /**
+     * False when the tag is present but cannot be read here. A missing tag is fine.
+     */
+    private static boolean readId3v2(ByteBuffer data, TagValues values) {
+        if (data.limit() < ID3V2_HEADER_SIZE || data.get(0) != 'I' || data.get(1) != 'D' || data.get(2) != '3') {
+            return true;
+        }
+        int majorVersion = data.get(3);
+        int tagFlags = data.get(5) & 0xFF;
+        if (majorVersion != 3 && majorVersion != 4) {
+            return false;
+        }
+        if (majorVersion == 3 && (tagFlags & TAG_UNSYNCHRONISATION) != 0) {
+            return false;
+        }
+        int tagEnd = ID3V2_HEADER_SIZE + Mp3DurationEstimator.synchsafeInt(data, 6);
+        if (tagEnd > data.limit()) {
+            return false;
+        }
+        int position = ID3V2_HEADER_SIZE;
+        if ((tagFlags & TAG_EXTENDED_HEADER) != 0) {
+            if (position + 4 > tagEnd) {
+                return false;
+            }
+            // v2.3 stores the size without its own four bytes, v2.4 as a synchsafe size of the whole header
+            long extendedHeaderSize = majorVersion == 3
+                    ? 4L + data.getInt(position)
+                    : Mp3DurationEstimator.synchsafeInt(data, position);
+            if (extendedHeaderSize < 4 || extendedHeaderSize > tagEnd - position) {
+                return false;
+            }
+            position += (int) extendedHeaderSize;
+        }
+        while (position + FRAME_HEADER_SIZE <= tagEnd && data.get(position) != 0) {
+            int frameId = data.getInt(position);
+            int frameSize = majorVersion == 4
+                    ? Mp3DurationEstimator.synchsafeInt(data, position + 4)
+                    : data.getInt(position + 4);
+            int formatFlags = data.get(position + 9) & 0xFF;
+            int contentStart = position + FRAME_HEADER_SIZE;
+            if (frameSize < 0 || frameSize > tagEnd - contentStart) {
+                return false;
+            }
+            int contentEnd = contentStart + frameSize;
+            if (values.wants(frameId) && isPlainFrame(majorVersion, formatFlags)) {
+                boolean hasDataLength = majorVersion == 4 && (formatFlags & 0x01) != 0;
+                boolean unsynchronised = majorVersion == 4
+                        && ((formatFlags & 0x02) != 0 || (tagFlags & TAG_UNSYNCHRONISATION) != 0);
+                int textStart = hasDataLength ? contentStart + 4 : contentStart;
+                if (textStart < contentEnd) {
+                    values.set(frameId, decodeTextFrame(data, textStart, contentEnd, unsynchronised));
+                }
+            }
+            position = contentEnd;
+        }
+        return true;
+    }
+
+    // Compressed or encrypted frames are skipped; the remaining values may still come from ID3v1
+    private static boolean isPlainFrame(int majorVersion, int formatFlags) {
+        return majorVersion == 3 ? (formatFlags & 0xC0) == 0 : (formatFlags & 0x0C) == 0;
+    }
+
+    private static String decodeTextFrame(ByteBuffer data, int from, int to, boolean unsynchronised) {
+        DecodeBuffers buffers = DECODE_BUFFERS.get();
+        ByteBuffer content = unsynchronised ? buffers.resynchronise(data, from, to) : data.slice(from, to - from);
+        int encoding = content.get(0);
+        if (encoding < 0 || encoding > 3) {
+            return null;
+        }
+        boolean wideChars = encoding == 1 || encoding == 2;
+        // Text ends at the first terminator; ID3v2.4 separates multiple values with it, the first one is used
+        int end = 1;
+        while (end < content.limit()) {
+            if (!wideChars && content.get(end) == 0) {
+                break;
+            }
+            if (wideChars && end + 1 < content.limit() && content.get(end) == 0 && content.get(end + 1) == 0) {
+                break;
+            }
+            end += wideChars ? 2 : 1;
+        }
+        return buffers.decode(encoding, content.slice(1, Math.min(end, content.limit()) - 1));
+    }
+
+    private static void readId3v1(ByteBuffer tail, int start, TagValues values) {
+        DecodeBuffers buffers = DECODE_BUFFERS.get();
+        values.fill(TIT2, buffers.decodeFixedLatin1(tail, start + 3, 30));
+        values.fill(TPE1, buffers.decodeFixedLatin1(tail, start + 33, 30));
+        values.fill(TALB, buffers.decodeFixedLatin1(tail, start + 63, 30));
+        values.fill(TYER, buffers.decodeFixedLatin1(tail, start + 93, 4));
+    }
+
+    private static int frameId(String id) {
+        return (id.charAt(0) << 24) | (id.charAt(1) << 16) | (id.charAt(2) << 8) | id.charAt(3);
+    }
+
+    private static final class TagValues {
+        private String title;
+        private String artist;
+        private String album;
+        private String year;
+
+        boolean wants(int frameId) {
+            return frameId == TIT2 || frameId == TPE1 || frameId == TALB || frameId == TYER || frameId == TDRC;
+        }
+
+        void set(int frameId, String value) {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            if (frameId == TIT2) {
+                title = value;
+            } else if (frameId == TPE1) {
+                artist = value;
+            } else if (frameId == TALB) {
+                album = value;
+            } else if (year == null) {
+                year = value;
+            }
+        }
+
+        // ID3v1 only fills in what the ID3v2 tag left empty
+        void fill(int frameId, String value) {
+            if (frameId == TIT2 && title == null) {
+                set(frameId, value);
+            } else if (frameId == TPE1 && artist == null) {
+                set(frameId, value);
+            } else if (frameId == TALB && album == null) {
+                set(frameId, value);
+            } else if (frameId == TYER) {
+                set(frameId, value);
+            }
+        }
+    }
+
+    /**
+     * Per-thread decoders and scratch buffers, grown on demand and kept for the next message on the thread.
+     */
+    private static final class DecodeBuffers {
+        private final CharsetDecoder[] decoders = {
+                newDecoder(StandardCharsets.ISO_8859_1.newDecoder()),
+                newDecoder(StandardCharsets.UTF_16.newDecoder()),
+                newDecoder(StandardCharsets.UTF_16BE.newDecoder()),
+                newDecoder(StandardCharsets.UTF_8.newDecoder())
+        };
+        private byte[] scratch = new byte[256];
+        private CharBuffer chars = CharBuffer.allocate(256);
+
+        private static CharsetDecoder newDecoder(CharsetDecoder decoder) {
+            return decoder.onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        String decode(int encoding, ByteBuffer bytes) {
+            if (chars.capacity() < bytes.remaining()) {
+                chars = CharBuffer.allocate(bytes.remaining());
+            }
+            chars.clear();
+            CharsetDecoder decoder = decoders[encoding].reset();
+            decoder.decode(bytes, chars, true);
+            decoder.flush(chars);
+            chars.flip();
+            return chars.toString().trim();
+        }
+
+        String decodeFixedLatin1(ByteBuffer data, int from, int length) {
+            int end = from;
+            while (end < from + length && data.get(end) != 0) {
+                end++;
+            }
+            return decode(0, data.slice(from, end - from));
+        }
+
+        /**
+         * Drops the 0x00 inserted after every 0xFF by the unsynchronisation scheme.
+         */
+        ByteBuffer resynchronise(ByteBuffer data, int from, int to) {
+            if (scratch.length < to - from) {
+                scratch = new byte[to - from];
+            }
+            int length = 0;
+            for (int i = from; i < to; i++) {
+                byte value = data.get(i);
+                scratch[length++] = value;
+                if (value == (byte) 0xFF && i + 1 < to && data.get(i + 1) == 0) {
+                    i++;
+                }
+            }
+            return ByteBuffer.wrap(scratch, 0, length).slice();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.resourceprocessor.model;
+
+/**
+ * Bytes of a single range of a resource together with the size of the whole resource.
+ */
+public record ResourceRange(byte[] bytes, long totalLength) {
+
+    public boolean isComplete() {
+        return bytes.length >= totalLength;
+    }
+}
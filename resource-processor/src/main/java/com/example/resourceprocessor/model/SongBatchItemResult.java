@@ -0,0 +1,14 @@
+package com.example.resourceprocessor.model;
+
+/**
+ * Outcome of one item of a POST /songs/batch call, in request order. {@code status} is CREATED, CONFLICT or INVALID;
+ * {@code id} is set for CREATED and {@code errorMessage} otherwise.
+ */
+public record SongBatchItemResult(Integer resourceId, String status, Integer id, String errorMessage) {
+
+    public static final String CREATED = "CREATED";
+
+    public boolean isCreated() {
+        return CREATED.equals(status);
+    }
+}
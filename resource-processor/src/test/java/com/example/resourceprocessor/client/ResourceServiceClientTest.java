@@ -1,15 +1,23 @@
 package com.example.resourceprocessor.client;
 
+import com.example.resourceprocessor.model.ResourceRange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.Field;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ResourceServiceClientTest {
@@ -63,6 +71,37 @@ class ResourceServiceClientTest {
                 .getForObject("http://localhost:8080/resources/" + resourceId, byte[].class);
     }
 
+    @Test
+    void testGetResourceRange_readsTotalLengthFromContentRange() {
+        byte[] tail = new byte[128];
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes 4999872-4999999/5000000");
+        when(restTemplate.exchange(eq("http://localhost:8080/resources/123"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(byte[].class)))
+                .thenReturn(new ResponseEntity<>(tail, responseHeaders, HttpStatus.PARTIAL_CONTENT));
+
+        ResourceRange range = resourceServiceClient.getResourceRange("123", "bytes=-128");
+
+        assertEquals(5_000_000L, range.totalLength());
+        assertFalse(range.isComplete());
+        verify(restTemplate).exchange(eq("http://localhost:8080/resources/123"), eq(HttpMethod.GET),
+                argThat((HttpEntity<?> entity) -> "bytes=-128".equals(entity.getHeaders().getFirst(HttpHeaders.RANGE))),
+                eq(byte[].class));
+    }
+
+    @Test
+    void testGetResourceRange_wholeBodyWhenRangeIgnored() {
+        byte[] body = "audio-bytes".getBytes();
+        when(restTemplate.exchange(eq("http://localhost:8080/resources/123"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(byte[].class)))
+                .thenReturn(ResponseEntity.ok(body));
+
+        ResourceRange range = resourceServiceClient.getResourceRange("123", "bytes=0-65535");
+
+        assertEquals(body.length, range.totalLength());
+        assertTrue(range.isComplete());
+    }
+
     @Test
     void testRecoverMethodThrowsSongClientException() {
         String resourceId = "789";
@@ -1,5 +1,6 @@
 package com.example.resourceprocessor.client;
 
+import com.example.resourceprocessor.model.SongBatchItemResult;
 import com.example.resourceprocessor.model.SongMetadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.Field;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -70,4 +72,24 @@ class SongServiceClientTest {
                 .postForEntity("http://localhost:8080/songs", metadata, String.class);
     }
 
+    @Test
+    void testSaveResourceMetadataBatch_returnsResultsInRequestOrder() {
+        SongMetadata first = new SongMetadata();
+        first.setResourceId(1);
+        SongMetadata second = new SongMetadata();
+        second.setResourceId(2);
+        List<SongMetadata> batch = List.of(first, second);
+        SongBatchItemResult[] response = {
+                new SongBatchItemResult(1, "CREATED", 10, null),
+                new SongBatchItemResult(2, "INVALID", null, "Duration is required")
+        };
+        when(restTemplate.postForObject("http://localhost:8080/songs/batch", batch, SongBatchItemResult[].class))
+                .thenReturn(response);
+
+        List<SongBatchItemResult> results = songServiceClient.saveResourceMetadataBatch(batch);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+    }
 }
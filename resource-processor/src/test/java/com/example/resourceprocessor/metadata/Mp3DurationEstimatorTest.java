@@ -0,0 +1,108 @@
+package com.example.resourceprocessor.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp3DurationEstimatorTest {
+
+    // MPEG-1 layer III, 128 kbps, 44.1 kHz, joint stereo: 417-byte frames
+    private static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x44};
+    private static final int FRAME_LENGTH = 417;
+
+    @Test
+    void audioStart_skipsId3v2Tag() {
+        byte[] head = id3v2Tag(300);
+
+        assertEquals(310, Mp3DurationEstimator.audioStart(head));
+        assertEquals(0, Mp3DurationEstimator.audioStart("no tag here".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void estimateDurationMillis_constantBitrateUsesFileSize() {
+        byte[] head = concat(id3v2Tag(100), frames(4));
+        int audioStart = 110;
+        long totalLength = audioStart + 1_600_000L + Mp3DurationEstimator.ID3V1_TAG_SIZE;
+
+        OptionalLong duration = Mp3DurationEstimator.estimateDurationMillis(head, totalLength, true);
+
+        assertEquals(OptionalLong.of(100_000), duration);
+    }
+
+    @Test
+    void estimateDurationMillis_readsFrameCountFromXingHeader() {
+        byte[] frames = frames(4);
+        // Xing header follows the 32-byte side info of a stereo MPEG-1 frame
+        System.arraycopy("Xing".getBytes(StandardCharsets.US_ASCII), 0, frames, 36, 4);
+        frames[43] = 0x01;
+        writeInt(frames, 44, 1000);
+
+        OptionalLong duration = Mp3DurationEstimator.estimateDurationMillis(frames, 50_000_000L, false);
+
+        assertEquals(OptionalLong.of(1000L * 1152 * 1000 / 44100), duration);
+    }
+
+    @Test
+    void estimateDurationMillis_emptyWithoutFrames() {
+        byte[] head = id3v2Tag(64);
+
+        assertTrue(Mp3DurationEstimator.estimateDurationMillis(head, 10_000, false).isEmpty());
+    }
+
+    @Test
+    void scanDurationMillis_sumsFramesAndSkipsJunk() {
+        byte[] file = concat(concat(frames(50), new byte[37]), frames(50));
+
+        OptionalLong duration = Mp3DurationEstimator.scanDurationMillis(ByteBuffer.wrap(file));
+
+        assertEquals(OptionalLong.of(100L * 1152 * 1000 / 44100), duration);
+    }
+
+    @Test
+    void isId3v1Tag_detectsTagMarker() {
+        byte[] tail = new byte[Mp3DurationEstimator.ID3V1_TAG_SIZE];
+        assertFalse(Mp3DurationEstimator.isId3v1Tag(tail));
+
+        tail[0] = 'T';
+        tail[1] = 'A';
+        tail[2] = 'G';
+        assertTrue(Mp3DurationEstimator.isId3v1Tag(tail));
+    }
+
+    private static byte[] id3v2Tag(int size) {
+        byte[] tag = new byte[10 + size];
+        tag[0] = 'I';
+        tag[1] = 'D';
+        tag[2] = '3';
+        tag[3] = 3;
+        tag[8] = (byte) ((size >> 7) & 0x7F);
+        tag[9] = (byte) (size & 0x7F);
+        return tag;
+    }
+
+    private static byte[] frames(int count) {
+        byte[] data = new byte[count * FRAME_LENGTH];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(FRAME_HEADER, 0, data, i * FRAME_LENGTH, FRAME_HEADER.length);
+        }
+        return data;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.resourceprocessor.metadata;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.mp3.Mp3Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares {@link Mp3MetadataParser} with the Tika path it replaces in CreateResourceMetadataListener. Not part of
+ * the unit test run; start it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>}.
+ * <p>
+ * The corpus is every *.mp3 under {@code -Dmp3.corpus.dir}; without it a synthetic corpus is generated (ID3v2.3,
+ * ID3v2.4 with a 256 KB picture frame, ID3v1 only), each followed by about 2 MB of 128 kbps frames.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Mp3MetadataParserBenchmark {
+
+    private static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x44};
+    private static final int FRAME_LENGTH = 417;
+    private static final int FRAME_COUNT = 5000;
+
+    private final Mp3MetadataParser parser = new Mp3MetadataParser();
+    private List<byte[]> corpus;
+
+    @Setup
+    public void loadCorpus() throws IOException {
+        String corpusDir = System.getProperty("mp3.corpus.dir");
+        if (corpusDir == null) {
+            corpus = List.of(syntheticFile(3, 0, true), syntheticFile(4, 256 * 1024, false),
+                    syntheticFile(-1, 0, true));
+            return;
+        }
+        corpus = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(Path.of(corpusDir))) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".mp3")).toList()) {
+                corpus.add(Files.readAllBytes(file));
+            }
+        }
+    }
+
+    @Benchmark
+    public void nativeParser(Blackhole blackhole) {
+        for (byte[] file : corpus) {
+            blackhole.consume(parser.parse(ByteBuffer.wrap(file)));
+        }
+    }
+
+    @Benchmark
+    public void tikaParser(Blackhole blackhole) throws Exception {
+        for (byte[] file : corpus) {
+            try (InputStream inputStream = new ByteArrayInputStream(file)) {
+                Metadata metadata = new Metadata();
+                new Mp3Parser().parse(inputStream, new BodyContentHandler(), metadata, new ParseContext());
+                blackhole.consume(metadata.get("dc:title"));
+                blackhole.consume(metadata.get("xmpDM:duration"));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(Mp3MetadataParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * @param id3v2Version 3 or 4, or -1 for a file with only an ID3v1 tag
+     * @param pictureBytes size of an APIC frame in the ID3v2 tag, 0 for none
+     */
+    private static byte[] syntheticFile(int id3v2Version, int pictureBytes, boolean withId3v1) {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        if (id3v2Version > 0) {
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            frames.writeBytes(textFrame(id3v2Version, "TIT2", "Benchmark title"));
+            frames.writeBytes(textFrame(id3v2Version, "TPE1", "Benchmark artist"));
+            frames.writeBytes(textFrame(id3v2Version, "TALB", "Benchmark album"));
+            frames.writeBytes(textFrame(id3v2Version, id3v2Version == 3 ? "TYER" : "TDRC", "2001"));
+            if (pictureBytes > 0) {
+                frames.writeBytes(frame(id3v2Version, "APIC", new byte[pictureBytes]));
+            }
+            frames.writeBytes(new byte[512]);
+            file.writeBytes(new byte[]{'I', 'D', '3', (byte) id3v2Version, 0, 0});
+            file.writeBytes(synchsafe(frames.size()));
+            file.writeBytes(frames.toByteArray());
+        }
+        byte[] audio = new byte[FRAME_COUNT * FRAME_LENGTH];
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            System.arraycopy(FRAME_HEADER, 0, audio, i * FRAME_LENGTH, FRAME_HEADER.length);
+        }
+        file.writeBytes(audio);
+        if (withId3v1) {
+            byte[] id3v1 = new byte[128];
+            byte[] text = "TAGBenchmark v1 title".getBytes(StandardCharsets.ISO_8859_1);
+            System.arraycopy(text, 0, id3v1, 0, text.length);
+            file.writeBytes(id3v1);
+        }
+        return file.toByteArray();
+    }
+
+    private static byte[] textFrame(int version, String id, String text) {
+        byte[] encoded = text.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] content = new byte[encoded.length + 1];
+        System.arraycopy(encoded, 0, content, 1, encoded.length);
+        return frame(version, id, content);
+    }
+
+    private static byte[] frame(int version, String id, byte[] content) {
+        ByteBuffer frame = ByteBuffer.allocate(10 + content.length);
+        frame.put(id.getBytes(StandardCharsets.US_ASCII));
+        frame.put(version == 4 ? synchsafe(content.length) : ByteBuffer.allocate(4).putInt(content.length).array());
+        frame.putShort((short) 0);
+        frame.put(content);
+        return frame.array();
+    }
+
+    private static byte[] synchsafe(int value) {
+        return new byte[]{(byte) ((value >> 21) & 0x7F), (byte) ((value >> 14) & 0x7F),
+                (byte) ((value >> 7) & 0x7F), (byte) (value & 0x7F)};
+    }
+}
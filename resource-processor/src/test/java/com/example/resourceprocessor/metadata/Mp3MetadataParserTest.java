@@ -0,0 +1,167 @@
+package com.example.resourceprocessor.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp3MetadataParserTest {
+
+    // MPEG-1 layer III, 128 kbps, 44.1 kHz, joint stereo: 417-byte frames of 1152 samples
+    private static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x44};
+    private static final int FRAME_LENGTH = 417;
+
+    private final Mp3MetadataParser parser = new Mp3MetadataParser();
+
+    @Test
+    void parse_readsId3v23TextFrames() {
+        byte[] tag = id3v2(3, 0,
+                textFrame(3, "TIT2", 0, "Song".getBytes(StandardCharsets.ISO_8859_1)),
+                textFrame(3, "TPE1", 1, utf16WithBom("Artïst")),
+                textFrame(3, "TALB", 0, "Album".getBytes(StandardCharsets.ISO_8859_1)),
+                textFrame(3, "TYER", 0, "1999".getBytes(StandardCharsets.ISO_8859_1)));
+
+        Mp3Metadata metadata = parser.parse(ByteBuffer.wrap(concat(tag, frames(100)))).orElseThrow();
+
+        assertEquals("Song", metadata.title());
+        assertEquals("Artïst", metadata.artist());
+        assertEquals("Album", metadata.album());
+        assertEquals("1999", metadata.year());
+        assertEquals(100L * 1152 * 1000 / 44100, metadata.durationMillis());
+    }
+
+    @Test
+    void parse_readsId3v24Utf8AndUnsynchronisedFrames() {
+        byte[] unsynchronisedTitle = {(byte) 0xC3, (byte) 0xA9, 't', (byte) 0xFF, 0x00, 'x'};
+        byte[] tag = id3v2(4, 0,
+                textFrameWithFlags("TIT2", 0x02, 3, unsynchronisedTitle),
+                textFrame(4, "TDRC", 3, "2004\u0000".getBytes(StandardCharsets.UTF_8)));
+
+        Mp3Metadata metadata = parser.parse(ByteBuffer.wrap(concat(tag, frames(10)))).orElseThrow();
+
+        assertEquals("ét�x", metadata.title());
+        assertEquals("2004", metadata.year());
+        assertNull(metadata.artist());
+    }
+
+    @Test
+    void parse_fillsGapsFromId3v1() {
+        byte[] tag = id3v2(3, 0, textFrame(3, "TIT2", 0, "From v2".getBytes(StandardCharsets.ISO_8859_1)));
+        byte[] id3v1 = new byte[128];
+        put(id3v1, 0, "TAG");
+        put(id3v1, 3, "From v1");
+        put(id3v1, 33, "Artist v1");
+        put(id3v1, 93, "1987");
+
+        Mp3Metadata metadata = parser.parse(ByteBuffer.wrap(concat(concat(tag, frames(10)), id3v1))).orElseThrow();
+
+        assertEquals("From v2", metadata.title());
+        assertEquals("Artist v1", metadata.artist());
+        assertNull(metadata.album());
+        assertEquals("1987", metadata.year());
+    }
+
+    @Test
+    void parse_headAndTailEstimatesDurationFromFileSize() {
+        byte[] head = concat(id3v2(3, 0, textFrame(3, "TIT2", 0, "Song".getBytes(StandardCharsets.ISO_8859_1))),
+                frames(8));
+
+        Optional<Mp3Metadata> metadata = parser.parse(ByteBuffer.wrap(head), ByteBuffer.wrap(new byte[128]),
+                1_920_000L + head.length - 8 * FRAME_LENGTH);
+
+        assertEquals(120_000L, metadata.orElseThrow().durationMillis());
+    }
+
+    @Test
+    void parse_emptyForUnsupportedOrBrokenFiles() {
+        byte[] id3v22 = id3v2(2, 0);
+        byte[] tagUnsynchronisedV23 = id3v2(3, 0x80, textFrame(3, "TIT2", 0, "x".getBytes(StandardCharsets.ISO_8859_1)));
+        byte[] truncatedTag = Arrays.copyOf(
+                id3v2(3, 0, textFrame(3, "TIT2", 0, new byte[200])), 50);
+
+        assertTrue(parser.parse(ByteBuffer.wrap(concat(id3v22, frames(4)))).isEmpty());
+        assertTrue(parser.parse(ByteBuffer.wrap(concat(tagUnsynchronisedV23, frames(4)))).isEmpty());
+        assertTrue(parser.parse(ByteBuffer.wrap(truncatedTag)).isEmpty());
+        assertTrue(parser.parse(ByteBuffer.wrap("not-an-mp3".getBytes(StandardCharsets.US_ASCII))).isEmpty());
+    }
+
+    @Test
+    void parse_emptyForBrokenExtendedHeaderSize() {
+        byte[] title = textFrame(3, "TIT2", 0, "x".getBytes(StandardCharsets.ISO_8859_1));
+        byte[] negativeV23 = id3v2(3, 0x40, ByteBuffer.allocate(4).putInt(-16).array(), title);
+        byte[] oversizedV23 = id3v2(3, 0x40, ByteBuffer.allocate(4).putInt(1_000_000).array(), title);
+        byte[] oversizedV24 = id3v2(4, 0x40, synchsafe(1_000_000),
+                textFrameWithFlags("TIT2", 0, 0, "x".getBytes(StandardCharsets.ISO_8859_1)));
+
+        assertTrue(parser.parse(ByteBuffer.wrap(concat(negativeV23, frames(4)))).isEmpty());
+        assertTrue(parser.parse(ByteBuffer.wrap(concat(oversizedV23, frames(4)))).isEmpty());
+        assertTrue(parser.parse(ByteBuffer.wrap(concat(oversizedV24, frames(4)))).isEmpty());
+    }
+
+    private static byte[] id3v2(int majorVersion, int flags, byte[]... frames) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (byte[] frame : frames) {
+            body.writeBytes(frame);
+        }
+        body.writeBytes(new byte[16]); // padding
+        int size = body.size();
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        tag.writeBytes(new byte[]{'I', 'D', '3', (byte) majorVersion, 0, (byte) flags});
+        tag.writeBytes(synchsafe(size));
+        tag.writeBytes(body.toByteArray());
+        return tag.toByteArray();
+    }
+
+    private static byte[] textFrame(int majorVersion, String id, int encoding, byte[] text) {
+        byte[] frame = textFrameWithFlags(id, 0, encoding, text);
+        if (majorVersion == 3) {
+            ByteBuffer.wrap(frame).putInt(4, text.length + 1);
+        }
+        return frame;
+    }
+
+    // ID3v2.4 layout: synchsafe size
+    private static byte[] textFrameWithFlags(String id, int formatFlags, int encoding, byte[] text) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.writeBytes(id.getBytes(StandardCharsets.US_ASCII));
+        frame.writeBytes(synchsafe(text.length + 1));
+        frame.write(0);
+        frame.write(formatFlags);
+        frame.write(encoding);
+        frame.writeBytes(text);
+        return frame.toByteArray();
+    }
+
+    private static byte[] utf16WithBom(String text) {
+        return text.getBytes(StandardCharsets.UTF_16);
+    }
+
+    private static byte[] synchsafe(int value) {
+        return new byte[]{(byte) ((value >> 21) & 0x7F), (byte) ((value >> 14) & 0x7F),
+                (byte) ((value >> 7) & 0x7F), (byte) (value & 0x7F)};
+    }
+
+    private static byte[] frames(int count) {
+        byte[] data = new byte[count * FRAME_LENGTH];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(FRAME_HEADER, 0, data, i * FRAME_LENGTH, FRAME_HEADER.length);
+        }
+        return data;
+    }
+
+    private static void put(byte[] target, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
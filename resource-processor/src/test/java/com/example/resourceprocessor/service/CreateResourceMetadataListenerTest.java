@@ -4,21 +4,38 @@ import com.example.resourceprocessor.client.ResourceServiceClient;
 import com.example.resourceprocessor.client.SongServiceClient;
 import com.example.resourceprocessor.messaging.consumer.CreateResourceMetadataListener;
 import com.example.resourceprocessor.messaging.publisher.ProcessSongMetadataPublisher;
+import com.example.resourceprocessor.model.ResourceRange;
+import com.example.resourceprocessor.model.SongBatchItemResult;
 import com.example.resourceprocessor.model.SongMetadata;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class CreateResourceMetadataListenerTest {
@@ -30,7 +47,10 @@ class CreateResourceMetadataListenerTest {
     private SongServiceClient songClient;
     @Mock
     private ProcessSongMetadataPublisher processSongMetadataPublisher;
-
+    @Mock
+    private Channel channel;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private CreateResourceMetadataListener listener;
@@ -38,6 +58,14 @@ class CreateResourceMetadataListenerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(listener, "batchMaxAttempts", 3);
+        ReflectionTestUtils.setField(listener, "dlqExchange", "DLX");
+        ReflectionTestUtils.setField(listener, "dlqRoutingKey", "resource.exchange.createResource");
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.shutdownBatchExecutor();
     }
 
     @Test
@@ -54,6 +82,8 @@ class CreateResourceMetadataListenerTest {
 
         verify(resourceClient, times(1)).getResourceBinary(resourceId);
         verify(songClient, times(1)).saveResourceMetadata(any(SongMetadata.class));
+        // not an MP3 the native parser understands, so Tika reads it
+        assertEquals(1.0, meterRegistry.get("resource.metadata.parser").tag("parser", "tika").counter().count());
     }
 
     @Test
@@ -86,6 +116,150 @@ class CreateResourceMetadataListenerTest {
         assertTrue(ex.getCause() instanceof RuntimeException);
     }
 
+    @Test
+    void testHeaderOnly_smallFileFetchedByFirstRangeIsNotReadAgain() {
+        enableHeaderOnly();
+        String resourceId = "321";
+        byte[] fakeMp3Bytes = "fake-mp3".getBytes(StandardCharsets.UTF_8);
+        when(resourceClient.getResourceRange(resourceId, "bytes=0-65535"))
+                .thenReturn(new ResourceRange(fakeMp3Bytes, fakeMp3Bytes.length));
+        when(songClient.saveResourceMetadata(any(SongMetadata.class))).thenReturn(ResponseEntity.ok("saved"));
+
+        listener.createResourceMetadata().accept(MessageBuilder.withPayload(resourceId).build());
+
+        verify(resourceClient, never()).getResourceBinary(anyString());
+        verify(songClient).saveResourceMetadata(any(SongMetadata.class));
+        assertEquals(1.0, meterRegistry.get("resource.metadata.extraction").tag("mode", "header").counter().count());
+    }
+
+    @Test
+    void testHeaderOnly_readsHeadAndTailOnly() {
+        enableHeaderOnly();
+        String resourceId = "322";
+        byte[] head = new byte[65536];
+        // MPEG-1 layer III 128 kbps frames (417 bytes) from the start of the file
+        for (int offset = 0; offset + 4 <= head.length; offset += 417) {
+            head[offset] = (byte) 0xFF;
+            head[offset + 1] = (byte) 0xFB;
+            head[offset + 2] = (byte) 0x90;
+            head[offset + 3] = (byte) 0x44;
+        }
+        long totalLength = 1_920_000L;
+        when(resourceClient.getResourceRange(resourceId, "bytes=0-65535")).thenReturn(new ResourceRange(head, totalLength));
+        when(resourceClient.getResourceRange(resourceId, "bytes=-128"))
+                .thenReturn(new ResourceRange(new byte[128], totalLength));
+        when(songClient.saveResourceMetadata(any(SongMetadata.class))).thenReturn(ResponseEntity.ok("saved"));
+
+        listener.createResourceMetadata().accept(MessageBuilder.withPayload(resourceId).build());
+
+        verify(resourceClient, never()).getResourceBinary(anyString());
+        verify(songClient).saveResourceMetadata(argThat(metadata -> "02:00".equals(metadata.getDuration())));
+        assertEquals(65536.0 + 128, meterRegistry.get("resource.metadata.fetched.bytes").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("resource.metadata.parser").tag("parser", "native").counter().count());
+    }
+
+    @Test
+    void testHeaderOnly_oversizedTagFallsBackToFullRead() {
+        enableHeaderOnly();
+        ReflectionTestUtils.setField(listener, "maxHeadBytes", 131072);
+        String resourceId = "323";
+        byte[] head = new byte[65536];
+        head[0] = 'I';
+        head[1] = 'D';
+        head[2] = '3';
+        head[6] = 0x01; // 2 MB tag, e.g. embedded cover art
+        byte[] fakeMp3Bytes = "fake-mp3".getBytes(StandardCharsets.UTF_8);
+        when(resourceClient.getResourceRange(resourceId, "bytes=0-65535")).thenReturn(new ResourceRange(head, 4_000_000L));
+        when(resourceClient.getResourceBinary(resourceId)).thenReturn(fakeMp3Bytes);
+        when(songClient.saveResourceMetadata(any(SongMetadata.class))).thenReturn(ResponseEntity.ok("saved"));
+
+        listener.createResourceMetadata().accept(MessageBuilder.withPayload(resourceId).build());
+
+        verify(resourceClient, times(1)).getResourceRange(anyString(), anyString());
+        verify(resourceClient).getResourceBinary(resourceId);
+        assertEquals(1.0, meterRegistry.get("resource.metadata.extraction").tag("mode", "full").counter().count());
+    }
+
+    @Test
+    void testCreateResourceMetadataBatch_acksSavedAndDeadLettersDeliveriesFailingEveryAttempt() throws Exception {
+        ReflectionTestUtils.setField(listener, "batchParallelism", 2);
+        byte[] fakeMp3Bytes = "fake-mp3".getBytes(StandardCharsets.UTF_8);
+        when(resourceClient.getResourceBinary("11")).thenReturn(fakeMp3Bytes);
+        when(resourceClient.getResourceBinary("12")).thenThrow(new RuntimeException("Service unavailable"));
+        when(resourceClient.getResourceBinary("13")).thenReturn(fakeMp3Bytes);
+        when(songClient.saveResourceMetadataBatch(anyList())).thenAnswer(invocation -> {
+            List<SongMetadata> items = invocation.getArgument(0);
+            return items.stream()
+                    .map(item -> item.getResourceId() == 11
+                            ? new SongBatchItemResult(11, "CREATED", 1, null)
+                            : new SongBatchItemResult(13, "CONFLICT", null, "Metadata for resource ID=13 already exists"))
+                    .toList();
+        });
+
+        listener.createResourceMetadataBatch().accept(batch(List.of("11", "12", "13")));
+
+        verify(songClient).saveResourceMetadataBatch(argThat(items -> items.size() == 2
+                && items.get(0).getResourceId() == 11 && items.get(1).getResourceId() == 13));
+        verify(songClient, times(3)).saveResourceMetadataBatch(anyList());
+        verify(resourceClient, times(3)).getResourceBinary("12");
+        verify(processSongMetadataPublisher, times(1)).sendProcessedSongMetadataEvent(any(), any());
+        verify(channel).basicAck(101L, false);
+        verify(channel).basicPublish(eq("DLX"), eq("resource.exchange.createResource"), any(AMQP.BasicProperties.class),
+                aryEq("12".getBytes(StandardCharsets.UTF_8)));
+        verify(channel).basicPublish(eq("DLX"), eq("resource.exchange.createResource"), any(AMQP.BasicProperties.class),
+                aryEq("13".getBytes(StandardCharsets.UTF_8)));
+        verify(channel).basicAck(102L, false);
+        verify(channel).basicAck(103L, false);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+        assertEquals(2.0, meterRegistry.get("resource.metadata.batch.messages").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void testCreateResourceMetadataBatch_failedBulkSaveRetriedThenDeadLettered() throws Exception {
+        ReflectionTestUtils.setField(listener, "batchParallelism", 2);
+        when(resourceClient.getResourceBinary(anyString())).thenReturn("fake-mp3".getBytes(StandardCharsets.UTF_8));
+        when(songClient.saveResourceMetadataBatch(anyList())).thenThrow(new RuntimeException("song-service down"));
+
+        listener.createResourceMetadataBatch().accept(batch(List.of("21", "22")));
+
+        verify(songClient, times(3)).saveResourceMetadataBatch(anyList());
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel, times(2)).basicPublish(eq("DLX"), eq("resource.exchange.createResource"),
+                properties.capture(), any(byte[].class));
+        Map<String, Object> headers = properties.getValue().getHeaders();
+        assertEquals("song-service down", headers.get(RepublishMessageRecoverer.X_EXCEPTION_MESSAGE));
+        assertTrue(headers.get(RepublishMessageRecoverer.X_EXCEPTION_STACKTRACE).toString()
+                .startsWith("java.lang.RuntimeException: song-service down"));
+        assertEquals("resource.exchange", headers.get(RepublishMessageRecoverer.X_ORIGINAL_EXCHANGE));
+        assertEquals("resource.created", headers.get(RepublishMessageRecoverer.X_ORIGINAL_ROUTING_KEY));
+        assertEquals("trace-102", headers.get("X-Trace-Id"));
+        assertTrue(headers.keySet().stream().noneMatch(name -> name.startsWith(AmqpHeaders.PREFIX)));
+        assertEquals(2, properties.getValue().getDeliveryMode());
+        verify(channel).basicAck(101L, false);
+        verify(channel).basicAck(102L, false);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+        verify(processSongMetadataPublisher, never()).sendProcessedSongMetadataEvent(any(), any());
+        assertEquals(2.0, meterRegistry.get("resource.metadata.batch.messages").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void testCreateResourceMetadataBatch_transientFailureSucceedsOnRetry() throws Exception {
+        byte[] fakeMp3Bytes = "fake-mp3".getBytes(StandardCharsets.UTF_8);
+        when(resourceClient.getResourceBinary("41"))
+                .thenThrow(new RuntimeException("Service unavailable"))
+                .thenReturn(fakeMp3Bytes);
+        when(songClient.saveResourceMetadataBatch(anyList()))
+                .thenReturn(List.of(new SongBatchItemResult(41, "CREATED", 1, null)));
+
+        listener.createResourceMetadataBatch().accept(batch(List.of("41")));
+
+        verify(resourceClient, times(2)).getResourceBinary("41");
+        verify(songClient, times(1)).saveResourceMetadataBatch(anyList());
+        verify(channel).basicAck(101L, false);
+        verify(channel, never()).basicPublish(anyString(), anyString(), any(), any());
+        assertEquals(1.0, meterRegistry.get("resource.metadata.batch.messages").tag("outcome", "acked").counter().count());
+    }
+
     @Test
     void testFormatDuration_validMillis() {
         String formatted = invokeFormatDuration("120000"); // 2 minutes
@@ -118,6 +292,40 @@ class CreateResourceMetadataListenerTest {
         assertEquals("1987", invokeResolveEmptyYear("abcd")); // fallback default
     }
 
+    @Test
+    void testCreateResourceMetadataBatch_missingDeliveryHeadersRejectsBatchWithoutRequeue() {
+        Message<List<String>> message = MessageBuilder.withPayload(List.of("31", "32"))
+                .setHeader(AmqpHeaders.CHANNEL, channel)
+                .build();
+
+        AmqpRejectAndDontRequeueException ex = assertThrows(AmqpRejectAndDontRequeueException.class,
+                () -> listener.createResourceMetadataBatch().accept(message));
+
+        assertTrue(ex.isRejectManual());
+        verifyNoInteractions(resourceClient, songClient, channel);
+        assertEquals(2.0, meterRegistry.get("resource.metadata.batch.messages").tag("outcome", "rejected").counter().count());
+    }
+
+    private Message<List<String>> batch(List<String> resourceIds) {
+        List<Map<String, Object>> deliveryHeaders = new ArrayList<>();
+        for (int i = 0; i < resourceIds.size(); i++) {
+            deliveryHeaders.add(Map.of(AmqpHeaders.DELIVERY_TAG, 101L + i,
+                    AmqpHeaders.RECEIVED_EXCHANGE, "resource.exchange",
+                    AmqpHeaders.RECEIVED_ROUTING_KEY, "resource.created",
+                    "X-Trace-Id", "trace-" + (101 + i)));
+        }
+        return MessageBuilder.withPayload(resourceIds)
+                .setHeader(AmqpHeaders.CHANNEL, channel)
+                .setHeader(AmqpHeaders.BATCH_CONVERTED_HEADERS, deliveryHeaders)
+                .build();
+    }
+
+    private void enableHeaderOnly() {
+        ReflectionTestUtils.setField(listener, "headerOnlyExtraction", true);
+        ReflectionTestUtils.setField(listener, "headBytes", 65536);
+        ReflectionTestUtils.setField(listener, "maxHeadBytes", 1048576);
+    }
+
     // ---- Reflection helpers ----
     private String invokeFormatDuration(String input) {
         try {
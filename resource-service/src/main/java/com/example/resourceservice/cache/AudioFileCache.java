@@ -0,0 +1,331 @@
+package com.example.resourceservice.cache;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded on-disk LRU cache of audio objects keyed by s3Key. Entries are filled read-through: a full S3 download is
+ * teed into a temporary file while it is streamed to the client and only published once the whole object was read.
+ * The index lives in memory, so the cache directory is wiped on startup.
+ */
+@Component
+public class AudioFileCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(AudioFileCache.class);
+    private static final String PARTIAL_FILE_SUFFIX = ".part";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSizeBytes;
+    private final long maxEntryBytes;
+    private final Map<String, CachedAudioFile> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentSizeBytes;
+    /** Fills in progress per key; only kept while a key has at least one, so the map stays as small as the fills. */
+    private final Map<String, PendingFills> pendingFills = new HashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+    private final Counter bytesServedCounter;
+
+    public AudioFileCache(MeterRegistry meterRegistry,
+            @Value("${resource.cache.enabled:true}") boolean enabled,
+            @Value("${resource.cache.directory:${java.io.tmpdir}/resource-cache}") String directory,
+            @Value("${resource.cache.max-size-bytes:1073741824}") long maxSizeBytes,
+            @Value("${resource.cache.max-entry-bytes:104857600}") long maxEntryBytes) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.maxSizeBytes = maxSizeBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxSizeBytes);
+        this.hitCounter = Counter.builder("resource.cache.hits")
+                .description("Downloads served from the local audio file cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("resource.cache.misses")
+                .description("Downloads that had to go to S3")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("resource.cache.evictions")
+                .description("Cached audio files evicted or invalidated")
+                .register(meterRegistry);
+        this.bytesServedCounter = Counter.builder("resource.cache.served.bytes")
+                .description("Bytes served from the local audio file cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("resource.cache.size.bytes", this, AudioFileCache::getCurrentSizeBytes)
+                .description("Bytes currently held in the local audio file cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("resource.cache.entries", this, AudioFileCache::getEntryCount)
+                .description("Files currently held in the local audio file cache")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks the key up and counts the hit or miss.
+     */
+    public Optional<CachedAudioFile> get(String s3Key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedAudioFile cached;
+        synchronized (this) {
+            cached = entries.get(s3Key);
+        }
+        if (cached == null || !Files.exists(cached.file())) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        hitCounter.increment();
+        return Optional.of(cached);
+    }
+
+    /**
+     * Wraps a full-object S3 stream so that, once the client has read it to the end, the bytes are published as a
+     * cache entry. Objects larger than {@code resource.cache.max-entry-bytes} are passed through untouched.
+     */
+    public InputStream readThrough(String s3Key, InputStream source, Long contentLength) {
+        if (!enabled || contentLength == null || contentLength > maxEntryBytes) {
+            return source;
+        }
+        long epoch = startFill(s3Key);
+        try {
+            Path partFile = directory.resolve(UUID.randomUUID() + PARTIAL_FILE_SUFFIX);
+            return new CacheFillingInputStream(s3Key, source, contentLength, partFile, epoch);
+        } catch (IOException e) {
+            finishFill(s3Key, epoch);
+            LOGGER.warn("Could not open cache file for s3Key={}, serving without caching", s3Key, e);
+            return source;
+        }
+    }
+
+    /**
+     * Drops the entry for the key, e.g. after the object was deleted or moved to another bucket.
+     */
+    public void invalidate(String s3Key) {
+        if (!enabled) {
+            return;
+        }
+        CachedAudioFile removed;
+        synchronized (this) {
+            PendingFills pending = pendingFills.get(s3Key);
+            if (pending != null) {
+                pending.epoch++;
+            }
+            removed = entries.remove(s3Key);
+            if (removed != null) {
+                currentSizeBytes -= removed.size();
+            }
+        }
+        if (removed != null) {
+            evictionCounter.increment();
+            deleteQuietly(removed.file());
+        }
+    }
+
+    public void recordServedBytes(long bytes) {
+        bytesServedCounter.increment(bytes);
+    }
+
+    public synchronized long getCurrentSizeBytes() {
+        return currentSizeBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    private void publish(String s3Key, Path partFile, long size, long epoch) throws IOException {
+        Path file = directory.resolve(UUID.randomUUID().toString());
+        Files.move(partFile, file, StandardCopyOption.ATOMIC_MOVE);
+        List<Path> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (!finishFill(s3Key, epoch)) {
+                evicted.add(file);
+            } else {
+                CachedAudioFile previous = entries.put(s3Key, new CachedAudioFile(file, size));
+                currentSizeBytes += size;
+                if (previous != null) {
+                    currentSizeBytes -= previous.size();
+                    evicted.add(previous.file());
+                }
+                Iterator<Map.Entry<String, CachedAudioFile>> eldest = entries.entrySet().iterator();
+                while (currentSizeBytes > maxSizeBytes && eldest.hasNext()) {
+                    CachedAudioFile victim = eldest.next().getValue();
+                    eldest.remove();
+                    currentSizeBytes -= victim.size();
+                    evicted.add(victim.file());
+                    evictionCounter.increment();
+                }
+            }
+        }
+        evicted.forEach(this::deleteQuietly);
+    }
+
+    private synchronized long startFill(String s3Key) {
+        PendingFills pending = pendingFills.computeIfAbsent(s3Key, key -> new PendingFills());
+        pending.count++;
+        return pending.epoch;
+    }
+
+    /**
+     * Ends a fill of the key and tells whether the key was left alone since the fill started, i.e. whether its bytes
+     * may still be published.
+     */
+    private synchronized boolean finishFill(String s3Key, long epoch) {
+        PendingFills pending = pendingFills.get(s3Key);
+        if (--pending.count == 0) {
+            pendingFills.remove(s3Key);
+        }
+        return pending.epoch == epoch;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete cache file {}", file, e);
+        }
+    }
+
+    /**
+     * A published cache entry. The file stays readable for open streams even if the entry is evicted meanwhile.
+     */
+    public record CachedAudioFile(Path file, long size) {
+
+        public InputStream openStream(long offset, long length) throws IOException {
+            return new FileChannelInputStream(file, offset, length);
+        }
+    }
+
+    /**
+     * Number of fills in progress for one key and its invalidation epoch, bumped on every invalidation of the key so
+     * the fills that started before it are discarded instead of resurrecting stale data.
+     */
+    private static final class PendingFills {
+
+        private int count;
+        private long epoch;
+    }
+
+    /**
+     * Copies everything read from the S3 stream into a partial file and publishes it on close if the object was read
+     * completely; an aborted download just discards the partial file.
+     */
+    private class CacheFillingInputStream extends FilterInputStream {
+
+        private final String s3Key;
+        private final long expectedLength;
+        private final Path partFile;
+        private final long epoch;
+        private final OutputStream partOutput;
+        private long written;
+        private boolean failed;
+        private boolean closed;
+
+        CacheFillingInputStream(String s3Key, InputStream source, long expectedLength, Path partFile, long epoch)
+                throws IOException {
+            super(source);
+            this.s3Key = s3Key;
+            this.expectedLength = expectedLength;
+            this.partFile = partFile;
+            this.epoch = epoch;
+            this.partOutput = Files.newOutputStream(partFile);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                copy(new byte[]{(byte) value}, 0, 1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                copy(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                closeAndPublish();
+            }
+        }
+
+        private void copy(byte[] buffer, int offset, int length) {
+            if (failed) {
+                return;
+            }
+            try {
+                partOutput.write(buffer, offset, length);
+                written += length;
+            } catch (IOException e) {
+                failed = true;
+                LOGGER.warn("Failed to write cache file for s3Key={}", s3Key, e);
+            }
+        }
+
+        private void closeAndPublish() {
+            try {
+                partOutput.close();
+                if (!failed && written == expectedLength) {
+                    publish(s3Key, partFile, written, epoch);
+                    return;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to publish cache file for s3Key={}", s3Key, e);
+            }
+            finishFill(s3Key, epoch);
+            deleteQuietly(partFile);
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.example.resourceservice.client;
 
-import com.example.resourceservice.dto.SongDTO;
 import com.example.resourceservice.exception.SongClientException;
 import com.example.resourceservice.model.ErrorResponse;
 import com.example.resourceservice.model.SongMetadata;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
@@ -16,6 +14,9 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component
 public class SongServiceClient {
     @Value("${song.service.url}")
@@ -50,6 +51,10 @@ public class SongServiceClient {
         throw new SongClientException(e.getMessage(), errorResponse);
     }
 
+    /**
+     * Removes the metadata of all given resources with one {@code DELETE /songs/by-resource} call; resources without
+     * metadata are skipped by song-service.
+     */
     @Retryable(
             retryFor = {RestClientException.class},
             noRetryFor = {
@@ -58,30 +63,19 @@ public class SongServiceClient {
                     HttpClientErrorException.NotFound.class
             },
             maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2)
+            backoff = @Backoff(delay = 1000, multiplier = 2),
+            recover = "recoverBatchDelete"
     )
-    public void deleteResourceMetadataByResourceId(Integer resourceId) {
-        ResponseEntity<SongDTO> songDTO = getMetadataByResourceId(resourceId);
-        if (songDTO.getStatusCode().equals(HttpStatusCode.valueOf(200))) {
-            deleteResourceMetadata(songDTO.getBody().getId());
-        }
+    public void deleteResourceMetadataByResourceIds(List<Integer> resourceIds) {
+        String ids = resourceIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        restTemplate.delete(songServiceUrl + "/songs/by-resource?ids=" + ids);
     }
 
     @Recover
-    public void recover(Exception e, Integer resourceId) {
+    public void recoverBatchDelete(Exception e, List<Integer> resourceIds) {
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.setErrorCode("503");
-        errorResponse.setErrorMessage("Metadata Service can not perform removal of metadata for resource with ID: " + resourceId + " after multiple attempts. ");
+        errorResponse.setErrorMessage("Metadata Service can not perform removal of metadata for resources with IDs: " + resourceIds + " after multiple attempts. ");
         throw new SongClientException(e.getMessage(), errorResponse);
     }
-
-    private ResponseEntity<SongDTO> getMetadataByResourceId(final Integer id) {
-        String url = songServiceUrl + "/songs/resource-identifiers/" + id;
-        return restTemplate.getForEntity(url, SongDTO.class);
-    }
-
-    private void deleteResourceMetadata(final Integer id) {
-        String url = songServiceUrl + "/songs?id=" + id;
-        restTemplate.delete(url);
-    }
 }
\ No newline at end of file
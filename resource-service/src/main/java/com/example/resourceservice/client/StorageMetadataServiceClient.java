@@ -3,6 +3,11 @@ package com.example.resourceservice.client;
 import java.net.URI;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,6 +18,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -25,6 +31,11 @@ import com.example.resourceservice.model.storagemetadata.StorageType;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 
 @Component
 public class StorageMetadataServiceClient {
@@ -40,45 +51,184 @@ public class StorageMetadataServiceClient {
   private String stagingFilesPath;
   @Value("${storage-metadata.service.url}")
   private String storageMetadataServiceUrl;
+  @Value("${storage-metadata.cache.ttl-seconds:600}")
+  private long cacheTtlSeconds;
+  @Value("${storage-metadata.cache.refresh-ahead-seconds:480}")
+  private long cacheRefreshAheadSeconds;
+  @Value("${storage-metadata.cache.failure-backoff-seconds:5}")
+  private long failureBackoffSeconds;
   private final RestTemplate storageRestTemplate;
   private final CircuitBreaker storageServiceCB;
   private final Retry storageServiceRetry;
+  private final MeterRegistry meterRegistry;
+  private final Counter cacheHitCounter;
+  private final Counter cacheMissCounter;
+  private final Object loadLock = new Object();
+  private final AtomicBoolean refreshInFlight = new AtomicBoolean();
+  private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "storage-metadata-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private volatile CachedStorages cachedStorages;
+  /** No reload is attempted before this {@link System#nanoTime()} after one failed. */
+  private volatile long retryNotBeforeNanos = System.nanoTime();
+
   public StorageMetadataServiceClient(@Qualifier("storageRestTemplate") RestTemplate storageRestTemplate, CircuitBreaker storageServiceCB,
-      Retry storageServiceRetry) {
+      @Qualifier("storageServiceRetry") Retry storageServiceRetry, MeterRegistry meterRegistry) {
     this.storageRestTemplate = storageRestTemplate;
     this.storageServiceCB = storageServiceCB;
     this.storageServiceRetry = storageServiceRetry;
+    this.meterRegistry = meterRegistry;
+    this.cacheHitCounter = Counter.builder("storage.metadata.cache.hits")
+        .description("Storage metadata lookups served from the in-process cache")
+        .register(meterRegistry);
+    this.cacheMissCounter = Counter.builder("storage.metadata.cache.misses")
+        .description("Storage metadata lookups that had to load synchronously")
+        .register(meterRegistry);
+    Gauge.builder("storage.metadata.cache.hit.ratio", this, StorageMetadataServiceClient::cacheHitRatio)
+        .description("Share of storage metadata lookups served from the cache")
+        .register(meterRegistry);
   }
 
+  /**
+   * Returns the storage list from an in-process cache. Entries older than {@code refresh-ahead-seconds} are served
+   * while a single background refresh runs; entries past {@code ttl-seconds} are reloaded synchronously. When the
+   * storage-metadata-service is unreachable the last known list is served however old it is, and the hard-coded stub
+   * is only used if nothing was ever loaded. After a failed load no other call is made for
+   * {@code failure-backoff-seconds}; callers get the stale list (or the stub) at once instead of queuing for their own
+   * timeout.
+   */
   public List<StorageMetadataResponse> getStoragesWithStorageServiceCB(RequestMetadata requestMetadata) {
+    CachedStorages current = cachedStorages;
+    if (Objects.nonNull(current)) {
+      long ageMillis = current.ageMillis();
+      if (ageMillis < TimeUnit.SECONDS.toMillis(cacheTtlSeconds)) {
+        cacheHitCounter.increment();
+        if (ageMillis >= TimeUnit.SECONDS.toMillis(cacheRefreshAheadSeconds) && !inFailureBackoff()) {
+          scheduleRefresh();
+        }
+        return current.storages();
+      }
+    }
+    cacheMissCounter.increment();
+    if (inFailureBackoff()) {
+      return Objects.nonNull(current) ? current.storages() : getStoragesFallback();
+    }
+    return loadStorages(requestMetadata);
+  }
+
+  @PreDestroy
+  public void shutdownRefreshExecutor() {
+    refreshExecutor.shutdownNow();
+  }
+
+  private List<StorageMetadataResponse> loadStorages(RequestMetadata requestMetadata) {
+    synchronized (loadLock) {
+      CachedStorages current = cachedStorages;
+      // Another caller may have reloaded, or failed to, while this one waited for the lock.
+      if (Objects.nonNull(current) && current.ageMillis() < TimeUnit.SECONDS.toMillis(cacheTtlSeconds)) {
+        return current.storages();
+      }
+      if (inFailureBackoff()) {
+        return Objects.nonNull(current) ? current.storages() : getStoragesFallback();
+      }
+      try {
+        return refreshStorages(requestMetadata);
+      } catch (CallNotPermittedException ex) {
+        LOGGER.warn("Circuit breaker is OPEN, serving {} storage data", Objects.nonNull(current) ? "stale" : "stub");
+      } catch (Exception e) {
+        LOGGER.error("Error occurred while calling Storage Service, serving {} storage data",
+            Objects.nonNull(current) ? "stale" : "stub", e);
+      }
+      return Objects.nonNull(current) ? current.storages() : getStoragesFallback();
+    }
+  }
+
+  private void scheduleRefresh() {
+    if (!refreshInFlight.compareAndSet(false, true)) {
+      return;
+    }
     try {
-      return storageServiceCB.executeSupplier(() -> {
-        // Prepare headers and URI
-        HttpEntity<?> httpEntity = new HttpEntity<>(prepareHeaders(requestMetadata));
-        URI uri = prepareURI();
-        if (uri == null) {
-          LOGGER.error("Storage Metadata Service URL is not configured");
-          return getStoragesFallback();
+      refreshExecutor.execute(() -> {
+        try {
+          refreshStorages(null);
+        } catch (Exception e) {
+          LOGGER.warn("Background refresh of storage metadata failed, keeping cached data: {}", e.getMessage());
+        } finally {
+          refreshInFlight.set(false);
         }
-        LOGGER.debug("Calling Storage Service, URI {}", uri);
-        // Call with circuit breaker using executeSupplier
-        ResponseEntity<List<StorageMetadataResponse>> responseEntity = storageRestTemplate.exchange(
-            uri, HttpMethod.GET, httpEntity, new ParameterizedTypeReference<>() {
-            }
-        );
-        LOGGER.info("Received response from Storage Service for protected resource.");
-        return responseEntity != null && responseEntity.getBody() != null
-            ? responseEntity.getBody()
-            : getStoragesFallback();
       });
-    } catch (CallNotPermittedException ex) {
-      // Circuit breaker is OPEN: default fallback
-      LOGGER.warn("Circuit breaker is OPEN, returning stub storage data");
-      return getStoragesFallback();
-    } catch (Exception e) {
-      LOGGER.error("Error occurred while calling Storage Service, returning stub", e);
-      return getStoragesFallback();
+    } catch (RejectedExecutionException e) {
+      refreshInFlight.set(false);
+    }
+  }
+
+  private List<StorageMetadataResponse> refreshStorages(RequestMetadata requestMetadata) {
+    Timer.Sample sample = Timer.start();
+    String outcome = "failure";
+    try {
+      CachedStorages previous = cachedStorages;
+      ResponseEntity<List<StorageMetadataResponse>> responseEntity =
+          storageServiceCB.executeSupplier(() -> fetchStorages(requestMetadata, previous));
+      if (responseEntity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+        cachedStorages = new CachedStorages(previous.storages(), previous.etag(), System.nanoTime());
+        outcome = "not_modified";
+      } else {
+        cachedStorages = new CachedStorages(List.copyOf(responseEntity.getBody()),
+            responseEntity.getHeaders().getETag(), System.nanoTime());
+        outcome = "success";
+      }
+      return cachedStorages.storages();
+    } finally {
+      if ("failure".equals(outcome)) {
+        retryNotBeforeNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(failureBackoffSeconds);
+      }
+      sample.stop(Timer.builder("storage.metadata.cache.refresh")
+          .description("Time to load storage metadata from storage-metadata-service")
+          .tag("outcome", outcome)
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Revalidates with If-None-Match when a tagged list is cached, so an unchanged list comes back as an empty 304.
+   */
+  private ResponseEntity<List<StorageMetadataResponse>> fetchStorages(RequestMetadata requestMetadata,
+      CachedStorages previous) {
+    HttpHeaders headers = prepareHeaders(requestMetadata);
+    boolean revalidating = Objects.nonNull(previous) && Objects.nonNull(previous.etag());
+    if (revalidating) {
+      headers.setIfNoneMatch(previous.etag());
+    }
+    HttpEntity<?> httpEntity = new HttpEntity<>(headers);
+    URI uri = prepareURI();
+    if (uri == null) {
+      throw new IllegalStateException("Storage Metadata Service URL is not configured");
+    }
+    LOGGER.debug("Calling Storage Service, URI {}", uri);
+    ResponseEntity<List<StorageMetadataResponse>> responseEntity = storageRestTemplate.exchange(
+        uri, HttpMethod.GET, httpEntity, new ParameterizedTypeReference<>() {
+        }
+    );
+    LOGGER.info("Received response from Storage Service for protected resource.");
+    if (revalidating && responseEntity != null
+        && responseEntity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+      return responseEntity;
+    }
+    if (responseEntity == null || responseEntity.getBody() == null || responseEntity.getBody().isEmpty()) {
+      throw new IllegalStateException("Storage Service returned no storages");
     }
+    return responseEntity;
+  }
+
+  private boolean inFailureBackoff() {
+    return System.nanoTime() - retryNotBeforeNanos < 0;
+  }
+
+  private double cacheHitRatio() {
+    double lookups = cacheHitCounter.count() + cacheMissCounter.count();
+    return lookups == 0 ? 0 : cacheHitCounter.count() / lookups;
   }
 
   public List<StorageMetadataResponse> getStoragesWithCBAndRetry() {
@@ -151,4 +301,11 @@ public class StorageMetadataServiceClient {
     stub2.setPath(stagingFilesPath);
     return List.of(stub1, stub2);
   }
+
+  private record CachedStorages(List<StorageMetadataResponse> storages, String etag, long loadedAtNanos) {
+
+    long ageMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadedAtNanos);
+    }
+  }
 }
@@ -0,0 +1,113 @@
+package com.example.resourceservice.config;
+
+import java.util.Objects;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Pooled Apache HttpClient shared by the inter-service RestTemplates. Connections are kept alive between calls,
+ * limited per route, evicted when idle and bounded by connect/read/lease timeouts so a slow downstream service
+ * cannot hold a caller thread indefinitely.
+ */
+@Configuration
+public class HttpClientConfig {
+
+  @Value("${http.client.max-total:100}")
+  private int maxTotal;
+  @Value("${http.client.max-per-route:20}")
+  private int maxPerRoute;
+  // Comma-separated host:port=max pairs, e.g. "localhost:8086=50"
+  @Value("${http.client.max-per-route-overrides:}")
+  private String maxPerRouteOverrides;
+  @Value("${http.client.connect-timeout-ms:2000}")
+  private long connectTimeoutMs;
+  @Value("${http.client.read-timeout-ms:10000}")
+  private long readTimeoutMs;
+  @Value("${http.client.connection-request-timeout-ms:2000}")
+  private long connectionRequestTimeoutMs;
+  @Value("${http.client.keep-alive-seconds:30}")
+  private long keepAliveSeconds;
+  @Value("${http.client.idle-eviction-seconds:30}")
+  private long idleEvictionSeconds;
+  @Value("${http.client.connection-ttl-seconds:300}")
+  private long connectionTtlSeconds;
+  @Value("${http.client.validate-after-inactivity-ms:2000}")
+  private long validateAfterInactivityMs;
+
+  @Bean
+  public PoolingHttpClientConnectionManager interServiceConnectionManager() {
+    PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(maxTotal)
+        .setMaxConnPerRoute(maxPerRoute)
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+            .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+            .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+            .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+            .build())
+        .build();
+    applyRouteOverrides(connectionManager);
+    return connectionManager;
+  }
+
+  @Bean
+  public CloseableHttpClient interServiceHttpClient(PoolingHttpClientConnectionManager interServiceConnectionManager) {
+    TimeValue maxKeepAlive = TimeValue.ofSeconds(keepAliveSeconds);
+    return HttpClients.custom()
+        .setConnectionManager(interServiceConnectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+            .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+            .build())
+        // Honour a shorter Keep-Alive from the server, otherwise cap reuse at our own limit
+        .setKeepAliveStrategy((response, context) -> maxKeepAlive.min(
+            DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)))
+        .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+        .evictExpiredConnections()
+        .build();
+  }
+
+  @Bean
+  public HttpComponentsClientHttpRequestFactory interServiceRequestFactory(CloseableHttpClient interServiceHttpClient) {
+    return new HttpComponentsClientHttpRequestFactory(interServiceHttpClient);
+  }
+
+  // Publishes httpcomponents.httpclient.pool.* (leased, pending, available, max) for pool sizing
+  @Bean
+  public MeterBinder interServiceConnectionPoolMetrics(PoolingHttpClientConnectionManager interServiceConnectionManager) {
+    return new PoolingHttpClientConnectionManagerMetricsBinder(interServiceConnectionManager, "inter-service");
+  }
+
+  private void applyRouteOverrides(PoolingHttpClientConnectionManager connectionManager) {
+    if (!StringUtils.hasText(maxPerRouteOverrides)) {
+      return;
+    }
+    for (String override : StringUtils.commaDelimitedListToStringArray(maxPerRouteOverrides)) {
+      String[] routeAndMax = override.trim().split("=");
+      String[] hostAndPort = routeAndMax[0].trim().split(":");
+      if (routeAndMax.length != 2 || hostAndPort.length != 2 || Objects.equals(hostAndPort[0], "")) {
+        throw new IllegalArgumentException("Invalid http.client.max-per-route-overrides entry: " + override);
+      }
+      HttpHost host = new HttpHost("http", hostAndPort[0], Integer.parseInt(hostAndPort[1]));
+      connectionManager.setMaxPerRoute(new HttpRoute(host), Integer.parseInt(routeAndMax[1].trim()));
+    }
+  }
+}
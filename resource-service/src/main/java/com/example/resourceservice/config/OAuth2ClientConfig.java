@@ -3,16 +3,13 @@ package com.example.resourceservice.config;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.InMemoryOAuth2AuthorizedClientService;
-import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
-import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
@@ -21,11 +18,11 @@ import org.springframework.security.oauth2.client.web.AuthenticatedPrincipalOAut
 import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
 import org.springframework.web.client.RestTemplate;
 
+import com.example.resourceservice.security.StorageServiceTokenProvider;
+
 @Configuration
 public class OAuth2ClientConfig {
 
-  private static final Logger LOGGER = LogManager.getLogger(OAuth2ClientConfig.class);
-
   // Bean to store authorized clients (tokens)
   // ClientRegistrationRepository is auto-configured from application yaml
   @Bean
@@ -62,29 +59,20 @@ public class OAuth2ClientConfig {
   // RestTemplate for other services (no token)
   @Bean
   @LoadBalanced
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public RestTemplate restTemplate(HttpComponentsClientHttpRequestFactory interServiceRequestFactory) {
+    return new RestTemplate(interServiceRequestFactory);
   }
 
   // RestTemplate for storage-service with token interceptor
   @Bean
-  public RestTemplate storageRestTemplate(OAuth2AuthorizedClientManager authorizedClientManager) {
-    RestTemplate restTemplate = new RestTemplate();
+  public RestTemplate storageRestTemplate(StorageServiceTokenProvider storageServiceTokenProvider,
+      HttpComponentsClientHttpRequestFactory interServiceRequestFactory) {
+    RestTemplate restTemplate = new RestTemplate(interServiceRequestFactory);
 
     List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
     interceptors.add((request, body, execution) -> {
-      OAuth2AuthorizeRequest authRequest = OAuth2AuthorizeRequest
-          .withClientRegistrationId("storage-service")
-          .principal("storage-client") // dummy principal for client_credentials
-          .build();
-
-      OAuth2AuthorizedClient authorizedClient = authorizedClientManager.authorize(authRequest);
-      if (authorizedClient != null && authorizedClient.getAccessToken() != null) {
-        String tokenValue = authorizedClient.getAccessToken().getTokenValue();
-        LOGGER.info("Received response from Auth Server for getting token {}", tokenValue);
-        request.getHeaders().setBearerAuth(tokenValue);
-      }
-
+      // Cached token, refreshed in the background before it expires
+      request.getHeaders().setBearerAuth(storageServiceTokenProvider.getAccessToken());
       return execution.execute(request, body);
     });
 
@@ -9,6 +9,8 @@ import org.springframework.context.annotation.Configuration;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 
+import software.amazon.awssdk.core.exception.SdkException;
+
 import java.time.Duration;
 
 @Configuration
@@ -42,4 +44,15 @@ public class Resilience4jConfig {
         .build();
     return Retry.of("storageServiceRetry", retryConfig);
   }
+
+  // Retry Bean for single S3 multipart upload parts
+  @Bean
+  public Retry s3PartUploadRetry() {
+    RetryConfig retryConfig = RetryConfig.custom()
+        .maxAttempts(3) // Attempts per part before the whole multipart upload is aborted
+        .waitDuration(Duration.ofMillis(500)) // Delay between part retries
+        .retryExceptions(SdkException.class) // S3 service and client (I/O) errors
+        .build();
+    return Retry.of("s3PartUploadRetry", retryConfig);
+  }
 }
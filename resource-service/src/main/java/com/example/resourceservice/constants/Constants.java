@@ -9,6 +9,8 @@ public class Constants {
   public static final String STORAGE_ERROR_MESSAGE = "Failed to upload file to S3";
   public static final String INTERNAL_SERVER_ERROR_RESPONSE_CODE = "500";
   public static final String SERVICE_UNAVAILABLE_RESPONSE_CODE = "503";
+  public static final String RANGE_NOT_SATISFIABLE_RESPONSE_CODE = "416";
+  public static final String RANGE_NOT_SATISFIABLE_ERROR_MESSAGE = "Range \'%s\' cannot be satisfied for this resource";
   public static final String DATABASE_ERROR_MESSAGE = "Resource operation could not be completed";
   public static final String NOT_FOUNT_RESOURCE_ERROR_MESSAGE = "Resource with ID=%s not found";
 }
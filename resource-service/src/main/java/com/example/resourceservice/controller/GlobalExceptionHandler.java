@@ -60,6 +60,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(Objects.nonNull(notFoundException.getErrorResponse()) ? notFoundException.getErrorResponse() : notFoundException.getSimpleErrorResponse(), headers, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler({RangeNotSatisfiableException.class})
+    private ResponseEntity<Object> handleRangeNotSatisfiableException(final RangeNotSatisfiableException rangeNotSatisfiableException) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (Objects.nonNull(rangeNotSatisfiableException.getResourceLength())) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + rangeNotSatisfiableException.getResourceLength());
+        }
+        return new ResponseEntity<>(rangeNotSatisfiableException.getErrorResponse(), headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
     @ExceptionHandler({HttpMediaTypeNotSupportedException.class})
     private ResponseEntity<ErrorResponse> handleHttpMediaTypeNotSupportedException(final HttpMediaTypeNotSupportedException ex) {
         HttpHeaders headers = new HttpHeaders();
@@ -4,6 +4,7 @@ import static com.example.resourceservice.constants.Constants.BAD_REQUEST_RESPON
 
 import com.example.resourceservice.entity.ResourceEntity;
 import com.example.resourceservice.exception.InvalidDataException;
+import com.example.resourceservice.model.ResourceContent;
 import com.example.resourceservice.model.requestMetadata.RequestMetadata;
 import com.example.resourceservice.service.ResourceService;
 import com.example.resourceservice.util.DataPreparerService;
@@ -11,9 +12,15 @@ import com.example.resourceservice.util.DataPreparerService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,13 +36,14 @@ public class ResourceRestController {
     private DataPreparerService dataPreparerService;
 
     @PostMapping(consumes = "audio/mpeg")
-    public ResponseEntity<Map<String, Integer>> uploadResource(@RequestBody byte[] audioData,
+    public ResponseEntity<Map<String, Integer>> uploadResource(HttpServletRequest request,
         @RequestHeader(value = "X-Trace-Id", required = false) String traceId) {
         try {
             LOGGER.info("Upload resource request received.");
             RequestMetadata requestMetadata = new RequestMetadata();
             requestMetadata.setTraceId(traceId);
-            final ResourceEntity resourceEntity = resourceService.uploadResource(audioData, requestMetadata);
+            final ResourceEntity resourceEntity = resourceService.uploadResource(request.getInputStream(),
+                request.getContentLengthLong(), requestMetadata);
             if (Objects.nonNull(resourceEntity)) {
                 final Map<String, Integer> result = new HashMap<>();
                 result.put("id", resourceEntity.getId());
@@ -45,13 +53,23 @@ public class ResourceRestController {
             throw new InvalidDataException("Validation failed");
         } catch (InvalidDataException e) {
             throw new InvalidDataException(this.dataPreparerService.prepareErrorResponse(e.getMessage(), BAD_REQUEST_RESPONSE_CODE));
+        } catch (IOException e) {
+            throw new InvalidDataException(this.dataPreparerService.prepareErrorResponse("Failed to read audio data", BAD_REQUEST_RESPONSE_CODE));
         }
     }
 
     @GetMapping(value = "/{id}", produces = "audio/mpeg")
-    public ResponseEntity<byte[]> getResource(@PathVariable Integer id) {
-        final byte[] resource = resourceService.getFileAsBytes(id);
-        return ResponseEntity.ok(resource);
+    public ResponseEntity<InputStreamResource> getResource(@PathVariable Integer id,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        final ResourceContent content = resourceService.getResourceContent(id, range);
+        final ResponseEntity.BodyBuilder response = content.isPartial()
+            ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).header(HttpHeaders.CONTENT_RANGE, content.getContentRange())
+            : ResponseEntity.ok();
+        response.header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (Objects.nonNull(content.getContentLength())) {
+            response.contentLength(content.getContentLength());
+        }
+        return response.body(new InputStreamResource(content.getContent()));
     }
 
     @DeleteMapping
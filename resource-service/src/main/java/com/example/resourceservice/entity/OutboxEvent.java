@@ -1,5 +1,7 @@
 package com.example.resourceservice.entity;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.*;
 
 @Entity
@@ -8,7 +10,8 @@ public class OutboxEvent {
 
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq_gen")
-  @SequenceGenerator(name = "outbox_event_seq_gen", sequenceName = "outbox_event_seq", allocationSize = 1)
+  // allocationSize must equal INCREMENT BY of outbox_event_seq
+  @SequenceGenerator(name = "outbox_event_seq_gen", sequenceName = "outbox_event_seq", allocationSize = 50)
   private Integer id;
 
   @Column(name = "resource_id", nullable = false)
@@ -17,6 +20,9 @@ public class OutboxEvent {
   @Column(name = "processed", nullable = false)
   private boolean processed = false;
 
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt = LocalDateTime.now();
+
   // --- Constructors ---
   public OutboxEvent() {
   }
@@ -51,6 +57,14 @@ public class OutboxEvent {
     this.processed = processed;
   }
 
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
   // --- Optional toString ---
   @Override
   public String toString() {
@@ -58,6 +72,7 @@ public class OutboxEvent {
         "id=" + id +
         ", resourceId=" + resourceId +
         ", processed=" + processed +
+        ", createdAt=" + createdAt +
         '}';
   }
 }
\ No newline at end of file
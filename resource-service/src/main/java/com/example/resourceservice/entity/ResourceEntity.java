@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class ResourceEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resource_seq")
-    @SequenceGenerator(name = "resource_seq", sequenceName = "resource_seq", allocationSize = 1)
+    // Pooled optimizer: one nextval reserves 50 ids, matching INCREMENT BY 50 of resource_seq
+    @SequenceGenerator(name = "resource_seq", sequenceName = "resource_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "file_name", nullable = false, length = 255)
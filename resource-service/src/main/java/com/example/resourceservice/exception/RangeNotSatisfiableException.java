@@ -0,0 +1,29 @@
+package com.example.resourceservice.exception;
+
+import com.example.resourceservice.model.ErrorResponse;
+
+public class RangeNotSatisfiableException extends RuntimeException {
+    private ErrorResponse errorResponse;
+    private Long resourceLength;
+
+    public RangeNotSatisfiableException(ErrorResponse errorResponse, Long resourceLength) {
+        this.errorResponse = errorResponse;
+        this.resourceLength = resourceLength;
+    }
+
+    public ErrorResponse getErrorResponse() {
+        return errorResponse;
+    }
+
+    public void setErrorResponse(ErrorResponse errorResponse) {
+        this.errorResponse = errorResponse;
+    }
+
+    public Long getResourceLength() {
+        return resourceLength;
+    }
+
+    public void setResourceLength(Long resourceLength) {
+        this.resourceLength = resourceLength;
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.resourceservice.messaging.consumer;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
@@ -10,17 +9,16 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 
+import com.example.resourceservice.cache.AudioFileCache;
 import com.example.resourceservice.client.StorageMetadataServiceClient;
 import com.example.resourceservice.entity.ResourceEntity;
+import com.example.resourceservice.exception.StorageException;
 import com.example.resourceservice.model.storagemetadata.StorageMetadataResponse;
 import com.example.resourceservice.model.storagemetadata.StorageType;
 import com.example.resourceservice.repository.ResourceRepository;
 import com.example.resourceservice.service.StorageService;
 import com.example.resourceservice.util.DataPreparerService;
 
-import software.amazon.awssdk.core.ResponseBytes;
-import software.amazon.awssdk.services.s3.model.GetObjectResponse;
-
 @Configuration
 public class ProcessSongMetadataListener {
   private static final Logger LOGGER = LogManager.getLogger(ProcessSongMetadataListener.class);
@@ -28,15 +26,18 @@ public class ProcessSongMetadataListener {
   private final ResourceRepository resourceRepository;
   private final StorageMetadataServiceClient storageMetadataServiceClient;
   private final DataPreparerService dataPreparerService;
+  private final AudioFileCache audioFileCache;
 
   public ProcessSongMetadataListener(StorageService storageService,
       ResourceRepository resourceRepository,
       StorageMetadataServiceClient storageMetadataServiceClient,
-      DataPreparerService dataPreparerService) {
+      DataPreparerService dataPreparerService,
+      AudioFileCache audioFileCache) {
     this.storageService = storageService;
     this.resourceRepository = resourceRepository;
     this.storageMetadataServiceClient = storageMetadataServiceClient;
     this.dataPreparerService = dataPreparerService;
+    this.audioFileCache = audioFileCache;
   }
 
   @Bean
@@ -52,12 +53,11 @@ public class ProcessSongMetadataListener {
         if (resource.getFileName().contains(permanentStorageMetadata.getBucket())) {
           return;
         }
-        ResponseBytes<GetObjectResponse> objectBytes = storageService.retrieveFileFromStorage(resource.getS3Key(), stagingStorageMetadata.getBucket());
-        if (Objects.nonNull(objectBytes)) {
-          storageService.addFileBytesToStorage(resource.getS3Key(), objectBytes.asByteArray(), permanentStorageMetadata.getBucket());
-          resource.setFileName(storageService.prepareFileUrl(resource.getS3Key(), permanentStorageMetadata));
-          resourceRepository.save(resource);
-        }
+        storageService.copyFileBetweenStorages(resource.getS3Key(), stagingStorageMetadata.getBucket(), permanentStorageMetadata.getBucket());
+        resource.setFileName(storageService.prepareFileUrl(resource.getS3Key(), permanentStorageMetadata));
+        resourceRepository.save(resource);
+        audioFileCache.invalidate(resource.getS3Key());
+        removeStagingCopy(resource.getS3Key(), stagingStorageMetadata.getBucket());
         LOGGER.info("Processed resource ID: {} in permanent storage", resourceId);
       } catch (Exception e) {
         throw new RuntimeException(e); // triggers retry & DLQ
@@ -65,6 +65,15 @@ public class ProcessSongMetadataListener {
     };
   }
 
+  private void removeStagingCopy(String s3Key, String stagingBucket) {
+    try {
+      storageService.deleteResourceFromStorage(s3Key, stagingBucket);
+    } catch (StorageException e) {
+      // The resource already points at permanent storage; a leftover staging object only costs space
+      LOGGER.warn("Failed to remove promoted object {} from staging bucket {}", s3Key, stagingBucket, e);
+    }
+  }
+
   private List<StorageMetadataResponse> retrieveStoragesMetadata() {
     return storageMetadataServiceClient.getStoragesWithStorageServiceCB(null);
   }
@@ -0,0 +1,38 @@
+package com.example.resourceservice.model;
+
+import java.io.InputStream;
+
+/**
+ * Open stream over a stored audio file, or over the requested byte range of it. The caller owns the stream and must
+ * close it once the body has been written.
+ */
+public class ResourceContent {
+    private final InputStream content;
+    private final Long contentLength;
+    private final String contentRange;
+
+    public ResourceContent(final InputStream content, final Long contentLength, final String contentRange) {
+        this.content = content;
+        this.contentLength = contentLength;
+        this.contentRange = contentRange;
+    }
+
+    public InputStream getContent() {
+        return content;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Value for the {@code Content-Range} header, e.g. {@code bytes 0-1023/52428800}; {@code null} for a full read.
+     */
+    public String getContentRange() {
+        return contentRange;
+    }
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+}
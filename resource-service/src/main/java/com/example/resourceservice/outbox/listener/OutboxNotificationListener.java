@@ -0,0 +1,116 @@
+package com.example.resourceservice.outbox.listener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.resourceservice.outbox.scheduler.OutboxScheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Holds a dedicated PostgreSQL connection that LISTENs on the outbox channel. The outbox_event insert trigger sends a
+ * NOTIFY that PostgreSQL delivers when the upload transaction commits, so the relay starts right away instead of at
+ * the next poll. The connection is opened outside the pool and re-established after failures.
+ */
+@Component
+public class OutboxNotificationListener {
+
+  private static final Logger LOGGER = LogManager.getLogger(OutboxNotificationListener.class);
+  private static final int WAIT_TIMEOUT_MS = 5000;
+
+  private final OutboxScheduler outboxScheduler;
+  private final boolean enabled;
+  private final String channel;
+  private final long reconnectDelayMs;
+  private final String url;
+  private final String username;
+  private final String password;
+  private volatile boolean running;
+  private Thread listenerThread;
+
+  public OutboxNotificationListener(OutboxScheduler outboxScheduler,
+      @Value("${outbox.relay.notify.enabled:true}") boolean enabled,
+      @Value("${outbox.relay.notify.channel:outbox_event}") String channel,
+      @Value("${outbox.relay.notify.reconnect-delay-ms:5000}") long reconnectDelayMs,
+      @Value("${spring.datasource.url:}") String url,
+      @Value("${spring.datasource.username:}") String username,
+      @Value("${spring.datasource.password:}") String password) {
+    if (!channel.matches("[a-z_][a-z0-9_]*")) {
+      throw new IllegalArgumentException("Invalid outbox notification channel: " + channel);
+    }
+    this.outboxScheduler = outboxScheduler;
+    this.enabled = enabled;
+    this.channel = channel;
+    this.reconnectDelayMs = reconnectDelayMs;
+    this.url = url;
+    this.username = username;
+    this.password = password;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!enabled || !url.startsWith("jdbc:postgresql:")) {
+      LOGGER.info("Outbox notifications disabled, relay runs on polling only");
+      return;
+    }
+    running = true;
+    listenerThread = new Thread(this::listen, "outbox-notify-listener");
+    listenerThread.setDaemon(true);
+    listenerThread.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (Objects.nonNull(listenerThread)) {
+      listenerThread.interrupt();
+    }
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = DriverManager.getConnection(url, username, password)) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        LOGGER.info("Listening for outbox notifications on channel {}", channel);
+        // Rows committed while no listener was attached sent their NOTIFY to nobody
+        outboxScheduler.onOutboxNotification();
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(WAIT_TIMEOUT_MS);
+          if (Objects.nonNull(notifications) && notifications.length > 0) {
+            outboxScheduler.onOutboxNotification();
+          }
+        }
+      } catch (SQLException e) {
+        if (running) {
+          LOGGER.warn("Outbox notification connection lost, reconnecting in {} ms: {}", reconnectDelayMs,
+              e.getMessage());
+          pause();
+        }
+      }
+    }
+  }
+
+  private void pause() {
+    try {
+      TimeUnit.MILLISECONDS.sleep(reconnectDelayMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
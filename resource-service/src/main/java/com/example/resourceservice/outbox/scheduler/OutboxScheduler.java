@@ -1,22 +1,76 @@
 package com.example.resourceservice.outbox.scheduler;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import com.example.resourceservice.outbox.service.OutboxProcessorService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Starts outbox relay runs on a dedicated thread. Runs are requested by database notifications for new outbox rows
+ * and, as a safety net, by a fixed-delay poll. At most one run is active and one more is queued; requests arriving
+ * while a run is already queued are dropped because that run will pick their events up anyway.
+ */
 @Component
 public class OutboxScheduler {
 
+  private static final Logger LOGGER = LogManager.getLogger(OutboxScheduler.class);
+
   private final OutboxProcessorService processorService;
+  private final Counter notifyWakeups;
+  private final Counter pollWakeups;
+  private final ThreadPoolExecutor relayExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(1), runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+      }, new ThreadPoolExecutor.DiscardPolicy());
 
-  public OutboxScheduler(OutboxProcessorService processorService) {
+  public OutboxScheduler(OutboxProcessorService processorService, MeterRegistry meterRegistry) {
     this.processorService = processorService;
+    this.notifyWakeups = Counter.builder("outbox.relay.wakeups")
+        .description("Outbox relay runs requested")
+        .tag("trigger", "notify")
+        .register(meterRegistry);
+    this.pollWakeups = Counter.builder("outbox.relay.wakeups")
+        .description("Outbox relay runs requested")
+        .tag("trigger", "poll")
+        .register(meterRegistry);
   }
 
-  // Runs every 30 seconds
-  @Scheduled(fixedRate = 30000)
+  // Safety net for missed notifications; the next poll starts poll-interval-ms after the previous one
+  @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:30000}")
   public void runOutboxProcessor() {
-    processorService.processPendingEvents();
+    pollWakeups.increment();
+    requestRun();
+  }
+
+  public void onOutboxNotification() {
+    notifyWakeups.increment();
+    requestRun();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    relayExecutor.shutdownNow();
+  }
+
+  private void requestRun() {
+    relayExecutor.execute(() -> {
+      try {
+        processorService.processPendingEvents();
+      } catch (Exception e) {
+        LOGGER.error("Outbox relay run failed: {}", e.getMessage(), e);
+      }
+    });
   }
 }
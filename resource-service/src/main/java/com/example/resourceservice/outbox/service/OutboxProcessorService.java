@@ -1,21 +1,41 @@
 package com.example.resourceservice.outbox.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.ThreadContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.resourceservice.entity.OutboxEvent;
 import com.example.resourceservice.messaging.producer.CreateResourceMetadataPublisher;
 import com.example.resourceservice.repository.OutboxEventRepository;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+/**
+ * Relays unprocessed outbox events to the message broker. Events are claimed in pages of {@code outbox.relay.page-size}
+ * with {@code FOR UPDATE SKIP LOCKED}, so several resource-service instances can drain the table side by side without
+ * publishing the same event twice. Each page is published and marked processed in its own transaction, and a run keeps
+ * claiming pages until the backlog is empty or a page publishes nothing. Events that fail stay pending and are claimed
+ * again at the head of the next page, so one event that keeps failing only costs each page a slot and does not stop
+ * the drain.
+ */
 @Service
 public class OutboxProcessorService {
 
@@ -23,44 +43,105 @@ public class OutboxProcessorService {
   public static final String CREATE_RESOURCE_METADATA_OUT = "createResourceMetadata-out-0";
   private final OutboxEventRepository repository;
   private final CreateResourceMetadataPublisher createResourceMetadataPublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final int pageSize;
+  private final Counter publishedCounter;
+  private final Counter failedCounter;
+  private final Timer publishLagTimer;
+  private final Timer runTimer;
+  private final AtomicLong backlog = new AtomicLong();
+  private final AtomicReference<LocalDateTime> oldestPendingCreatedAt = new AtomicReference<>();
 
   public OutboxProcessorService(OutboxEventRepository repository,
-      CreateResourceMetadataPublisher createResourceMetadataPublisher) {
+      CreateResourceMetadataPublisher createResourceMetadataPublisher,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${outbox.relay.page-size:100}") int pageSize) {
     this.repository = repository;
     this.createResourceMetadataPublisher = createResourceMetadataPublisher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.pageSize = pageSize;
+    this.publishedCounter = Counter.builder("outbox.events.published")
+        .description("Outbox events published to the broker")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("outbox.events.failed")
+        .description("Outbox events that could not be published and stay pending")
+        .register(meterRegistry);
+    this.publishLagTimer = Timer.builder("outbox.publish.lag")
+        .description("Time from outbox event creation to publication")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+    this.runTimer = Timer.builder("outbox.relay.run")
+        .description("Duration of one outbox relay run")
+        .register(meterRegistry);
+    Gauge.builder("outbox.backlog", backlog, AtomicLong::get)
+        .description("Unprocessed outbox events at the end of the last relay run")
+        .register(meterRegistry);
+    Gauge.builder("outbox.oldest.pending.age.seconds", oldestPendingCreatedAt, this::secondsSince)
+        .description("Age of the oldest unprocessed outbox event")
+        .register(meterRegistry);
   }
 
-  @Transactional
   public void processPendingEvents() {
-    List<OutboxEvent> pending = repository.findByProcessedFalse();
-    if (pending.isEmpty()) {
-      LOGGER.info("No pending outbox events to process.");
+    Timer.Sample sample = Timer.start();
+    int published = 0;
+    int pages = 0;
+    RelayedPage page;
+    do {
+      page = transactionTemplate.execute(status -> relayPage());
+      published += page.published();
+      pages++;
+    } while (page.claimed() == pageSize && page.published() > 0);
+    refreshBacklog();
+    sample.stop(runTimer);
+    if (published == 0) {
+      LOGGER.debug("No pending outbox events to process.");
       return;
     }
-    LOGGER.info("Processing {} outbox events...", pending.size());
-    for (OutboxEvent event : pending) {
+    LOGGER.info("Relayed {} outbox events in {} page(s), {} still pending.", published, pages, backlog.get());
+  }
+
+  private RelayedPage relayPage() {
+    List<OutboxEvent> claimed = repository.claimPendingBatch(pageSize);
+    List<Integer> processedIds = new ArrayList<>(claimed.size());
+    int failed = 0;
+    for (OutboxEvent event : claimed) {
       try {
         createResourceMetadataPublisher.sendCreateResourceMetadataEvent(CREATE_RESOURCE_METADATA_OUT,
             prepareMessage(event.getResourceId()));
-        LOGGER.info("Successfully sent resourceId={} to external service.", event.getResourceId());
-        event.setProcessed(true);
+        processedIds.add(event.getId());
+        publishedCounter.increment();
+        recordPublishLag(event);
       } catch (Exception e) {
+        failed++;
+        failedCounter.increment();
         LOGGER.error("Failed to process outbox event id={}, resourceId={}", event.getId(), event.getResourceId(), e);
       }
     }
-
-    // Bulk mark processed ones
-    List<Integer> processedIds = pending.stream()
-        .filter(OutboxEvent::isProcessed)
-        .map(OutboxEvent::getId)
-        .collect(Collectors.toList());
-
     if (!processedIds.isEmpty()) {
       repository.markAsProcessed(processedIds);
-      LOGGER.info("Marked {} events as processed.", processedIds.size());
+    }
+    return new RelayedPage(claimed.size(), processedIds.size(), failed);
+  }
+
+  private void recordPublishLag(OutboxEvent event) {
+    if (Objects.nonNull(event.getCreatedAt())) {
+      Duration lag = Duration.between(event.getCreatedAt(), LocalDateTime.now());
+      publishLagTimer.record(lag.isNegative() ? Duration.ZERO : lag);
     }
   }
 
+  private void refreshBacklog() {
+    backlog.set(repository.countByProcessedFalse());
+    oldestPendingCreatedAt.set(repository.findOldestPendingCreatedAt());
+  }
+
+  private double secondsSince(AtomicReference<LocalDateTime> createdAt) {
+    LocalDateTime oldest = createdAt.get();
+    return Objects.isNull(oldest) ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis()
+        / (double) TimeUnit.SECONDS.toMillis(1);
+  }
+
   private Message<Integer> prepareMessage(Integer resourceId) {
     // Get traceId from MDC (ThreadContext)
     String traceId = ThreadContext.get("traceId");
@@ -76,4 +157,7 @@ public class OutboxProcessorService {
         .setHeader("X-Trace-Id", traceId)
         .build();
   }
+
+  private record RelayedPage(int claimed, int published, int failed) {
+  }
 }
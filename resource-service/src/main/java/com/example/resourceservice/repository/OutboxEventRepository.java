@@ -1,18 +1,27 @@
 package com.example.resourceservice.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.resourceservice.entity.OutboxEvent;
 
 @Repository
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Integer> {
-  // Find all unprocessed events
-  List<OutboxEvent> findByProcessedFalse();
+  // Lock the oldest unprocessed events; rows already locked by another instance are skipped, not waited on
+  @Query(value = "SELECT * FROM outbox_event WHERE processed = FALSE ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<OutboxEvent> claimPendingBatch(@Param("limit") int limit);
+
+  long countByProcessedFalse();
+
+  @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.processed = false")
+  LocalDateTime findOldestPendingCreatedAt();
 
   // Mark specific events as processed
   @Modifying
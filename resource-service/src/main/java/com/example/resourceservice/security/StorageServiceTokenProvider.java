@@ -0,0 +1,173 @@
+package com.example.resourceservice.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Holds the client-credentials access token for storage-metadata-service. Request threads read the cached token; a
+ * background task fetches a new one {@code refresh-before-expiry-seconds} before it expires. Fetches are serialized,
+ * and callers that waited for one reuse its token, so at most one token request is outstanding at a time. A token
+ * counts as expired {@code expiry-skew-seconds} early to cover clock skew and the time a request spends in flight.
+ */
+@Component
+public class StorageServiceTokenProvider {
+
+  private static final Logger LOGGER = LogManager.getLogger(StorageServiceTokenProvider.class);
+  private static final long RETRY_DELAY_SECONDS = 5;
+
+  private final OAuth2AuthorizedClientManager authorizedClientManager;
+  private final OAuth2AuthorizedClientService authorizedClientService;
+  private final String registrationId;
+  private final String principal;
+  private final Duration refreshBeforeExpiry;
+  private final Duration expirySkew;
+  private final Timer fetchTimer;
+  private final Counter scheduledRefreshCounter;
+  private final Counter onDemandRefreshCounter;
+  private final Object fetchLock = new Object();
+  private final ScheduledExecutorService refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "storage-token-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private volatile OAuth2AccessToken accessToken;
+  private ScheduledFuture<?> scheduledRefresh;
+
+  public StorageServiceTokenProvider(OAuth2AuthorizedClientManager authorizedClientManager,
+      OAuth2AuthorizedClientService authorizedClientService,
+      MeterRegistry meterRegistry,
+      @Value("${storage-metadata.token.registration-id:storage-service}") String registrationId,
+      @Value("${storage-metadata.token.principal:storage-client}") String principal,
+      @Value("${storage-metadata.token.refresh-before-expiry-seconds:60}") long refreshBeforeExpirySeconds,
+      @Value("${storage-metadata.token.expiry-skew-seconds:30}") long expirySkewSeconds) {
+    this.authorizedClientManager = authorizedClientManager;
+    this.authorizedClientService = authorizedClientService;
+    this.registrationId = registrationId;
+    this.principal = principal;
+    this.refreshBeforeExpiry = Duration.ofSeconds(refreshBeforeExpirySeconds);
+    this.expirySkew = Duration.ofSeconds(expirySkewSeconds);
+    this.fetchTimer = Timer.builder("storage.token.fetch")
+        .description("Time to obtain an access token for storage-metadata-service")
+        .register(meterRegistry);
+    this.scheduledRefreshCounter = Counter.builder("storage.token.refresh")
+        .description("Access token fetches for storage-metadata-service")
+        .tag("trigger", "scheduled")
+        .register(meterRegistry);
+    this.onDemandRefreshCounter = Counter.builder("storage.token.refresh")
+        .description("Access token fetches for storage-metadata-service")
+        .tag("trigger", "on-demand")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns a token value that is valid for now. Only blocks when there is no usable cached token.
+   */
+  public String getAccessToken() {
+    OAuth2AccessToken current = accessToken;
+    if (isUsable(current)) {
+      return current.getTokenValue();
+    }
+    synchronized (fetchLock) {
+      // Another caller may have fetched a token while this one waited for the lock
+      current = accessToken;
+      if (isUsable(current)) {
+        return current.getTokenValue();
+      }
+      return fetch(onDemandRefreshCounter).getTokenValue();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refreshScheduler.shutdownNow();
+  }
+
+  private void scheduledFetch() {
+    synchronized (fetchLock) {
+      try {
+        fetch(scheduledRefreshCounter);
+      } catch (RuntimeException e) {
+        // Already logged, and fetch() has scheduled the retry
+      }
+    }
+  }
+
+  // Callers hold fetchLock
+  private OAuth2AccessToken fetch(Counter trigger) {
+    trigger.increment();
+    try {
+      OAuth2AccessToken token = fetchTimer.recordCallable(this::requestNewToken);
+      accessToken = token;
+      scheduleRefresh(token);
+      return token;
+    } catch (Exception e) {
+      LOGGER.warn("Failed to obtain access token for {}: {}", registrationId, e.getMessage());
+      scheduleRetry();
+      throw e instanceof RuntimeException runtimeException ? runtimeException
+          : new IllegalStateException("Failed to obtain access token for " + registrationId, e);
+    }
+  }
+
+  private OAuth2AccessToken requestNewToken() {
+    // Drop the stored client so the manager goes to the token endpoint instead of returning the token we replace.
+    authorizedClientService.removeAuthorizedClient(registrationId, principal);
+    OAuth2AuthorizedClient authorizedClient = authorizedClientManager.authorize(OAuth2AuthorizeRequest
+        .withClientRegistrationId(registrationId)
+        .principal(principal)
+        .build());
+    if (Objects.isNull(authorizedClient) || Objects.isNull(authorizedClient.getAccessToken())) {
+      throw new IllegalStateException("No access token returned for client registration " + registrationId);
+    }
+    LOGGER.debug("Obtained access token for {} expiring at {}", registrationId,
+        authorizedClient.getAccessToken().getExpiresAt());
+    return authorizedClient.getAccessToken();
+  }
+
+  private void scheduleRefresh(OAuth2AccessToken token) {
+    if (Objects.isNull(token.getExpiresAt())) {
+      return;
+    }
+    long delayMillis = Duration.between(Instant.now(), token.getExpiresAt().minus(refreshBeforeExpiry)).toMillis();
+    schedule(Math.max(delayMillis, TimeUnit.SECONDS.toMillis(1)));
+  }
+
+  private void scheduleRetry() {
+    schedule(TimeUnit.SECONDS.toMillis(RETRY_DELAY_SECONDS));
+  }
+
+  private synchronized void schedule(long delayMillis) {
+    if (refreshScheduler.isShutdown()) {
+      return;
+    }
+    // Only one pending refresh: a token fetched on demand supersedes whatever was scheduled for the old one.
+    if (Objects.nonNull(scheduledRefresh)) {
+      scheduledRefresh.cancel(false);
+    }
+    scheduledRefresh = refreshScheduler.schedule(this::scheduledFetch, delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private boolean isUsable(OAuth2AccessToken token) {
+    return Objects.nonNull(token)
+        && (Objects.isNull(token.getExpiresAt()) || Instant.now().isBefore(token.getExpiresAt().minus(expirySkew)));
+  }
+}
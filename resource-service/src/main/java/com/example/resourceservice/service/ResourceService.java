@@ -8,28 +8,41 @@ import static com.example.resourceservice.constants.Constants.DATABASE_ERROR_MES
 import static com.example.resourceservice.constants.Constants.INTERNAL_SERVER_ERROR_RESPONSE_CODE;
 import static com.example.resourceservice.constants.Constants.NOT_FOUND_REQUEST_RESPONSE_CODE;
 import static com.example.resourceservice.constants.Constants.NOT_FOUNT_RESOURCE_ERROR_MESSAGE;
+import static com.example.resourceservice.constants.Constants.RANGE_NOT_SATISFIABLE_ERROR_MESSAGE;
+import static com.example.resourceservice.constants.Constants.RANGE_NOT_SATISFIABLE_RESPONSE_CODE;
 import static com.example.resourceservice.constants.Constants.SERVICE_UNAVAILABLE_RESPONSE_CODE;
 import static com.example.resourceservice.constants.Constants.STORAGE_ERROR_MESSAGE;
 
+import java.io.InputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.http.HttpRange;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.resourceservice.cache.AudioFileCache;
+import com.example.resourceservice.cache.AudioFileCache.CachedAudioFile;
 import com.example.resourceservice.client.SongServiceClient;
 import com.example.resourceservice.client.StorageMetadataServiceClient;
 import com.example.resourceservice.entity.OutboxEvent;
@@ -37,10 +50,12 @@ import com.example.resourceservice.entity.ResourceEntity;
 import com.example.resourceservice.exception.DatabaseException;
 import com.example.resourceservice.exception.InvalidDataException;
 import com.example.resourceservice.exception.NotFoundException;
+import com.example.resourceservice.exception.RangeNotSatisfiableException;
 import com.example.resourceservice.exception.SongClientException;
 import com.example.resourceservice.exception.StorageException;
 import com.example.resourceservice.exception.StreamBridgeException;
 import com.example.resourceservice.messaging.producer.CreateResourceMetadataPublisher;
+import com.example.resourceservice.model.ResourceContent;
 import com.example.resourceservice.model.requestMetadata.RequestMetadata;
 import com.example.resourceservice.model.storagemetadata.StorageMetadataResponse;
 import com.example.resourceservice.model.storagemetadata.StorageType;
@@ -48,7 +63,7 @@ import com.example.resourceservice.repository.OutboxEventRepository;
 import com.example.resourceservice.repository.ResourceRepository;
 import com.example.resourceservice.util.DataPreparerService;
 
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 @Service
@@ -63,6 +78,7 @@ public class ResourceService {
   private final String permanentBucketName;
   private final String stagingBucketName;
   private final OutboxEventRepository outboxEventRepository;
+  private final AudioFileCache audioFileCache;
 
   public ResourceService(ResourceRepository repository,
       StorageService storageService,
@@ -71,7 +87,8 @@ public class ResourceService {
       StorageMetadataServiceClient storageMetadataServiceClient,
       @Value("${s3.permanent-bucket-name}") String permanentBucketName,
       @Value("${s3.staging-bucket-name}") String stagingBucketName,
-      OutboxEventRepository outboxEventRepository) {
+      OutboxEventRepository outboxEventRepository,
+      AudioFileCache audioFileCache) {
     this.repository = repository;
     this.storageService = storageService;
     this.dataPreparerService = dataPreparerService;
@@ -80,15 +97,16 @@ public class ResourceService {
     this.permanentBucketName = permanentBucketName;
     this.stagingBucketName = stagingBucketName;
     this.outboxEventRepository = outboxEventRepository;
+    this.audioFileCache = audioFileCache;
   }
 
   @Transactional
-  public ResourceEntity uploadResource(byte[] fileBytes, RequestMetadata requestMetadata) {
+  public ResourceEntity uploadResource(InputStream audioStream, long contentLength, RequestMetadata requestMetadata) {
     String s3Key = "resources/" + UUID.randomUUID() + ".mp3";
     StorageMetadataResponse storageMetadata = retrieveStorageMetadata(StorageType.STAGING, requestMetadata);
     if (Objects.nonNull(storageMetadata)) {
       try {
-        storageService.addFileBytesToStorage(s3Key, fileBytes, storageMetadata.getBucket());
+        storageService.addFileStreamToStorage(s3Key, audioStream, contentLength, storageMetadata.getBucket());
       } catch (Exception e) {
         throw new StorageException(
             dataPreparerService.prepareErrorResponse(STORAGE_ERROR_MESSAGE, SERVICE_UNAVAILABLE_RESPONSE_CODE));
@@ -142,87 +160,74 @@ public class ResourceService {
         dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
   }
 
-  public byte[] getFileAsBytes(final Integer id) {
+  /**
+   * Opens the stored file for streaming. With a {@code Range} header only that byte range is fetched from S3, and the
+   * returned content carries the {@code Content-Range} to answer with 206. Files held in the local disk cache are served
+   * from there; full downloads from S3 fill the cache on the way through.
+   */
+  public ResourceContent getResourceContent(final Integer id, final String rangeHeader) {
     validateResourceId(id);
-    Optional<ResourceEntity> resourceOpt;
-    try {
-      resourceOpt = this.repository.findById(id);
-    } catch (Exception e) {
-      throw new DatabaseException(
-          dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
+    final String range = validateRange(rangeHeader);
+    final ResourceEntity resource = findStoredResource(id);
+    Optional<CachedAudioFile> cachedFile = audioFileCache.get(resource.getS3Key());
+    if (cachedFile.isPresent()) {
+      ResourceContent cachedContent = openCachedContent(resource.getS3Key(), cachedFile.get(), range);
+      if (Objects.nonNull(cachedContent)) {
+        return cachedContent;
+      }
     }
-    if (resourceOpt.isPresent() && Objects.isNull(resourceOpt.get()) || Objects.isNull(resourceOpt.get().getS3Key())) {
+    StorageMetadataResponse storageMetadata = retrieveStorageMetadata(
+        resource.getFileName().contains(stagingBucketName) ? StorageType.STAGING : StorageType.PERMANENT, null);
+    if (Objects.isNull(storageMetadata)) {
       throw new NotFoundException(
           dataPreparerService.prepareErrorResponse(String.format(NOT_FOUNT_RESOURCE_ERROR_MESSAGE, id),
               NOT_FOUND_REQUEST_RESPONSE_CODE));
     }
+    ResponseInputStream<GetObjectResponse> objectStream;
     try {
-      StorageMetadataResponse storageMetadata = retrieveStorageMetadata(
-          resourceOpt.get().getFileName().contains(stagingBucketName) ? StorageType.STAGING : StorageType.PERMANENT, null);
-      if (Objects.nonNull(storageMetadata)) {
-        ResponseBytes<GetObjectResponse> objectBytes = storageService.retrieveFileFromStorage(
-            resourceOpt.get().getS3Key(), storageMetadata.getBucket());
-        if (Objects.isNull(objectBytes)) {
-          throw new NotFoundException(
-              dataPreparerService.prepareErrorResponse(String.format(NOT_FOUNT_RESOURCE_ERROR_MESSAGE, id),
-                  NOT_FOUND_REQUEST_RESPONSE_CODE));
-        }
-        return objectBytes.asByteArray();
-      }
-      throw new NotFoundException(
-          dataPreparerService.prepareErrorResponse(String.format(NOT_FOUNT_RESOURCE_ERROR_MESSAGE, id),
-              NOT_FOUND_REQUEST_RESPONSE_CODE));
+      objectStream = storageService.retrieveFileStreamFromStorage(resource.getS3Key(), storageMetadata.getBucket(),
+          range);
+    } catch (RangeNotSatisfiableException e) {
+      throw e;
     } catch (Exception e) {
       throw new StorageException(
           dataPreparerService.prepareErrorResponse(STORAGE_ERROR_MESSAGE, SERVICE_UNAVAILABLE_RESPONSE_CODE));
     }
+    GetObjectResponse objectResponse = objectStream.response();
+    if (Objects.nonNull(range)) {
+      return new ResourceContent(objectStream, objectResponse.contentLength(), objectResponse.contentRange());
+    }
+    return new ResourceContent(
+        audioFileCache.readThrough(resource.getS3Key(), objectStream, objectResponse.contentLength()),
+        objectResponse.contentLength(), null);
   }
 
+  /**
+   * Loads all requested resources in one query, removes their objects with batched DeleteObjects calls per bucket and
+   * then drops the song metadata and resource rows in bulk. Nothing is downloaded up front: when the metadata or
+   * database step fails, the objects are brought back by removing the delete markers S3 versioning left behind.
+   */
   @Transactional
   public Map<String, List<Integer>> deleteResourceByIds(final String id) {
     validateResourceIds(id);
-    String[] ids = (id != null && !id.isBlank()) ? id.split(",") : new String[]{};
-    List<Integer> removedIds = new LinkedList<>();
-    for (String param : ids) {
-      Integer resourceId = Integer.valueOf(param);
-      Optional<ResourceEntity> resourceOpt = repository.findById(resourceId);
-      if (resourceOpt.isPresent()) {
-        ResourceEntity resource = resourceOpt.get();
-        final String s3Key = resource.getS3Key();
-        byte[] fileBytes = getFileAsBytes(resourceId);
-        String bucketName = permanentBucketName;
-        StorageMetadataResponse storageMetadata = retrieveStorageMetadata(
-            resource.getFileName().contains(stagingBucketName) ? StorageType.STAGING : StorageType.PERMANENT, null);
-        if (Objects.nonNull(storageMetadata)) {
-          bucketName = storageMetadata.getBucket();
-        }
-        try {
-          this.storageService.deleteResourceFromStorage(s3Key, bucketName);
-          this.deleteResourceWithMetadata(resourceId);
-          removedIds.add(resourceId);
-        } catch (StorageException e) {
-          throw new StorageException(
-              dataPreparerService.prepareErrorResponse(STORAGE_ERROR_MESSAGE, SERVICE_UNAVAILABLE_RESPONSE_CODE));
-        } catch (SongClientException songClientException) {
-          try {
-            storageService.recoverDeletedFileToStorage(s3Key, fileBytes, bucketName);
-          } catch (StorageException e1) {
-            LOGGER.error("Failed to recover deleted file bytes in storage for resource ID={}", resourceId, e1);
-          }
-          throw new SongClientException(
-              dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, SERVICE_UNAVAILABLE_RESPONSE_CODE));
-        } catch (DatabaseException e) {
-          try {
-            storageService.recoverDeletedFileToStorage(s3Key, fileBytes, bucketName);
-          } catch (StorageException e1) {
-            LOGGER.error("Failed to recover deleted file bytes in storage for resource ID={}", resourceId, e1);
-          }
-          throw new DatabaseException(
-              dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
-        } catch (Exception e) {
-          LOGGER.error("Unexpected error occurred while deleting resource for resource ID={}. Error: {}", resourceId,
-              e.getMessage(), e);
-        }
+    Set<Integer> requestedIds = new LinkedHashSet<>();
+    for (String param : (id != null && !id.isBlank()) ? id.split(",") : new String[]{}) {
+      requestedIds.add(Integer.valueOf(param));
+    }
+    Map<Integer, ResourceEntity> resources = findResources(requestedIds);
+    List<Integer> removedIds = requestedIds.stream().filter(resources::containsKey).toList();
+    if (!removedIds.isEmpty()) {
+      Map<String, Map<String, String>> deleteMarkersByBucket = deleteFromStorage(resources.values());
+      try {
+        deleteResourcesWithMetadata(removedIds);
+      } catch (SongClientException songClientException) {
+        restoreDeletedFiles(deleteMarkersByBucket);
+        throw new SongClientException(
+            dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, SERVICE_UNAVAILABLE_RESPONSE_CODE));
+      } catch (DatabaseException e) {
+        restoreDeletedFiles(deleteMarkersByBucket);
+        throw new DatabaseException(
+            dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
       }
     }
     final Map<String, List<Integer>> responseObject = new HashMap<>();
@@ -230,15 +235,12 @@ public class ResourceService {
     return responseObject;
   }
 
-  @Retryable(
-      value = Exception.class,
-      maxAttempts = 3,
-      backoff = @Backoff(delay = 1000, multiplier = 2)
-  )
-  public void deleteResourceWithMetadata(Integer resourceId) {
+  // Not retried here: SongServiceClient retries its own call, and a failed bulk delete has already marked the
+  // surrounding transaction rollback-only
+  private void deleteResourcesWithMetadata(List<Integer> resourceIds) {
     try {
-      songServiceClient.deleteResourceMetadataByResourceId(resourceId);
-      repository.deleteById(resourceId);
+      songServiceClient.deleteResourceMetadataByResourceIds(resourceIds);
+      repository.deleteAllByIdInBatch(resourceIds);
     } catch (SongClientException songClientException) {
       LOGGER.error(songClientException.getMessage(), songClientException);
       throw new SongClientException(
@@ -250,13 +252,6 @@ public class ResourceService {
     }
   }
 
-  @Recover
-  public void recoverDeleteResource(Exception e, Integer resourceId) {
-    LOGGER.error("Failed to delete resource with ID={} after retries. Error: {}", resourceId, e.getMessage(), e);
-    throw new DatabaseException(
-        dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
-  }
-
   public boolean existById(final Integer id) {
     return this.repository.existsById(id);
   }
@@ -316,6 +311,64 @@ public class ResourceService {
     }
   }
 
+  private String validateRange(String rangeHeader) {
+    if (Objects.isNull(rangeHeader) || rangeHeader.isBlank()) {
+      return null;
+    }
+    try {
+      if (HttpRange.parseRanges(rangeHeader).size() == 1) {
+        return rangeHeader.trim();
+      }
+    } catch (IllegalArgumentException e) {
+      LOGGER.debug("Malformed Range header '{}'", rangeHeader);
+    }
+    throw new RangeNotSatisfiableException(
+        dataPreparerService.prepareErrorResponse(String.format(RANGE_NOT_SATISFIABLE_ERROR_MESSAGE, rangeHeader),
+            RANGE_NOT_SATISFIABLE_RESPONSE_CODE), null);
+  }
+
+  private ResourceContent openCachedContent(String s3Key, CachedAudioFile cachedFile, String range) {
+    long start = 0;
+    long end = cachedFile.size() - 1;
+    String contentRange = null;
+    if (Objects.nonNull(range)) {
+      try {
+        HttpRange httpRange = HttpRange.parseRanges(range).get(0);
+        start = httpRange.getRangeStart(cachedFile.size());
+        end = httpRange.getRangeEnd(cachedFile.size());
+      } catch (IllegalArgumentException e) {
+        throw new RangeNotSatisfiableException(
+            dataPreparerService.prepareErrorResponse(String.format(RANGE_NOT_SATISFIABLE_ERROR_MESSAGE, range),
+                RANGE_NOT_SATISFIABLE_RESPONSE_CODE), cachedFile.size());
+      }
+      contentRange = "bytes " + start + "-" + end + "/" + cachedFile.size();
+    }
+    long length = end - start + 1;
+    try {
+      ResourceContent content = new ResourceContent(cachedFile.openStream(start, length), length, contentRange);
+      audioFileCache.recordServedBytes(length);
+      return content;
+    } catch (IOException e) {
+      LOGGER.warn("Failed to open cached file for s3Key={}, falling back to S3", s3Key, e);
+      audioFileCache.invalidate(s3Key);
+      return null;
+    }
+  }
+
+  private ResourceEntity findStoredResource(Integer id) {
+    Optional<ResourceEntity> resourceOpt;
+    try {
+      resourceOpt = this.repository.findById(id);
+    } catch (Exception e) {
+      throw new DatabaseException(
+          dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
+    }
+    return resourceOpt.filter(resource -> Objects.nonNull(resource.getS3Key()))
+        .orElseThrow(() -> new NotFoundException(
+            dataPreparerService.prepareErrorResponse(String.format(NOT_FOUNT_RESOURCE_ERROR_MESSAGE, id),
+                NOT_FOUND_REQUEST_RESPONSE_CODE)));
+  }
+
   private ResourceEntity prepareResource(String s3Key, String fileName) {
     ResourceEntity resource = new ResourceEntity();
     resource.setS3Key(s3Key);
@@ -324,6 +377,55 @@ public class ResourceService {
     return resource;
   }
 
+  private Map<Integer, ResourceEntity> findResources(Set<Integer> ids) {
+    try {
+      return repository.findAllById(ids).stream()
+          .collect(Collectors.toMap(ResourceEntity::getId, Function.identity()));
+    } catch (Exception e) {
+      throw new DatabaseException(
+          dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
+    }
+  }
+
+  /**
+   * Returns the delete markers per bucket. A failing bucket has already rolled itself back in StorageService; the
+   * buckets removed before it are restored here.
+   */
+  private Map<String, Map<String, String>> deleteFromStorage(Collection<ResourceEntity> resources) {
+    Map<StorageType, String> bucketNames = new EnumMap<>(StorageType.class);
+    Map<String, List<String>> s3KeysByBucket = new HashMap<>();
+    for (ResourceEntity resource : resources) {
+      StorageType storageType =
+          resource.getFileName().contains(stagingBucketName) ? StorageType.STAGING : StorageType.PERMANENT;
+      String bucketName = bucketNames.computeIfAbsent(storageType, type -> {
+        StorageMetadataResponse storageMetadata = retrieveStorageMetadata(type, null);
+        return Objects.nonNull(storageMetadata) ? storageMetadata.getBucket() : permanentBucketName;
+      });
+      s3KeysByBucket.computeIfAbsent(bucketName, bucket -> new ArrayList<>()).add(resource.getS3Key());
+    }
+    Map<String, Map<String, String>> deleteMarkersByBucket = new HashMap<>();
+    try {
+      s3KeysByBucket.forEach((bucketName, s3Keys) ->
+          deleteMarkersByBucket.put(bucketName, storageService.deleteResourcesFromStorage(s3Keys, bucketName)));
+    } catch (StorageException e) {
+      restoreDeletedFiles(deleteMarkersByBucket);
+      throw new StorageException(
+          dataPreparerService.prepareErrorResponse(STORAGE_ERROR_MESSAGE, SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    }
+    resources.forEach(resource -> audioFileCache.invalidate(resource.getS3Key()));
+    return deleteMarkersByBucket;
+  }
+
+  private void restoreDeletedFiles(Map<String, Map<String, String>> deleteMarkersByBucket) {
+    deleteMarkersByBucket.forEach((bucketName, deleteMarkers) -> {
+      try {
+        storageService.restoreDeletedResources(deleteMarkers, bucketName);
+      } catch (StorageException e) {
+        LOGGER.error("Failed to restore deleted files {} in bucket {}", deleteMarkers.keySet(), bucketName, e);
+      }
+    });
+  }
+
   private StorageMetadataResponse retrieveStorageMetadata(StorageType storageType, RequestMetadata requestMetadata) {
     return storageMetadataServiceClient.getStoragesWithStorageServiceCB(requestMetadata).stream()
         .filter(storageMetadataResponse -> storageMetadataResponse.getStorageType() == storageType)
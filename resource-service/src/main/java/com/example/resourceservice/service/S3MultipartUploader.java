@@ -0,0 +1,298 @@
+package com.example.resourceservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+/**
+ * Uploads large objects to S3 as a multipart upload. The source stream is cut into parts of {@code s3.multipart.part-size}
+ * bytes which are sent in parallel on a shared bounded executor; a per-upload semaphore caps how many parts may be held
+ * in memory at once. A failed part is retried on its own, and if a part still fails the whole multipart upload is
+ * aborted so no orphaned parts are left behind in the bucket.
+ * <p>
+ * Also copies objects between buckets server-side, splitting large objects into parallel {@code UploadPartCopy}
+ * ranges so that no object bytes pass through this service.
+ */
+@Component
+public class S3MultipartUploader {
+
+    private static final Logger LOGGER = LogManager.getLogger(S3MultipartUploader.class);
+    /** S3 rejects non-final parts smaller than 5 MiB. */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final Retry partUploadRetry;
+    private final long thresholdBytes;
+    private final int partSize;
+    private final int maxPartsInFlight;
+    private final long copyThresholdBytes;
+    private final long copyPartSize;
+    private final ExecutorService partUploadExecutor;
+    private final Timer uploadTimer;
+    private final Counter partCounter;
+    private final Counter abortCounter;
+    private final Timer copyTimer;
+
+    public S3MultipartUploader(S3Client s3Client,
+            @Qualifier("s3PartUploadRetry") Retry partUploadRetry,
+            MeterRegistry meterRegistry,
+            @Value("${s3.multipart.threshold-bytes:16777216}") long thresholdBytes,
+            @Value("${s3.multipart.part-size-bytes:8388608}") int partSize,
+            @Value("${s3.multipart.max-parts-in-flight:4}") int maxPartsInFlight,
+            @Value("${s3.multipart.executor-threads:8}") int executorThreads,
+            @Value("${s3.multipart.executor-queue-capacity:64}") int executorQueueCapacity,
+            @Value("${s3.multipart.copy-threshold-bytes:104857600}") long copyThresholdBytes,
+            @Value("${s3.multipart.copy-part-size-bytes:67108864}") long copyPartSize) {
+        this.s3Client = s3Client;
+        this.partUploadRetry = partUploadRetry;
+        this.thresholdBytes = thresholdBytes;
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+        this.maxPartsInFlight = Math.max(maxPartsInFlight, 1);
+        this.copyThresholdBytes = copyThresholdBytes;
+        this.copyPartSize = Math.max(copyPartSize, MIN_PART_SIZE);
+        this.partUploadExecutor = createPartUploadExecutor(executorThreads, executorQueueCapacity);
+        this.uploadTimer = Timer.builder("resource.upload.multipart.duration")
+                .description("Time to upload an object through S3 multipart upload")
+                .register(meterRegistry);
+        this.partCounter = Counter.builder("resource.upload.multipart.parts")
+                .description("Number of multipart upload parts sent to S3")
+                .register(meterRegistry);
+        this.abortCounter = Counter.builder("resource.upload.multipart.aborted")
+                .description("Number of multipart uploads aborted after a part failed")
+                .register(meterRegistry);
+        this.copyTimer = Timer.builder("resource.copy.multipart.duration")
+                .description("Time to copy an object between buckets through UploadPartCopy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether an upload of the given length should go through multipart. Unknown lengths (negative) always do, since
+     * the parts let us stream the body without knowing its total size.
+     */
+    public boolean shouldUseMultipart(long contentLength) {
+        return contentLength < 0 || contentLength >= thresholdBytes;
+    }
+
+    /**
+     * Uploads the stream and returns the peak number of part bytes held in memory at once.
+     */
+    public long upload(String s3Key, InputStream fileStream, String bucketName) throws IOException {
+        byte[] firstPart = fileStream.readNBytes(partSize);
+        if (firstPart.length < partSize) {
+            // Whole body fits into one part, a plain PUT is cheaper than create/upload/complete.
+            s3Client.putObject(PutObjectRequest.builder().bucket(bucketName).key(s3Key).build(),
+                    RequestBody.fromBytes(firstPart));
+            return firstPart.length;
+        }
+        Timer.Sample sample = Timer.start();
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(s3Key)
+                .build()).uploadId();
+        Semaphore partPermits = new Semaphore(maxPartsInFlight);
+        AtomicLong bufferedBytes = new AtomicLong();
+        AtomicLong peakBufferedBytes = new AtomicLong();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            byte[] partBytes = firstPart;
+            while (partBytes.length > 0) {
+                // The part just read is held while waiting for a permit, so it counts from here
+                peakBufferedBytes.accumulateAndGet(bufferedBytes.addAndGet(partBytes.length), Math::max);
+                partPermits.acquire();
+                parts.add(submitPart(s3Key, bucketName, uploadId, partNumber++, partBytes, partPermits, bufferedBytes));
+                failFastOnFailedPart(parts);
+                partBytes = fileStream.readNBytes(partSize);
+            }
+            completeUpload(s3Key, bucketName, uploadId, parts);
+            sample.stop(uploadTimer);
+            return peakBufferedBytes.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(s3Key, bucketName, uploadId, parts);
+            throw new IOException("Interrupted while uploading multipart object " + s3Key, e);
+        } catch (CompletionException e) {
+            abort(s3Key, bucketName, uploadId, parts);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } catch (IOException | RuntimeException e) {
+            abort(s3Key, bucketName, uploadId, parts);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies {@code s3Key} from the source bucket to the same key in the target bucket and returns the object size.
+     * Objects below the copy threshold take a single CopyObject call; larger ones are copied part by part.
+     */
+    public long copy(String s3Key, String sourceBucket, String targetBucket) {
+        long objectSize = s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(sourceBucket)
+                .key(s3Key)
+                .build()).contentLength();
+        if (objectSize < copyThresholdBytes) {
+            s3Client.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(sourceBucket)
+                    .sourceKey(s3Key)
+                    .destinationBucket(targetBucket)
+                    .destinationKey(s3Key)
+                    .build());
+            return objectSize;
+        }
+        Timer.Sample sample = Timer.start();
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(targetBucket)
+                .key(s3Key)
+                .build()).uploadId();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < objectSize; offset += copyPartSize) {
+                long lastByte = Math.min(offset + copyPartSize, objectSize) - 1;
+                parts.add(submitPartCopy(s3Key, sourceBucket, targetBucket, uploadId, partNumber++,
+                        "bytes=" + offset + "-" + lastByte));
+            }
+            completeUpload(s3Key, targetBucket, uploadId, parts);
+            sample.stop(copyTimer);
+            return objectSize;
+        } catch (CompletionException e) {
+            abort(s3Key, targetBucket, uploadId, parts);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } catch (RuntimeException e) {
+            abort(s3Key, targetBucket, uploadId, parts);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partUploadExecutor.shutdown();
+    }
+
+    private CompletableFuture<CompletedPart> submitPart(String s3Key, String bucketName, String uploadId,
+            int partNumber, byte[] partBytes, Semaphore partPermits, AtomicLong bufferedBytes) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(s3Key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) partBytes.length)
+                .build();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                UploadPartResponse response = Retry.decorateSupplier(partUploadRetry,
+                        () -> s3Client.uploadPart(request, RequestBody.fromBytes(partBytes))).get();
+                partCounter.increment();
+                return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+            } finally {
+                bufferedBytes.addAndGet(-partBytes.length);
+                partPermits.release();
+            }
+        }, partUploadExecutor);
+    }
+
+    private CompletableFuture<CompletedPart> submitPartCopy(String s3Key, String sourceBucket, String targetBucket,
+            String uploadId, int partNumber, String sourceRange) {
+        UploadPartCopyRequest request = UploadPartCopyRequest.builder()
+                .sourceBucket(sourceBucket)
+                .sourceKey(s3Key)
+                .destinationBucket(targetBucket)
+                .destinationKey(s3Key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .copySourceRange(sourceRange)
+                .build();
+        return CompletableFuture.supplyAsync(() -> {
+            String eTag = Retry.decorateSupplier(partUploadRetry,
+                    () -> s3Client.uploadPartCopy(request)).get().copyPartResult().eTag();
+            return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+        }, partUploadExecutor);
+    }
+
+    private void completeUpload(String s3Key, String bucketName, String uploadId,
+            List<CompletableFuture<CompletedPart>> parts) {
+        List<CompletedPart> completedParts = CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> parts.stream()
+                        .map(CompletableFuture::join)
+                        .sorted(Comparator.comparing(CompletedPart::partNumber))
+                        .toList())
+                .join();
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(s3Key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build());
+    }
+
+    private void failFastOnFailedPart(List<CompletableFuture<CompletedPart>> parts) {
+        parts.stream()
+                .filter(CompletableFuture::isCompletedExceptionally)
+                .findFirst()
+                .ifPresent(CompletableFuture::join);
+    }
+
+    private void abort(String s3Key, String bucketName, String uploadId,
+            List<CompletableFuture<CompletedPart>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        abortCounter.increment();
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (Exception e) {
+            LOGGER.error("Failed to abort multipart upload {} for s3Key={}", uploadId, s3Key, e);
+        }
+    }
+
+    private static ExecutorService createPartUploadExecutor(int threads, int queueCapacity) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Caller-runs keeps a saturated pool from rejecting parts; the uploading thread simply sends the part itself.
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "s3-part-upload-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -1,29 +1,49 @@
 package com.example.resourceservice.service;
 
+import static com.example.resourceservice.constants.Constants.RANGE_NOT_SATISFIABLE_ERROR_MESSAGE;
+import static com.example.resourceservice.constants.Constants.RANGE_NOT_SATISFIABLE_RESPONSE_CODE;
 import static com.example.resourceservice.constants.Constants.SERVICE_UNAVAILABLE_RESPONSE_CODE;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
 
+import com.example.resourceservice.exception.RangeNotSatisfiableException;
 import com.example.resourceservice.exception.StorageException;
 import com.example.resourceservice.model.storagemetadata.StorageMetadataResponse;
 import com.example.resourceservice.util.DataPreparerService;
+import com.example.resourceservice.util.UploadBufferTrackingInputStream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
@@ -33,11 +53,23 @@ public class StorageService {
     private static final String STORAGE_RETRIEVAL_ERROR_MESSAGE = "Failed to retrieve file from S3 for s3Key: %s";
     private static final String STORAGE_RECOVERY_ERROR_MESSAGE = "Failed to recover file to S3 for s3Key: %s";
     private static final String STORAGE_REMOVAL_ERROR_MESSAGE = "Failed to delete file from S3 for s3Key: %s";
+    private static final String STORAGE_COPY_ERROR_MESSAGE = "Failed to copy file between S3 buckets for s3Key: %s";
+    // DeleteObjects accepts at most 1000 keys per request
+    private static final int DELETE_OBJECTS_MAX_KEYS = 1000;
+    private static final Logger LOGGER = LogManager.getLogger(StorageService.class);
 
     @Autowired
     private S3Client s3Client;
     @Autowired
     private DataPreparerService dataPreparerService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private S3MultipartUploader multipartUploader;
+    // The proxied bean; calls on this go through @Retryable, calls on this instance do not
+    @Lazy
+    @Autowired
+    private StorageService self;
     @Value("${s3.permanent-bucket-name}")
     private String permanentBucketName;
     @Value("${s3.staging-bucket-name}")
@@ -45,55 +77,66 @@ public class StorageService {
     @Value("${s3.endpoint}")
     private String s3Endpoint;
 
-    @Retryable(
-            retryFor = {AwsServiceException.class, SdkClientException.class, S3Exception.class},
-            noRetryFor = {
-                    HttpClientErrorException.BadRequest.class,
-                    HttpClientErrorException.Conflict.class,
-                    HttpClientErrorException.NotFound.class
-            },
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public void addFileBytesToStorage(String s3Key, byte[] fileBytes, String bucketName) {
-        try{
-            s3Client.putObject(preparePutRequestData(s3Key, bucketName), RequestBody.fromBytes(fileBytes));
-        }catch (Exception e){
+    /**
+     * Streams an upload body to S3 without holding the whole file on the heap. Bodies of a known length below the
+     * multipart threshold are piped straight into a single PUT; larger bodies, and bodies of unknown length, go through
+     * {@link S3MultipartUploader} so a failure only resends the affected part. Not retried here: a consumed request
+     * stream cannot be replayed.
+     */
+    public void addFileStreamToStorage(String s3Key, InputStream fileStream, long contentLength, String bucketName) {
+        UploadBufferTrackingInputStream trackedStream = new UploadBufferTrackingInputStream(fileStream);
+        try {
+            if (multipartUploader.shouldUseMultipart(contentLength)) {
+                recordMultipartBuffering(multipartUploader.upload(s3Key, trackedStream, bucketName));
+            } else {
+                s3Client.putObject(preparePutRequestData(s3Key, bucketName, contentLength),
+                        RequestBody.fromInputStream(trackedStream, contentLength));
+            }
+        } catch (Exception e) {
             throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_PERSISTENCE_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+        } finally {
+            recordUploadReads(trackedStream);
         }
     }
 
-    @Recover
-    public void addFileBytesToStorageFallback(Exception e, String s3Key, InputStream fileStream) {
-        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_PERSISTENCE_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
-    }
-
-    @Recover
-    public void addFileBytesToStorageFallback(Exception e, String s3Key, byte[] fileBytes) {
-        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RETRIEVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    /**
+     * Opens the object, or the given {@code Range} of it, as a stream so the body can be copied to the client without
+     * being materialised. The caller must close the returned stream.
+     */
+    public ResponseInputStream<GetObjectResponse> retrieveFileStreamFromStorage(String s3Key, String bucketName, String range) {
+        try {
+            return s3Client.getObject(prepareGetRequestData(s3Key, bucketName, range));
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                throw new RangeNotSatisfiableException(dataPreparerService.prepareErrorResponse(String.format(RANGE_NOT_SATISFIABLE_ERROR_MESSAGE, range), RANGE_NOT_SATISFIABLE_RESPONSE_CODE), retrieveObjectLength(s3Key, bucketName));
+            }
+            throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RETRIEVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+        } catch (Exception e) {
+            throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RETRIEVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+        }
     }
 
+    /**
+     * Copies the object to the target bucket inside S3 (CopyObject, or UploadPartCopy for large objects), so promotion
+     * does not download or re-upload the file. The source object is left in place for the caller to remove.
+     */
     @Retryable(
             retryFor = {AwsServiceException.class, SdkClientException.class, S3Exception.class},
-            noRetryFor = {
-                    HttpClientErrorException.BadRequest.class,
-                    HttpClientErrorException.Conflict.class,
-                    HttpClientErrorException.NotFound.class
-            },
             maxAttempts = 3,
             backoff = @Backoff(delay = 1000, multiplier = 2)
     )
-    public ResponseBytes<GetObjectResponse> retrieveFileFromStorage(String s3Key, String bucketName) {
-        try{
-            return s3Client.getObjectAsBytes(prepareGetRequestData(s3Key, bucketName));
-        }catch (Exception e){
-            throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RETRIEVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    public void copyFileBetweenStorages(String s3Key, String sourceBucketName, String targetBucketName) {
+        try {
+            long objectSize = multipartUploader.copy(s3Key, sourceBucketName, targetBucketName);
+            recordPromotion(objectSize);
+        } catch (Exception e) {
+            throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_COPY_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
         }
     }
 
     @Recover
-    public ResponseBytes<GetObjectResponse> retrieveFileFromStorageFallback(Exception e, String s3Key, String bucketName) {
-        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RETRIEVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    public void copyFileBetweenStoragesFallback(Exception e, String s3Key, String sourceBucketName, String targetBucketName) {
+        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_COPY_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
     }
 
     @Retryable(
@@ -101,35 +144,83 @@ public class StorageService {
             maxAttempts = 3,
             backoff = @Backoff(delay = 1000, multiplier = 2)
     )
-    public void recoverDeletedFileToStorage(String s3Key, byte[] fileBytes, String bucketName) {
-        try{
-            s3Client.putObject(preparePutRequestData(s3Key, bucketName), RequestBody.fromBytes(fileBytes));
-        }catch (Exception e){
-            throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RECOVERY_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    public void deleteResourceFromStorage(String s3Key, String bucketName) {
+        try {
+            s3Client.deleteObject(prepareDeleteRequestData(s3Key, bucketName));
+        } catch (Exception e) {
+            throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_REMOVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
         }
     }
 
     @Recover
-    public void recoverDeletedFileToStorageFallback(Exception e, String s3Key, byte[] fileBytes, String bucketName) {
-        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RECOVERY_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    public void deleteResourceFromStorageFallback(Exception e, String s3Key, String bucketName) {
+        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_REMOVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    }
+
+    /**
+     * Removes the objects with DeleteObjects, up to 1000 keys per request, and returns the delete marker version id
+     * of every removed key ({@code null} when the bucket is not versioned). If any key fails, the keys removed so far
+     * are restored before the StorageException is thrown.
+     * <p>
+     * Deliberately not @Retryable: on a versioned bucket a repeated delete stacks a second marker on the key, and
+     * {@link #restoreDeletedResources} would then only remove the newer one.
+     */
+    public Map<String, String> deleteResourcesFromStorage(List<String> s3Keys, String bucketName) {
+        Map<String, String> deleteMarkers = new HashMap<>();
+        for (int from = 0; from < s3Keys.size(); from += DELETE_OBJECTS_MAX_KEYS) {
+            List<String> chunk = s3Keys.subList(from, Math.min(from + DELETE_OBJECTS_MAX_KEYS, s3Keys.size()));
+            DeleteObjectsResponse response;
+            try {
+                response = s3Client.deleteObjects(prepareDeleteObjectsRequestData(bucketName, chunk.stream()
+                        .map(s3Key -> ObjectIdentifier.builder().key(s3Key).build())
+                        .toList()));
+            } catch (Exception e) {
+                throw removalFailed(chunk.get(0), deleteMarkers, bucketName);
+            }
+            recordDeleteRequest(chunk.size());
+            response.deleted().forEach(deleted -> deleteMarkers.put(deleted.key(), deleted.deleteMarkerVersionId()));
+            if (!response.errors().isEmpty()) {
+                throw removalFailed(response.errors().get(0).key(), deleteMarkers, bucketName);
+            }
+        }
+        return deleteMarkers;
     }
 
+    /**
+     * Undoes {@link #deleteResourcesFromStorage} by removing the delete markers it created, which makes the previous
+     * version of each object current again. Keys removed from an unversioned bucket are gone and only get logged.
+     */
     @Retryable(
             value = Exception.class,
             maxAttempts = 3,
             backoff = @Backoff(delay = 1000, multiplier = 2)
     )
-    public void deleteResourceFromStorage(String s3Key, String bucketName) {
-        try {
-            s3Client.deleteObject(prepareDeleteRequestData(s3Key, bucketName));
-        } catch (Exception e) {
-            throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_REMOVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    public void restoreDeletedResources(Map<String, String> deleteMarkers, String bucketName) {
+        List<ObjectIdentifier> markers = new ArrayList<>();
+        deleteMarkers.forEach((s3Key, versionId) -> {
+            if (Objects.isNull(versionId)) {
+                LOGGER.error("Cannot restore s3Key={} in unversioned bucket {}", s3Key, bucketName);
+            } else {
+                markers.add(ObjectIdentifier.builder().key(s3Key).versionId(versionId).build());
+            }
+        });
+        for (int from = 0; from < markers.size(); from += DELETE_OBJECTS_MAX_KEYS) {
+            List<ObjectIdentifier> chunk = markers.subList(from, Math.min(from + DELETE_OBJECTS_MAX_KEYS, markers.size()));
+            DeleteObjectsResponse response;
+            try {
+                response = s3Client.deleteObjects(prepareDeleteObjectsRequestData(bucketName, chunk));
+            } catch (Exception e) {
+                throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RECOVERY_ERROR_MESSAGE, chunk.get(0).key()), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+            }
+            if (!response.errors().isEmpty()) {
+                throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RECOVERY_ERROR_MESSAGE, response.errors().get(0).key()), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+            }
         }
     }
 
     @Recover
-    public void deleteResourceFromStorageFallback(Exception e, String s3Key, String bucketName) {
-        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_REMOVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    public void restoreDeletedResourcesFallback(Exception e, Map<String, String> deleteMarkers, String bucketName) {
+        throw new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_RECOVERY_ERROR_MESSAGE, deleteMarkers.keySet()), SERVICE_UNAVAILABLE_RESPONSE_CODE));
     }
 
     public String prepareFileUrl(String s3Key, StorageMetadataResponse storageMetadata) {
@@ -144,17 +235,72 @@ public class StorageService {
         return storageMetadata.getBucket() + storageMetadata.getPath();
     }
 
-    private GetObjectRequest prepareGetRequestData(String s3Key, String bucketName) {
+    private void recordMultipartBuffering(long peakBufferedBytes) {
+        DistributionSummary.builder("resource.upload.peak.buffered.bytes")
+                .description("Peak bytes of multipart upload parts held in memory at once")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(peakBufferedBytes);
+    }
+
+    private void recordUploadReads(UploadBufferTrackingInputStream trackedStream) {
+        DistributionSummary.builder("resource.upload.read.chunk.bytes")
+                .description("Largest single read from an upload body")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(trackedStream.getLargestReadBytes());
+        DistributionSummary.builder("resource.upload.size.bytes")
+                .description("Size of uploaded resource bodies")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(trackedStream.getTotalBytes());
+    }
+
+    private void recordPromotion(long objectSize) {
+        DistributionSummary.builder("resource.promotion.copied.bytes")
+                .description("Size of objects copied server-side from staging to permanent storage")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(objectSize);
+    }
+
+    private StorageException removalFailed(String s3Key, Map<String, String> deleteMarkers, String bucketName) {
+        try {
+            self.restoreDeletedResources(deleteMarkers, bucketName);
+        } catch (StorageException e) {
+            LOGGER.error("Failed to restore {} objects in bucket {} after a failed batch delete", deleteMarkers.size(), bucketName, e);
+        }
+        return new StorageException(dataPreparerService.prepareErrorResponse(String.format(STORAGE_REMOVAL_ERROR_MESSAGE, s3Key), SERVICE_UNAVAILABLE_RESPONSE_CODE));
+    }
+
+    private void recordDeleteRequest(int keyCount) {
+        DistributionSummary.builder("resource.delete.keys.per.request")
+                .description("Object keys removed by one S3 DeleteObjects request")
+                .register(meterRegistry)
+                .record(keyCount);
+    }
+
+    private GetObjectRequest prepareGetRequestData(String s3Key, String bucketName, String range) {
         return GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(s3Key)
+                .range(range)
                 .build();
     }
 
-    private PutObjectRequest preparePutRequestData(String s3Key, String bucketName) {
+    private Long retrieveObjectLength(String s3Key, String bucketName) {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(s3Key).build()).contentLength();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private PutObjectRequest preparePutRequestData(String s3Key, String bucketName, long contentLength) {
         return PutObjectRequest.builder()
                 .bucket(bucketName)
                 .key(s3Key)
+                .contentLength(contentLength)
                 .build();
     }
 
@@ -164,5 +310,11 @@ public class StorageService {
                 .key(s3Key)
                 .build();
     }
-}
 
+    private DeleteObjectsRequest prepareDeleteObjectsRequestData(String bucketName, List<ObjectIdentifier> objects) {
+        return DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(false).build())
+                .build();
+    }
+}
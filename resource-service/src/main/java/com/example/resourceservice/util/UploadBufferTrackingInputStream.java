@@ -0,0 +1,51 @@
+package com.example.resourceservice.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pass-through stream over an upload body that remembers how many bytes were read in total and the largest chunk
+ * pulled in a single read. The largest read is the size of the caller's read buffer, not the number of upload bytes
+ * held in memory at once.
+ */
+public class UploadBufferTrackingInputStream extends FilterInputStream {
+
+  private long totalBytes;
+  private int largestReadBytes;
+
+  public UploadBufferTrackingInputStream(InputStream in) {
+    super(in);
+  }
+
+  @Override
+  public int read() throws IOException {
+    int value = super.read();
+    if (value >= 0) {
+      track(1);
+    }
+    return value;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    int read = super.read(buffer, offset, length);
+    if (read > 0) {
+      track(read);
+    }
+    return read;
+  }
+
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public int getLargestReadBytes() {
+    return largestReadBytes;
+  }
+
+  private void track(int read) {
+    totalBytes += read;
+    largestReadBytes = Math.max(largestReadBytes, read);
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.resourceservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AudioFileCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AudioFileCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AudioFileCache(meterRegistry, true, cacheDirectory.toString(), 10, 8);
+        cache.init();
+    }
+
+    @Test
+    void readThrough_publishesEntryAfterFullRead() throws Exception {
+        byte[] audio = {1, 2, 3, 4};
+
+        assertTrue(cache.get("key").isEmpty());
+        readFully(cache.readThrough("key", new ByteArrayInputStream(audio), (long) audio.length));
+
+        AudioFileCache.CachedAudioFile cached = cache.get("key").orElseThrow();
+        assertEquals(4, cached.size());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = cached.openStream(0, cached.size())) {
+            in.transferTo(out);
+        }
+        assertArrayEquals(audio, out.toByteArray());
+        assertEquals(1.0, meterRegistry.get("resource.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("resource.cache.misses").counter().count());
+    }
+
+    @Test
+    void readThrough_incompleteReadIsNotCached() throws Exception {
+        try (InputStream in = cache.readThrough("key", new ByteArrayInputStream(new byte[]{1, 2, 3, 4}), 4L)) {
+            in.read();
+        }
+
+        assertTrue(cache.get("key").isEmpty());
+        assertEquals(0, cache.getCurrentSizeBytes());
+    }
+
+    @Test
+    void readThrough_oversizedObjectPassesThrough() {
+        InputStream source = new ByteArrayInputStream(new byte[9]);
+
+        assertSame(source, cache.readThrough("key", source, 9L));
+    }
+
+    @Test
+    void publish_evictsLeastRecentlyUsedOverCapacity() throws Exception {
+        readFully(cache.readThrough("first", new ByteArrayInputStream(new byte[4]), 4L));
+        readFully(cache.readThrough("second", new ByteArrayInputStream(new byte[4]), 4L));
+        cache.get("first");
+        readFully(cache.readThrough("third", new ByteArrayInputStream(new byte[4]), 4L));
+
+        assertTrue(cache.get("first").isPresent());
+        assertFalse(cache.get("second").isPresent());
+        assertTrue(cache.get("third").isPresent());
+        assertEquals(8, cache.getCurrentSizeBytes());
+        assertEquals(1.0, meterRegistry.get("resource.cache.evictions").counter().count());
+    }
+
+    @Test
+    void invalidate_removesEntryAndDiscardsFillInProgress() throws Exception {
+        readFully(cache.readThrough("key", new ByteArrayInputStream(new byte[4]), 4L));
+        InputStream inProgress = cache.readThrough("key", new ByteArrayInputStream(new byte[4]), 4L);
+
+        cache.invalidate("key");
+        readFully(inProgress);
+
+        assertTrue(cache.get("key").isEmpty());
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    void invalidate_keepsFillOfOtherKeyInProgress() throws Exception {
+        InputStream otherKeyInProgress = cache.readThrough("other", new ByteArrayInputStream(new byte[4]), 4L);
+        InputStream invalidatedInProgress = cache.readThrough("key", new ByteArrayInputStream(new byte[4]), 4L);
+
+        cache.invalidate("key");
+        readFully(otherKeyInProgress);
+        readFully(invalidatedInProgress);
+
+        assertTrue(cache.get("other").isPresent());
+        assertTrue(cache.get("key").isEmpty());
+        assertEquals(4, cache.getCurrentSizeBytes());
+    }
+
+    @Test
+    void invalidate_doesNotDiscardFillStartedAfterIt() throws Exception {
+        cache.invalidate("key");
+        readFully(cache.readThrough("key", new ByteArrayInputStream(new byte[4]), 4L));
+
+        assertTrue(cache.get("key").isPresent());
+    }
+
+    @Test
+    void openStream_servesRequestedSlice() throws Exception {
+        readFully(cache.readThrough("key", new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}), 5L));
+
+        try (InputStream in = cache.get("key").orElseThrow().openStream(1, 3)) {
+            assertArrayEquals(new byte[]{2, 3, 4}, in.readAllBytes());
+        }
+    }
+
+    private static void readFully(InputStream in) throws Exception {
+        try (in) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
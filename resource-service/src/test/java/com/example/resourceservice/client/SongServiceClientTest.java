@@ -10,6 +10,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -61,30 +63,20 @@ class SongServiceClientTest {
     }
 
     @Test
-    void testDeleteResourceMetadataByResourceId_success() {
-        SongDTO songDTO = new SongDTO();
-        songDTO.setId(999);
-
-        when(restTemplate.getForEntity(anyString(), eq(SongDTO.class)))
-                .thenReturn(new ResponseEntity<>(songDTO, HttpStatus.OK));
-
-        doNothing().when(restTemplate).delete(anyString());
-
-        client.deleteResourceMetadataByResourceId(100);
+    void testDeleteResourceMetadataByResourceIds_singleBulkCall() {
+        client.deleteResourceMetadataByResourceIds(List.of(1, 2, 3));
 
-        verify(restTemplate).getForEntity("http://localhost:8080/songs/resource-identifiers/100", SongDTO.class);
-        verify(restTemplate).delete("http://localhost:8080/songs?id=999");
+        verify(restTemplate).delete("http://localhost:8080/songs/by-resource?ids=1,2,3");
+        verify(restTemplate, never()).getForEntity(anyString(), eq(SongDTO.class));
     }
 
     @Test
-    void testDeleteResourceMetadataByResourceId_notFound_noDeleteCalled() {
-        when(restTemplate.getForEntity(anyString(), eq(SongDTO.class)))
-                .thenReturn(new ResponseEntity<>(null, HttpStatus.NOT_FOUND));
-
-        client.deleteResourceMetadataByResourceId(200);
+    void testDeleteResourceMetadataByResourceIds_exceptionTriggersRecover() {
+        SongClientException ex = assertThrows(SongClientException.class,
+                () -> client.recoverBatchDelete(new RuntimeException("network failure"), List.of(7, 8)));
 
-        verify(restTemplate).getForEntity("http://localhost:8080/songs/resource-identifiers/200", SongDTO.class);
-        verify(restTemplate, never()).delete(anyString());
+        assertEquals("503", ex.getErrorResponse().getErrorCode());
+        assertTrue(ex.getErrorResponse().getErrorMessage().contains("[7, 8]"));
     }
 
     @Test
@@ -0,0 +1,156 @@
+package com.example.resourceservice.client;
+
+import com.example.resourceservice.model.storagemetadata.StorageMetadataResponse;
+import com.example.resourceservice.model.storagemetadata.StorageType;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StorageMetadataServiceClientTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StorageMetadataServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        client = new StorageMetadataServiceClient(restTemplate, CircuitBreaker.ofDefaults("test"),
+                Retry.ofDefaults("test"), meterRegistry);
+        ReflectionTestUtils.setField(client, "storageMetadataServiceUrl", "http://localhost:8086");
+        ReflectionTestUtils.setField(client, "stagingBucketName", "stub-staging");
+        ReflectionTestUtils.setField(client, "permanentBucketName", "stub-permanent");
+        ReflectionTestUtils.setField(client, "cacheTtlSeconds", 600L);
+        ReflectionTestUtils.setField(client, "cacheRefreshAheadSeconds", 480L);
+        ReflectionTestUtils.setField(client, "failureBackoffSeconds", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdownRefreshExecutor();
+    }
+
+    @Test
+    void getStorages_servesRepeatedLookupsFromCache() {
+        stubExchange().thenReturn(ResponseEntity.ok(remoteStorages()));
+
+        client.getStoragesWithStorageServiceCB(null);
+        List<StorageMetadataResponse> storages = client.getStoragesWithStorageServiceCB(null);
+
+        assertEquals("remote-staging", storages.get(0).getBucket());
+        verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+        assertEquals(0.5, meterRegistry.get("storage.metadata.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void getStorages_servesStaleDataWhenReloadFails() {
+        stubExchange()
+                .thenReturn(ResponseEntity.ok(remoteStorages()))
+                .thenThrow(new ResourceAccessException("storage service down"));
+        client.getStoragesWithStorageServiceCB(null);
+        ReflectionTestUtils.setField(client, "cacheTtlSeconds", 0L);
+
+        List<StorageMetadataResponse> storages = client.getStoragesWithStorageServiceCB(null);
+
+        assertEquals("remote-staging", storages.get(0).getBucket());
+    }
+
+    @Test
+    void getStorages_singleReloadPerBackoffWindowWhileServiceIsDown() {
+        stubExchange()
+                .thenReturn(ResponseEntity.ok(remoteStorages()))
+                .thenThrow(new ResourceAccessException("storage service down"));
+        client.getStoragesWithStorageServiceCB(null);
+        ReflectionTestUtils.setField(client, "cacheTtlSeconds", 0L);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("remote-staging", client.getStoragesWithStorageServiceCB(null).get(0).getBucket());
+        }
+        verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+
+        ReflectionTestUtils.setField(client, "retryNotBeforeNanos", System.nanoTime());
+        client.getStoragesWithStorageServiceCB(null);
+        verify(restTemplate, times(3)).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void getStorages_stubServedWithoutReloadDuringBackoffWhenNothingWasLoaded() {
+        stubExchange().thenThrow(new ResourceAccessException("storage service down"));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("stub-permanent", client.getStoragesWithStorageServiceCB(null).get(0).getBucket());
+        }
+
+        verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getStorages_revalidatesWithETagAndKeepsListOnNotModified() {
+        stubExchange()
+                .thenReturn(ResponseEntity.ok().eTag("\"v1\"").body(remoteStorages()))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"v1\"").build());
+        client.getStoragesWithStorageServiceCB(null);
+        ReflectionTestUtils.setField(client, "cacheTtlSeconds", 0L);
+
+        List<StorageMetadataResponse> storages = client.getStoragesWithStorageServiceCB(null);
+
+        assertEquals("remote-staging", storages.get(0).getBucket());
+        ArgumentCaptor<HttpEntity> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET), requests.capture(),
+                any(ParameterizedTypeReference.class));
+        assertTrue(requests.getAllValues().get(0).getHeaders().getIfNoneMatch().isEmpty());
+        assertEquals(List.of("\"v1\""), requests.getAllValues().get(1).getHeaders().getIfNoneMatch());
+        assertEquals(1, meterRegistry.get("storage.metadata.cache.refresh").tag("outcome", "not_modified").timer().count());
+    }
+
+    @Test
+    void getStorages_fallsBackToStubWhenNothingWasLoaded() {
+        stubExchange().thenThrow(new ResourceAccessException("storage service down"));
+
+        List<StorageMetadataResponse> storages = client.getStoragesWithStorageServiceCB(null);
+
+        assertEquals("stub-permanent", storages.get(0).getBucket());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private OngoingStubbing stubExchange() {
+        return when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)));
+    }
+
+    private List<StorageMetadataResponse> remoteStorages() {
+        return List.of(new StorageMetadataResponse(2L, StorageType.STAGING, "remote-staging", "/remote-staging"),
+                new StorageMetadataResponse(1L, StorageType.PERMANENT, "remote-permanent", "/remote-permanent"));
+    }
+}
@@ -20,19 +20,24 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -113,7 +118,7 @@ class ResourceServiceComponentTest {
     void testUploadResource() throws Exception {
         byte[] audioData = "dummy audio data".getBytes();
 
-        doNothing().when(storageService).addFileBytesToStorage(any(String.class), any(byte[].class), anyString());
+        doNothing().when(storageService).addFileStreamToStorage(any(String.class), any(InputStream.class), anyLong(), anyString());
 
         mockMvc.perform(post("/resources")
                         .content(audioData)
@@ -124,7 +129,7 @@ class ResourceServiceComponentTest {
         List<ResourceEntity> resources = resourceRepository.findAll();
         assertThat(resources).hasSize(1);
 
-        verify(storageService).addFileBytesToStorage(any(String.class), any(byte[].class), anyString());
+        verify(storageService).addFileStreamToStorage(any(String.class), any(InputStream.class), anyLong(), anyString());
     }
 
     // -----------------------------
@@ -136,17 +141,19 @@ class ResourceServiceComponentTest {
         entity.setFileName("dummy audio");
         entity.setS3Key("s3Key");
         entity.setUploadedAt(LocalDateTime.now());
-        GetObjectResponse getObjectResponse = GetObjectResponse.builder().build();
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder().contentLength(11L).build();
         resourceRepository.save(entity);
 
         byte[] audioData = "dummy bytes".getBytes();
 
-        when(storageService.retrieveFileFromStorage("s3Key","permanent-resource-files"))
-                .thenReturn(ResponseBytes.fromByteArray(getObjectResponse, audioData));
+        when(storageService.retrieveFileStreamFromStorage(eq("s3Key"), eq("permanent-resource-files"), any()))
+                .thenReturn(new ResponseInputStream<>(getObjectResponse,
+                        AbortableInputStream.create(new ByteArrayInputStream(audioData))));
 
         mockMvc.perform(get("/resources/{id}", entity.getId())
                         .accept(MediaType.valueOf("audio/mpeg")))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(audioData));
 
         ResourceEntity found = resourceRepository.findById(entity.getId()).orElseThrow();
         assertThat(found.getFileName()).isEqualTo("dummy audio");
@@ -160,13 +167,10 @@ class ResourceServiceComponentTest {
         ResourceEntity entity = new ResourceEntity();
         entity.setFileName("audio1");
         entity.setS3Key("s3Key");
-        GetObjectResponse getObjectResponse = GetObjectResponse.builder().build();
         resourceRepository.save(entity);
-        byte[] audioData = "dummy bytes".getBytes();
 
-        when(storageService.retrieveFileFromStorage("s3Key", "permanent-resource-files"))
-                .thenReturn(ResponseBytes.fromByteArray(getObjectResponse, audioData));
-        doNothing().when(songServiceClient).deleteResourceMetadataByResourceId(entity.getId());
+        when(storageService.deleteResourcesFromStorage(List.of("s3Key"), "permanent-resource-files"))
+                .thenReturn(Map.of("s3Key", "marker-version"));
 
         mockMvc.perform(delete("/resources")
                         .param("id", entity.getId().toString()))
@@ -174,6 +178,8 @@ class ResourceServiceComponentTest {
                 .andExpect(jsonPath("$").exists());
 
         assertThat(resourceRepository.findById(entity.getId())).isEmpty();
-        verify(storageService).deleteResourceFromStorage(any(String.class), any(String.class));
+        verify(storageService).deleteResourcesFromStorage(List.of("s3Key"), "permanent-resource-files");
+        verify(songServiceClient).deleteResourceMetadataByResourceIds(List.of(entity.getId()));
+        verify(storageService, never()).retrieveFileStreamFromStorage(any(String.class), any(String.class), any());
     }
 }
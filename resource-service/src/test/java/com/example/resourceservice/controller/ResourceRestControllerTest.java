@@ -4,16 +4,24 @@ import com.example.resourceservice.entity.ResourceEntity;
 import com.example.resourceservice.exception.DatabaseException;
 import com.example.resourceservice.exception.InvalidDataException;
 import com.example.resourceservice.model.ErrorResponse;
+import com.example.resourceservice.model.ResourceContent;
 import com.example.resourceservice.service.ResourceService;
 import com.example.resourceservice.util.DataPreparerService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
@@ -30,11 +38,11 @@ class ResourceRestControllerTest {
 
     @Test
     void uploadResource_success() {
-        byte[] audioData = new byte[]{1, 2, 3};
+        MockHttpServletRequest audioData = prepareAudioRequest(new byte[]{1, 2, 3});
         ResourceEntity entity = new ResourceEntity();
         entity.setId(42);
 
-        when(resourceService.uploadResource(audioData, null)).thenReturn(entity);
+        when(resourceService.uploadResource(any(InputStream.class), anyLong(), any())).thenReturn(entity);
 
         ResponseEntity<Map<String, Integer>> response = controller.uploadResource(audioData, "test");
 
@@ -44,32 +52,48 @@ class ResourceRestControllerTest {
 
     @Test
     void uploadResource_invalidDataException() {
-        byte[] audioData = new byte[]{1, 2, 3};
+        MockHttpServletRequest audioData = prepareAudioRequest(new byte[]{1, 2, 3});
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.setErrorMessage("error");
-        when(resourceService.uploadResource(audioData, null)).thenThrow(DatabaseException.class);
+        when(resourceService.uploadResource(any(InputStream.class), anyLong(), any())).thenThrow(DatabaseException.class);
 
         assertThrows(DatabaseException.class, () -> controller.uploadResource(audioData, "test"));
     }
 
     @Test
     void uploadResource_nullEntity() {
-        byte[] audioData = new byte[]{1, 2, 3};
+        MockHttpServletRequest audioData = prepareAudioRequest(new byte[]{1, 2, 3});
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.setErrorMessage("error");
-        when(resourceService.uploadResource(audioData, null)).thenReturn(null);
+        when(resourceService.uploadResource(any(InputStream.class), anyLong(), any())).thenReturn(null);
         assertThrows(InvalidDataException.class, () -> controller.uploadResource(audioData, "test"));
     }
 
     @Test
-    void getResource_success() {
+    void getResource_success() throws Exception {
         byte[] expected = new byte[]{10, 20, 30};
-        when(resourceService.getFileAsBytes(5)).thenReturn(expected);
+        when(resourceService.getResourceContent(5, null))
+                .thenReturn(new ResourceContent(new ByteArrayInputStream(expected), (long) expected.length, null));
 
-        ResponseEntity<byte[]> response = controller.getResource(5);
+        ResponseEntity<InputStreamResource> response = controller.getResource(5, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertArrayEquals(expected, response.getBody());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(3, response.getHeaders().getContentLength());
+        assertArrayEquals(expected, response.getBody().getInputStream().readAllBytes());
+    }
+
+    @Test
+    void getResource_range_partialContent() {
+        byte[] expected = new byte[]{20, 30};
+        when(resourceService.getResourceContent(5, "bytes=1-2"))
+                .thenReturn(new ResourceContent(new ByteArrayInputStream(expected), (long) expected.length, "bytes 1-2/3"));
+
+        ResponseEntity<InputStreamResource> response = controller.getResource(5, "bytes=1-2");
+
+        assertEquals(206, response.getStatusCodeValue());
+        assertEquals("bytes 1-2/3", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(2, response.getHeaders().getContentLength());
     }
 
     @Test
@@ -83,4 +107,11 @@ class ResourceRestControllerTest {
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(Arrays.asList(1, 2), response.getBody().get("ids"));
     }
-}
\ No newline at end of file
+
+    private MockHttpServletRequest prepareAudioRequest(byte[] audioBytes) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType("audio/mpeg");
+        request.setContent(audioBytes);
+        return request;
+    }
+}
@@ -12,7 +12,8 @@ import org.springframework.context.annotation.Import;
 @SpringBootTest(
         properties = {
         "eureka.client.enabled=false",
-        "spring.cloud.discovery.enabled=false"},
+        "spring.cloud.discovery.enabled=false",
+        "outbox.relay.notify.enabled=false"},
         classes = {ResourceServiceApplication.class,
                 TestConfig.class,
                 TestDatasourceConfig.class}
@@ -32,7 +32,7 @@ public class DatabaseHooks {
             stmt.execute("DROP TABLE IF EXISTS outbox_event");
             stmt.execute("DROP SEQUENCE IF EXISTS outbox_event_seq");
 
-            stmt.execute("CREATE SEQUENCE RESOURCE_SEQ START WITH 1");
+            stmt.execute("CREATE SEQUENCE RESOURCE_SEQ START WITH 1 INCREMENT BY 50");
             stmt.execute("""
                     CREATE TABLE resource (
                         id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -41,12 +41,13 @@ public class DatabaseHooks {
                         uploaded_at TIMESTAMP
                     )
                     """);
-            stmt.execute("CREATE SEQUENCE outbox_event_seq START WITH 1");
+            stmt.execute("CREATE SEQUENCE outbox_event_seq START WITH 1 INCREMENT BY 50");
             stmt.execute("""
                     CREATE TABLE outbox_event (
                         id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
                         resource_id BIGINT NOT NULL,
-                         processed BOOLEAN NOT NULL DEFAULT FALSE
+                         processed BOOLEAN NOT NULL DEFAULT FALSE,
+                        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
                     )
                     """);
         }
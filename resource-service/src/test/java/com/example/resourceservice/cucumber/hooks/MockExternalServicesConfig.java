@@ -8,9 +8,11 @@ import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.ResponseEntity;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -29,10 +31,11 @@ public class MockExternalServicesConfig {
         GetObjectResponse response = GetObjectResponse.builder()
                 .contentLength(5L)
                 .build();
-        ResponseBytes<GetObjectResponse> objectBytes =
-                ResponseBytes.fromByteArray(response, "hello".getBytes(StandardCharsets.UTF_8));
+        byte[] objectBytes = "hello".getBytes(StandardCharsets.UTF_8);
 
-        when(mockStorage.retrieveFileFromStorage(anyString(), anyString())).thenReturn(objectBytes);
+        when(mockStorage.retrieveFileStreamFromStorage(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> new ResponseInputStream<>(response,
+                        AbortableInputStream.create(new ByteArrayInputStream(objectBytes))));
 
         return mockStorage;
     }
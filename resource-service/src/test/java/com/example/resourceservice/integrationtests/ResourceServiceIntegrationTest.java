@@ -3,13 +3,18 @@ package com.example.resourceservice.integrationtests;
 import com.example.resourceservice.ResourceServiceApplication;
 import com.example.resourceservice.client.SongServiceClient;
 import com.example.resourceservice.controller.ResourceRestController;
+import com.example.resourceservice.entity.OutboxEvent;
 import com.example.resourceservice.entity.ResourceEntity;
-import com.example.resourceservice.exception.StorageException;
 import com.example.resourceservice.integrationtests.config.*;
+import com.example.resourceservice.messaging.producer.CreateResourceMetadataPublisher;
+import com.example.resourceservice.outbox.service.OutboxProcessorService;
+import com.example.resourceservice.repository.OutboxEventRepository;
 import com.example.resourceservice.repository.ResourceRepository;
 import com.example.resourceservice.service.ResourceService;
 import com.example.resourceservice.service.StorageService;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import io.cucumber.java.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,14 +27,28 @@ import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.messaging.Message;
+import org.springframework.transaction.PlatformTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -53,6 +72,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 class ResourceServiceIntegrationTest {
 
+    private static final Logger LOGGER = LogManager.getLogger(ResourceServiceIntegrationTest.class);
     private static final String STAGING_BUCKET = "staging-resource-files";
     private static final String S3_KEY = "test-key";
     @Autowired
@@ -74,6 +94,10 @@ class ResourceServiceIntegrationTest {
     private S3Client s3Client;
     @Autowired
     private StreamBridge streamBridge;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Autowired
     private MockMvc mockMvc;
@@ -112,6 +136,11 @@ class ResourceServiceIntegrationTest {
                         .withStatus(200)
                         .withBody("{\"status\":\"success\"}")));
 
+        WireMock.stubFor(WireMock.delete(WireMock.urlPathEqualTo("/songs/by-resource"))
+                .willReturn(WireMock.aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withStatus(200)
+                        .withBody("{\"ids\":[]}")));
         WireMock.stubFor(WireMock.delete(WireMock.urlPathMatching("/songs"))
                 .withQueryParam("id", equalTo("1"))
                 .willReturn(WireMock.aResponse()
@@ -169,7 +198,8 @@ class ResourceServiceIntegrationTest {
         byte[] audioData = "dummy audio data".getBytes();
 
         // Write file to S3 (LocalStack)
-        storageService.addFileBytesToStorage(S3_KEY, audioData, STAGING_BUCKET);
+        s3Client.putObject(PutObjectRequest.builder().bucket(STAGING_BUCKET).key(S3_KEY).build(),
+                RequestBody.fromBytes(audioData));
 
         mockMvc.perform(post("/resources")
                         .content(audioData)
@@ -178,7 +208,7 @@ class ResourceServiceIntegrationTest {
                 .andExpect(jsonPath("$.id").exists());
 
         List<ResourceEntity> resources = resourceRepository.findAll();
-        assertThat(storageService.retrieveFileFromStorage(S3_KEY, STAGING_BUCKET).asByteArray()).isEqualTo(audioData);
+        assertThat(s3Client.getObjectAsBytes(b -> b.bucket(STAGING_BUCKET).key(S3_KEY)).asByteArray()).isEqualTo(audioData);
         assertThat(resources).hasSize(1);
     }
 
@@ -215,7 +245,34 @@ class ResourceServiceIntegrationTest {
                 .orElseThrow(() -> new AssertionError("Resource not found"));
         assertThat(found.getFileName()).isEqualTo("resources/staging-resource-files");
         assertThat(found.getS3Key()).isEqualTo(S3_KEY);
-        assertThat(storageService.retrieveFileFromStorage(S3_KEY, STAGING_BUCKET).asByteArray()).isEqualTo(audioData);
+        assertThat(s3Client.getObjectAsBytes(b -> b.bucket(STAGING_BUCKET).key(S3_KEY)).asByteArray()).isEqualTo(audioData);
+    }
+
+    // -----------------------------
+    // GET /resources/{id} with Range -> partial content from S3
+    // -----------------------------
+    @Test
+    void testGetResourceRange_returnsPartialContentFromS3() throws Exception {
+        ResourceEntity entity = new ResourceEntity();
+        entity.setFileName("resources/staging-resource-files");
+        entity.setS3Key(S3_KEY);
+        entity.setUploadedAt(LocalDateTime.now());
+        resourceRepository.save(entity);
+
+        byte[] audioData = "dummy bytes".getBytes(StandardCharsets.UTF_8);
+        s3Client.putObject(PutObjectRequest.builder().bucket(STAGING_BUCKET).key(S3_KEY).build(),
+                RequestBody.fromBytes(audioData));
+
+        mockMvc.perform(get("/resources/{id}", entity.getId())
+                        .header("Range", "bytes=0-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-4/11"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().bytes("dummy".getBytes(StandardCharsets.UTF_8)));
+
+        mockMvc.perform(get("/resources/{id}", entity.getId())
+                        .header("Range", "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
     }
 
     // -----------------------------
@@ -243,8 +300,8 @@ class ResourceServiceIntegrationTest {
 
         assertThat(resourceRepository.findById(entity.getId())).isEmpty();
         assertThrows(
-                StorageException.class,
-                () -> storageService.retrieveFileFromStorage(S3_KEY, STAGING_BUCKET)
+                NoSuchKeyException.class,
+                () -> s3Client.getObjectAsBytes(b -> b.bucket(STAGING_BUCKET).key(S3_KEY))
         );
     }
 
@@ -273,4 +330,101 @@ class ResourceServiceIntegrationTest {
         var result = s3Client.getObjectAsBytes(b -> b.bucket(STAGING_BUCKET).key(key));
         assertThat(result.asUtf8String()).isEqualTo("hello-test");
     }
+
+    // -----------------------------
+    // Multipart upload throughput against LocalStack
+    // -----------------------------
+    @Test
+    void testLargeUpload_multipartThroughputComparedToSinglePut() {
+        byte[] audioData = new byte[48 * 1024 * 1024];
+        new Random(42).nextBytes(audioData);
+
+        long singlePutNanos = timeUpload("throughput/single-put.mp3", audioData, false);
+        long multipartNanos = timeUpload("throughput/multipart.mp3", audioData, true);
+
+        LOGGER.info("Uploaded {} MiB: single PUT {} MiB/s, multipart {} MiB/s",
+                audioData.length / (1024 * 1024),
+                String.format("%.1f", mibPerSecond(audioData.length, singlePutNanos)),
+                String.format("%.1f", mibPerSecond(audioData.length, multipartNanos)));
+        assertThat(s3Client.getObjectAsBytes(b -> b.bucket(STAGING_BUCKET).key("throughput/multipart.mp3"))
+                .asByteArray()).isEqualTo(audioData);
+    }
+
+    // -----------------------------
+    // Staging -> permanent promotion copies inside S3
+    // -----------------------------
+    @Test
+    void testPromotion_copiesObjectServerSide() {
+        String permanentBucket = "permanent-resource-files";
+        if (s3Client.listBuckets().buckets().stream().noneMatch(bucket -> bucket.name().equals(permanentBucket))) {
+            s3Client.createBucket(b -> b.bucket(permanentBucket));
+        }
+        byte[] audioData = new byte[1024 * 1024];
+        new Random(7).nextBytes(audioData);
+        s3Client.putObject(b -> b.bucket(STAGING_BUCKET).key("promotion/song.mp3"), RequestBody.fromBytes(audioData));
+
+        storageService.copyFileBetweenStorages("promotion/song.mp3", STAGING_BUCKET, permanentBucket);
+
+        assertThat(s3Client.getObjectAsBytes(b -> b.bucket(permanentBucket).key("promotion/song.mp3")).asByteArray())
+                .isEqualTo(audioData);
+    }
+
+    private long timeUpload(String s3Key, byte[] audioData, boolean multipart) {
+        long start = System.nanoTime();
+        // Passing the real length keeps the single PUT below the threshold check; -1 forces the multipart path.
+        if (multipart) {
+            storageService.addFileStreamToStorage(s3Key, new ByteArrayInputStream(audioData), -1, STAGING_BUCKET);
+        } else {
+            s3Client.putObject(PutObjectRequest.builder().bucket(STAGING_BUCKET).key(s3Key).build(),
+                    RequestBody.fromBytes(audioData));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static double mibPerSecond(long bytes, long nanos) {
+        return (bytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+
+    // -----------------------------
+    // Outbox relay: concurrent instances claim disjoint pages
+    // -----------------------------
+    @Test
+    void testOutboxRelay_concurrentInstancesPublishEachEventOnce() throws Exception {
+        outboxEventRepository.deleteAll();
+        List<OutboxEvent> events = IntStream.rangeClosed(1, 250).mapToObj(id -> new OutboxEvent(id, false)).toList();
+        outboxEventRepository.saveAll(events);
+        Queue<Integer> published = new ConcurrentLinkedQueue<>();
+        CreateResourceMetadataPublisher recordingPublisher = new CreateResourceMetadataPublisher(null, null) {
+            @Override
+            public void sendCreateResourceMetadataEvent(String outBindingName, Message<Integer> message) {
+                published.add(message.getPayload());
+            }
+        };
+
+        int instances = 3;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(instances);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                OutboxProcessorService relay = new OutboxProcessorService(outboxEventRepository, recordingPublisher,
+                        transactionManager, new SimpleMeterRegistry(), 20);
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    relay.processPendingEvents();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The application's own scheduled relay may take a share, but no event may be published twice
+        assertThat(published).doesNotHaveDuplicates();
+        assertThat(outboxEventRepository.countByProcessedFalse()).isZero();
+    }
 }
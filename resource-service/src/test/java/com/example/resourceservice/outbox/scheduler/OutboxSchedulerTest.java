@@ -0,0 +1,80 @@
+package com.example.resourceservice.outbox.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.resourceservice.outbox.service.OutboxProcessorService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxSchedulerTest {
+
+    @Mock
+    private OutboxProcessorService processorService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxScheduler outboxScheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxScheduler = new OutboxScheduler(processorService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxScheduler.shutdown();
+    }
+
+    @Test
+    void onOutboxNotification_coalescesWakeupsDuringRunIntoOneFollowUp() throws Exception {
+        CountDownLatch runStarted = new CountDownLatch(1);
+        CountDownLatch releaseRun = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            runStarted.countDown();
+            releaseRun.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(processorService).processPendingEvents();
+
+        outboxScheduler.onOutboxNotification();
+        runStarted.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            outboxScheduler.onOutboxNotification();
+        }
+        outboxScheduler.runOutboxProcessor();
+        releaseRun.countDown();
+
+        verify(processorService, timeout(2000).times(2)).processPendingEvents();
+        Thread.sleep(200);
+        verify(processorService, times(2)).processPendingEvents();
+        assertEquals(6.0, meterRegistry.get("outbox.relay.wakeups").tag("trigger", "notify").counter().count());
+        assertEquals(1.0, meterRegistry.get("outbox.relay.wakeups").tag("trigger", "poll").counter().count());
+    }
+
+    @Test
+    void runOutboxProcessor_survivesFailedRun() {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("database unavailable");
+        }).doAnswer(invocation -> null).when(processorService).processPendingEvents();
+
+        outboxScheduler.runOutboxProcessor();
+        verify(processorService, timeout(2000).times(1)).processPendingEvents();
+        outboxScheduler.runOutboxProcessor();
+
+        verify(processorService, timeout(2000).times(2)).processPendingEvents();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.resourceservice.outbox.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.resourceservice.entity.OutboxEvent;
+import com.example.resourceservice.exception.StreamBridgeException;
+import com.example.resourceservice.messaging.producer.CreateResourceMetadataPublisher;
+import com.example.resourceservice.model.ErrorResponse;
+import com.example.resourceservice.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxProcessorServiceTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Mock
+    private OutboxEventRepository repository;
+    @Mock
+    private CreateResourceMetadataPublisher publisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxProcessorService processorService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        processorService = new OutboxProcessorService(repository, publisher, transactionManager, meterRegistry,
+                PAGE_SIZE);
+    }
+
+    @Test
+    void processPendingEvents_drainsFullPagesUntilShortPage() {
+        when(repository.claimPendingBatch(PAGE_SIZE))
+                .thenReturn(events(1, 2))
+                .thenReturn(events(3, 4))
+                .thenReturn(events(5));
+
+        processorService.processPendingEvents();
+
+        verify(repository, times(3)).claimPendingBatch(PAGE_SIZE);
+        verify(repository).markAsProcessed(List.of(1, 2));
+        verify(repository).markAsProcessed(List.of(3, 4));
+        verify(repository).markAsProcessed(List.of(5));
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(5.0, meterRegistry.get("outbox.events.published").counter().count());
+        assertEquals(5, meterRegistry.get("outbox.publish.lag").timer().count());
+    }
+
+    @Test
+    void processPendingEvents_keepsDrainingPastEventThatAlwaysFails() {
+        // Event 9 stays pending and, being the oldest, heads every page
+        when(repository.claimPendingBatch(PAGE_SIZE))
+                .thenReturn(events(9, 1))
+                .thenReturn(events(9, 2))
+                .thenReturn(events(9));
+        failPublishingOf(109);
+        when(repository.countByProcessedFalse()).thenReturn(1L);
+
+        processorService.processPendingEvents();
+
+        verify(repository, times(3)).claimPendingBatch(PAGE_SIZE);
+        verify(repository).markAsProcessed(List.of(1));
+        verify(repository).markAsProcessed(List.of(2));
+        assertEquals(2.0, meterRegistry.get("outbox.events.published").counter().count());
+        assertEquals(3.0, meterRegistry.get("outbox.events.failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("outbox.backlog").gauge().value());
+    }
+
+    @Test
+    void processPendingEvents_stopsDrainingWhenNothingInPageIsPublished() {
+        when(repository.claimPendingBatch(PAGE_SIZE)).thenReturn(events(1, 2));
+        failPublishingOf(101, 102);
+        when(repository.countByProcessedFalse()).thenReturn(2L);
+
+        processorService.processPendingEvents();
+
+        verify(repository, times(1)).claimPendingBatch(anyInt());
+        verify(repository, never()).markAsProcessed(any());
+        assertEquals(2.0, meterRegistry.get("outbox.events.failed").counter().count());
+        assertEquals(2.0, meterRegistry.get("outbox.backlog").gauge().value());
+    }
+
+    @Test
+    void processPendingEvents_emptyBacklogPublishesNothing() {
+        when(repository.claimPendingBatch(PAGE_SIZE)).thenReturn(List.of());
+
+        processorService.processPendingEvents();
+
+        verify(publisher, never()).sendCreateResourceMetadataEvent(any(), any());
+        verify(repository, never()).markAsProcessed(any());
+    }
+
+    private void failPublishingOf(Integer... resourceIds) {
+        List<Integer> failing = List.of(resourceIds);
+        doAnswer(invocation -> {
+            Message<Integer> message = invocation.getArgument(1);
+            if (failing.contains(message.getPayload())) {
+                throw new StreamBridgeException(new ErrorResponse());
+            }
+            return null;
+        }).when(publisher).sendCreateResourceMetadataEvent(eq(OutboxProcessorService.CREATE_RESOURCE_METADATA_OUT), any());
+    }
+
+    private static List<OutboxEvent> events(int... ids) {
+        return IntStream.of(ids).mapToObj(id -> {
+            OutboxEvent event = new OutboxEvent(100 + id, false);
+            event.setId(id);
+            event.setCreatedAt(LocalDateTime.now().minusSeconds(5));
+            return event;
+        }).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.resourceservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.resourceservice.entity.OutboxEvent;
+import com.example.resourceservice.entity.ResourceEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the JDBC statements of the upload write path (resource row plus outbox row in one transaction, as in
+ * ResourceService.uploadResource). With pooled sequences an upload should cost its two inserts plus one nextval per
+ * 50 rows per table.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UploadPersistenceSpec {
+
+    private static final Logger LOGGER = LogManager.getLogger(UploadPersistenceSpec.class);
+    private static final int UPLOADS = 500;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void uploadIssuesTwoStatementsPlusAmortisedSequenceCalls() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics.clear();
+
+        for (int i = 0; i < UPLOADS; i++) {
+            int upload = i;
+            transactionTemplate.executeWithoutResult(status -> {
+                ResourceEntity resource = resourceRepository.save(resource(upload));
+                outboxEventRepository.save(new OutboxEvent(resource.getId(), false));
+            });
+        }
+
+        double statementsPerUpload = (double) statistics.getPrepareStatementCount() / UPLOADS;
+        LOGGER.info("{} uploads: {} statements, {} per upload", UPLOADS,
+                statistics.getPrepareStatementCount(), statementsPerUpload);
+        assertThat(resourceRepository.count()).isEqualTo(UPLOADS);
+        assertThat(statementsPerUpload).isLessThan(2.1);
+    }
+
+    private static ResourceEntity resource(int upload) {
+        ResourceEntity resource = new ResourceEntity();
+        resource.setFileName("benchmark-" + upload + ".mp3");
+        resource.setS3Key("resources/benchmark-" + upload + ".mp3");
+        resource.setUploadedAt(LocalDateTime.now());
+        return resource;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.resourceservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class StorageServiceTokenProviderTest {
+
+    @Mock
+    private OAuth2AuthorizedClientManager authorizedClientManager;
+    @Mock
+    private OAuth2AuthorizedClientService authorizedClientService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StorageServiceTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = new StorageServiceTokenProvider(authorizedClientManager, authorizedClientService, meterRegistry,
+                "storage-service", "storage-client", 60, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenProvider.shutdown();
+    }
+
+    @Test
+    void getAccessToken_reusesCachedToken() {
+        when(authorizedClientManager.authorize(any(OAuth2AuthorizeRequest.class)))
+                .thenReturn(authorizedClient("token-1"));
+
+        assertEquals("token-1", tokenProvider.getAccessToken());
+        assertEquals("token-1", tokenProvider.getAccessToken());
+
+        verify(authorizedClientManager, times(1)).authorize(any(OAuth2AuthorizeRequest.class));
+        assertEquals(1.0, meterRegistry.get("storage.token.refresh").tag("trigger", "on-demand").counter().count());
+        assertEquals(1, meterRegistry.get("storage.token.fetch").timer().count());
+    }
+
+    @Test
+    void getAccessToken_concurrentCallersShareOneFetch() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(authorizedClientManager.authorize(any(OAuth2AuthorizeRequest.class))).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await(5, TimeUnit.SECONDS);
+            return authorizedClient("token-1");
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            tokens.add(callers.submit(tokenProvider::getAccessToken));
+            fetchStarted.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                tokens.add(callers.submit(tokenProvider::getAccessToken));
+            }
+            Thread.sleep(100);
+            releaseFetch.countDown();
+
+            for (Future<String> token : tokens) {
+                assertEquals("token-1", token.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(authorizedClientManager, times(1)).authorize(any(OAuth2AuthorizeRequest.class));
+    }
+
+    @Test
+    void getAccessToken_refetchesTokenWithinExpirySkew() {
+        when(authorizedClientManager.authorize(any(OAuth2AuthorizeRequest.class)))
+                .thenReturn(authorizedClient("token-1", 20))
+                .thenReturn(authorizedClient("token-2", 3600));
+
+        assertEquals("token-1", tokenProvider.getAccessToken());
+        assertEquals("token-2", tokenProvider.getAccessToken());
+
+        verify(authorizedClientManager, times(2)).authorize(any(OAuth2AuthorizeRequest.class));
+    }
+
+    @Test
+    void getAccessToken_propagatesFetchFailure() {
+        when(authorizedClientManager.authorize(any(OAuth2AuthorizeRequest.class))).thenReturn(null);
+
+        assertThrows(IllegalStateException.class, () -> tokenProvider.getAccessToken());
+    }
+
+    private OAuth2AuthorizedClient authorizedClient(String tokenValue) {
+        return authorizedClient(tokenValue, 3600);
+    }
+
+    private OAuth2AuthorizedClient authorizedClient(String tokenValue, long expiresInSeconds) {
+        ClientRegistration registration = ClientRegistration.withRegistrationId("storage-service")
+                .clientId("storage-client")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri("http://localhost:9000/oauth2/token")
+                .build();
+        OAuth2AccessToken token = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue,
+                Instant.now(), Instant.now().plusSeconds(expiresInSeconds));
+        return new OAuth2AuthorizedClient(registration, "storage-client", token);
+    }
+}
@@ -6,10 +6,18 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,20 +25,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.example.resourceservice.cache.AudioFileCache;
 import com.example.resourceservice.client.SongServiceClient;
 import com.example.resourceservice.client.StorageMetadataServiceClient;
 import com.example.resourceservice.entity.ResourceEntity;
-import com.example.resourceservice.exception.NotFoundException;
+import com.example.resourceservice.exception.RangeNotSatisfiableException;
+import com.example.resourceservice.exception.SongClientException;
 import com.example.resourceservice.exception.StorageException;
 import com.example.resourceservice.model.ErrorResponse;
+import com.example.resourceservice.model.ResourceContent;
 import com.example.resourceservice.model.storagemetadata.StorageMetadataResponse;
 import com.example.resourceservice.model.storagemetadata.StorageType;
 import com.example.resourceservice.repository.OutboxEventRepository;
 import com.example.resourceservice.repository.ResourceRepository;
 import com.example.resourceservice.util.DataPreparerService;
 
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
 class ResourceServiceTest {
@@ -50,6 +65,8 @@ class ResourceServiceTest {
     private StorageMetadataServiceClient storageMetadataServiceClient;
     @Mock
     private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private AudioFileCache audioFileCache;
 
     @InjectMocks
     private ResourceService resourceService;
@@ -58,13 +75,13 @@ class ResourceServiceTest {
     void uploadResource_success() {
         byte[] fileBytes = new byte[]{1, 2, 3};
         when(storageService.prepareFileUrl(Mockito.anyString(), any(StorageMetadataResponse.class))).thenReturn("fileUrl");
-        org.mockito.Mockito.doNothing().when(storageService).addFileBytesToStorage(org.mockito.Mockito.anyString(), any(), org.mockito.Mockito.anyString());
+        org.mockito.Mockito.doNothing().when(storageService).addFileStreamToStorage(org.mockito.Mockito.anyString(), any(InputStream.class), org.mockito.Mockito.anyLong(), org.mockito.Mockito.anyString());
         when(storageMetadataServiceClient.getStoragesWithStorageServiceCB(any())).thenReturn(prepareStorageMetadata());
         when(outboxEventRepository.save(any())).thenReturn(null);
         ResourceEntity entity = new ResourceEntity();
         entity.setId(1);
         when(repository.save(any())).thenReturn(entity);
-        ResourceEntity result = resourceService.uploadResource(fileBytes, null);
+        ResourceEntity result = resourceService.uploadResource(new ByteArrayInputStream(fileBytes), fileBytes.length, null);
         assertNotNull(result);
         assertEquals(1, result.getId());
     }
@@ -74,21 +91,90 @@ class ResourceServiceTest {
         byte[] fileBytes = new byte[]{1, 2, 3};
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.setErrorMessage("error");
-        org.mockito.Mockito.doThrow(new RuntimeException()).when(storageService).addFileBytesToStorage(org.mockito.Mockito.anyString(), any(), org.mockito.Mockito.anyString());
+        org.mockito.Mockito.doThrow(new RuntimeException()).when(storageService).addFileStreamToStorage(org.mockito.Mockito.anyString(), any(InputStream.class), org.mockito.Mockito.anyLong(), org.mockito.Mockito.anyString());
         when(dataPreparerService.prepareErrorResponse(org.mockito.Mockito.anyString(), org.mockito.Mockito.anyString())).thenReturn(errorResponse);
         when(storageMetadataServiceClient.getStoragesWithStorageServiceCB(any())).thenReturn(prepareStorageMetadata());
-        assertThrows(StorageException.class, () -> resourceService.uploadResource(fileBytes, null));
+        assertThrows(StorageException.class, () -> resourceService.uploadResource(new ByteArrayInputStream(fileBytes), fileBytes.length, null));
+    }
+
+    @Test
+    void getResourceContent_multipleRanges_notSatisfiable() {
+        when(repository.existsById(1)).thenReturn(true);
+        assertThrows(RangeNotSatisfiableException.class, () -> resourceService.getResourceContent(1, "bytes=0-1,5-6"));
     }
 
     @Test
-    void getFileAsBytes_notFound() {
+    void getResourceContent_range_passedToStorage() {
         ResourceEntity resource = new ResourceEntity();
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setErrorMessage("error");
+        resource.setS3Key("s3Key");
+        resource.setFileName("permanent-resource-files/s3Key");
+        ReflectionTestUtils.setField(resourceService, "stagingBucketName", "staging-resource-files");
+        GetObjectResponse objectResponse = GetObjectResponse.builder()
+                .contentLength(2L)
+                .contentRange("bytes 0-1/3")
+                .build();
         when(repository.existsById(1)).thenReturn(true);
         when(repository.findById(1)).thenReturn(Optional.of(resource));
-        when(dataPreparerService.prepareErrorResponse(org.mockito.Mockito.anyString(), org.mockito.Mockito.anyString())).thenReturn(errorResponse);
-        assertThrows(NotFoundException.class, () -> resourceService.getFileAsBytes(1));
+        when(storageMetadataServiceClient.getStoragesWithStorageServiceCB(any())).thenReturn(prepareStorageMetadata());
+        when(storageService.retrieveFileStreamFromStorage(Mockito.eq("s3Key"), Mockito.anyString(), Mockito.eq("bytes=0-1")))
+                .thenReturn(new ResponseInputStream<>(objectResponse,
+                        AbortableInputStream.create(new ByteArrayInputStream(new byte[]{1, 2}))));
+
+        ResourceContent content = resourceService.getResourceContent(1, "bytes=0-1");
+
+        assertTrue(content.isPartial());
+        assertEquals("bytes 0-1/3", content.getContentRange());
+        assertEquals(2L, content.getContentLength());
+    }
+
+    @Test
+    void deleteResourceByIds_deletesInBulkWithoutDownloading() {
+        ReflectionTestUtils.setField(resourceService, "stagingBucketName", "staging-resource-files");
+        when(repository.findAllById(Set.of(2, 1, 3))).thenReturn(List.of(resource(1, "permanent-resource-files/a"),
+                resource(2, "staging-resource-files/b")));
+        when(storageMetadataServiceClient.getStoragesWithStorageServiceCB(any())).thenReturn(prepareStorageMetadata());
+        when(storageService.deleteResourcesFromStorage(List.of("s3Key1"), "permanent-resource-files"))
+                .thenReturn(Map.of("s3Key1", "marker1"));
+        when(storageService.deleteResourcesFromStorage(List.of("s3Key2"), "staging-resource-files"))
+                .thenReturn(Map.of("s3Key2", "marker2"));
+
+        Map<String, List<Integer>> result = resourceService.deleteResourceByIds("2,1,3");
+
+        assertEquals(List.of(2, 1), result.get("ids"));
+        verify(songServiceClient).deleteResourceMetadataByResourceIds(List.of(2, 1));
+        verify(repository).deleteAllByIdInBatch(List.of(2, 1));
+        verify(storageService, never()).retrieveFileStreamFromStorage(anyString(), anyString(), any());
+        verify(storageService, never()).restoreDeletedResources(any(), anyString());
+    }
+
+    @Test
+    void deleteResourceByIds_songServiceFailure_restoresDeletedFiles() {
+        ReflectionTestUtils.setField(resourceService, "stagingBucketName", "staging-resource-files");
+        when(repository.findAllById(Set.of(1))).thenReturn(List.of(resource(1, "permanent-resource-files/a")));
+        when(storageMetadataServiceClient.getStoragesWithStorageServiceCB(any())).thenReturn(prepareStorageMetadata());
+        when(storageService.deleteResourcesFromStorage(List.of("s3Key1"), "permanent-resource-files"))
+                .thenReturn(Map.of("s3Key1", "marker1"));
+        doThrow(new SongClientException(new ErrorResponse())).when(songServiceClient)
+                .deleteResourceMetadataByResourceIds(List.of(1));
+
+        assertThrows(SongClientException.class, () -> resourceService.deleteResourceByIds("1"));
+
+        verify(storageService).restoreDeletedResources(Map.of("s3Key1", "marker1"), "permanent-resource-files");
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void deleteResourceByIds_storageFailure_keepsMetadata() {
+        ReflectionTestUtils.setField(resourceService, "stagingBucketName", "staging-resource-files");
+        when(repository.findAllById(Set.of(1))).thenReturn(List.of(resource(1, "permanent-resource-files/a")));
+        when(storageMetadataServiceClient.getStoragesWithStorageServiceCB(any())).thenReturn(prepareStorageMetadata());
+        when(storageService.deleteResourcesFromStorage(List.of("s3Key1"), "permanent-resource-files"))
+                .thenThrow(new StorageException(new ErrorResponse()));
+
+        assertThrows(StorageException.class, () -> resourceService.deleteResourceByIds("1"));
+
+        verify(songServiceClient, never()).deleteResourceMetadataByResourceIds(any());
+        verify(repository, never()).deleteAllByIdInBatch(any());
     }
 
     @Test
@@ -103,6 +189,14 @@ class ResourceServiceTest {
         assertFalse(resourceService.existById(2));
     }
 
+    private ResourceEntity resource(int id, String fileName) {
+        ResourceEntity resource = new ResourceEntity();
+        resource.setId(id);
+        resource.setFileName(fileName);
+        resource.setS3Key("s3Key" + id);
+        return resource;
+    }
+
     private List<StorageMetadataResponse> prepareStorageMetadata() {
         StorageMetadataResponse stub1 = new StorageMetadataResponse();
         stub1.setId(1L);
@@ -0,0 +1,201 @@
+package com.example.resourceservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CopyPartResult;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+@ExtendWith(MockitoExtension.class)
+class S3MultipartUploaderTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+    private static final String BUCKET = "staging-resource-files";
+    private static final String S3_KEY = "resources/test.mp3";
+
+    @Mock
+    private S3Client s3Client;
+
+    private S3MultipartUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        Retry retry = Retry.of("test", RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(SdkClientException.class)
+                .build());
+        uploader = new S3MultipartUploader(s3Client, retry, new SimpleMeterRegistry(),
+                2L * PART_SIZE, PART_SIZE, 2, 2, 4, 2L * PART_SIZE, PART_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    void shouldUseMultipart_aboveThresholdOrUnknownLength() {
+        assertFalse(uploader.shouldUseMultipart(1024));
+        assertTrue(uploader.shouldUseMultipart(2L * PART_SIZE));
+        assertTrue(uploader.shouldUseMultipart(-1));
+    }
+
+    @Test
+    void upload_singlePartBodyUsesPlainPut() throws Exception {
+        long peak = uploader.upload(S3_KEY, new ByteArrayInputStream(new byte[1024]), BUCKET);
+
+        assertEquals(1024, peak);
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upload_splitsBodyIntoPartsAndCompletesInOrder() throws Exception {
+        stubCreateMultipartUpload();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> UploadPartResponse.builder()
+                        .eTag("etag-" + invocation.getArgument(0, UploadPartRequest.class).partNumber())
+                        .build());
+
+        long peak = uploader.upload(S3_KEY, new ByteArrayInputStream(new byte[2 * PART_SIZE + 10]), BUCKET);
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> captor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client).completeMultipartUpload(captor.capture());
+        List<CompletedPart> parts = captor.getValue().multipartUpload().parts();
+        assertEquals(List.of(1, 2, 3), parts.stream().map(CompletedPart::partNumber).toList());
+        assertEquals("etag-3", parts.get(2).eTag());
+        assertTrue(peak <= 2L * PART_SIZE);
+    }
+
+    @Test
+    void upload_retriesOnlyTheFailedPart() throws Exception {
+        stubCreateMultipartUpload();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(SdkClientException.create("connection reset"))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        uploader.upload(S3_KEY, new ByteArrayInputStream(new byte[PART_SIZE + 10]), BUCKET);
+
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upload_abortsWhenPartKeepsFailing() {
+        stubCreateMultipartUpload();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(SdkClientException.create("connection reset"));
+
+        assertThrows(SdkClientException.class,
+                () -> uploader.upload(S3_KEY, new ByteArrayInputStream(new byte[PART_SIZE + 10]), BUCKET));
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void copy_smallObjectUsesSingleCopyObject() {
+        stubObjectSize(1024);
+
+        assertEquals(1024, uploader.copy(S3_KEY, BUCKET, "permanent-resource-files"));
+
+        ArgumentCaptor<CopyObjectRequest> captor = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        verify(s3Client).copyObject(captor.capture());
+        assertEquals(BUCKET, captor.getValue().sourceBucket());
+        assertEquals("permanent-resource-files", captor.getValue().destinationBucket());
+        verify(s3Client, never()).getObjectAsBytes(any(GetObjectRequest.class));
+    }
+
+    @Test
+    void copy_largeObjectCopiesByteRangesAsParts() {
+        stubObjectSize(2L * PART_SIZE + 10);
+        stubCreateMultipartUpload();
+        when(s3Client.uploadPartCopy(any(UploadPartCopyRequest.class)))
+                .thenAnswer(invocation -> UploadPartCopyResponse.builder()
+                        .copyPartResult(CopyPartResult.builder()
+                                .eTag("etag-" + invocation.getArgument(0, UploadPartCopyRequest.class).partNumber())
+                                .build())
+                        .build());
+
+        uploader.copy(S3_KEY, BUCKET, "permanent-resource-files");
+
+        ArgumentCaptor<UploadPartCopyRequest> partCaptor = ArgumentCaptor.forClass(UploadPartCopyRequest.class);
+        verify(s3Client, times(3)).uploadPartCopy(partCaptor.capture());
+        assertEquals(List.of("bytes=0-5242879", "bytes=5242880-10485759", "bytes=10485760-10485769"),
+                partCaptor.getAllValues().stream()
+                        .sorted(Comparator.comparing(UploadPartCopyRequest::partNumber))
+                        .map(UploadPartCopyRequest::copySourceRange)
+                        .toList());
+        ArgumentCaptor<CompleteMultipartUploadRequest> captor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(captor.capture());
+        assertEquals("permanent-resource-files", captor.getValue().bucket());
+        assertEquals(List.of(1, 2, 3), captor.getValue().multipartUpload().parts().stream()
+                .map(CompletedPart::partNumber).toList());
+    }
+
+    @Test
+    void copy_abortsWhenPartCopyKeepsFailing() {
+        stubObjectSize(2L * PART_SIZE);
+        stubCreateMultipartUpload();
+        when(s3Client.uploadPartCopy(any(UploadPartCopyRequest.class)))
+                .thenThrow(SdkClientException.create("connection reset"));
+
+        assertThrows(SdkClientException.class, () -> uploader.copy(S3_KEY, BUCKET, "permanent-resource-files"));
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    private void stubObjectSize(long size) {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(HeadObjectResponse.builder().contentLength(size).build());
+    }
+
+    private void stubCreateMultipartUpload() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.songservice.cache;
+
+import com.example.songservice.entity.SongEntity;
+
+/**
+ * Immutable copy of a song row held by {@link SongCache}. Callers get a fresh entity from {@link #toEntity()}, so
+ * nothing they do to it can leak into the cache.
+ */
+public record CachedSong(Integer id, String name, String artist, String album, String duration, String year,
+                         Integer resourceId) {
+
+    public static CachedSong from(SongEntity songEntity) {
+        return new CachedSong(songEntity.getId(), songEntity.getName(), songEntity.getArtist(), songEntity.getAlbum(),
+                songEntity.getDuration(), songEntity.getYear(), songEntity.getResourceId());
+    }
+
+    public SongEntity toEntity() {
+        final SongEntity songEntity = new SongEntity();
+        songEntity.setId(id);
+        songEntity.setName(name);
+        songEntity.setArtist(artist);
+        songEntity.setAlbum(album);
+        songEntity.setDuration(duration);
+        songEntity.setYear(year);
+        songEntity.setResourceId(resourceId);
+        return songEntity;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.songservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-backed {@link SharedSongCache}. Songs are stored as JSON under {@code song:id:<id>} with a resource ID to
+ * song ID pointer under {@code song:resource:<resourceId>}, both with a TTL. Deletes remove the song keys and are
+ * published on {@link #EVICTION_CHANNEL} so every replica drops its local copy; a stale resource pointer only ever
+ * leads to a miss.
+ */
+@Component
+@ConditionalOnProperty(name = "songs.cache.shared.enabled", havingValue = "true")
+public class RedisSharedSongCache implements SharedSongCache {
+
+    static final String EVICTION_CHANNEL = "song-cache-evictions";
+    private static final Logger LOGGER = LogManager.getLogger(RedisSharedSongCache.class);
+    private static final String ID_KEY_PREFIX = "song:id:";
+    private static final String RESOURCE_KEY_PREFIX = "song:resource:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public RedisSharedSongCache(StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer songCacheListenerContainer,
+                                ObjectMapper objectMapper,
+                                @Value("${songs.cache.shared.ttl-seconds:600}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = songCacheListenerContainer;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    @Override
+    public Optional<CachedSong> getById(Integer id) {
+        try {
+            String json = redisTemplate.opsForValue().get(ID_KEY_PREFIX + id);
+            return Objects.isNull(json) ? Optional.empty() : Optional.of(objectMapper.readValue(json, CachedSong.class));
+        } catch (Exception e) {
+            LOGGER.warn("Shared song cache lookup failed for ID={}: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<CachedSong> getByResourceId(Integer resourceId) {
+        String id;
+        try {
+            id = redisTemplate.opsForValue().get(RESOURCE_KEY_PREFIX + resourceId);
+        } catch (Exception e) {
+            LOGGER.warn("Shared song cache lookup failed for RESOURCE_ID={}: {}", resourceId, e.getMessage());
+            return Optional.empty();
+        }
+        return Objects.isNull(id) ? Optional.empty() : getById(Integer.valueOf(id))
+                .filter(song -> resourceId.equals(song.resourceId()));
+    }
+
+    @Override
+    public void put(CachedSong song) {
+        try {
+            redisTemplate.opsForValue().set(ID_KEY_PREFIX + song.id(), objectMapper.writeValueAsString(song), ttl);
+            if (Objects.nonNull(song.resourceId())) {
+                redisTemplate.opsForValue().set(RESOURCE_KEY_PREFIX + song.resourceId(), String.valueOf(song.id()), ttl);
+            }
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Could not serialise song ID={} for the shared cache", song.id(), e);
+        } catch (Exception e) {
+            LOGGER.warn("Shared song cache write failed for ID={}: {}", song.id(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(Collection<Integer> ids) {
+        try {
+            redisTemplate.delete(ids.stream().map(id -> ID_KEY_PREFIX + id).toList());
+            redisTemplate.convertAndSend(EVICTION_CHANNEL,
+                    ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        } catch (Exception e) {
+            // Other replicas keep their copies until the local TTL runs out
+            LOGGER.error("Shared song cache eviction failed for IDs={}: {}", ids, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onEviction(Consumer<Collection<Integer>> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            List<Integer> ids = Arrays.stream(body.split(",")).map(Integer::valueOf).toList();
+            listener.accept(ids);
+        }, new ChannelTopic(EVICTION_CHANNEL));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.songservice.cache;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Optional second tier behind {@link SongCache}, shared by all song-service replicas. Implementations are best
+ * effort: when the shared store is unavailable lookups miss and writes are dropped, the database stays the source of
+ * truth.
+ */
+public interface SharedSongCache {
+
+    Optional<CachedSong> getById(Integer id);
+
+    Optional<CachedSong> getByResourceId(Integer resourceId);
+
+    void put(CachedSong song);
+
+    /**
+     * Removes the songs from the shared tier and tells every replica, including this one, to drop them locally.
+     */
+    void evict(Collection<Integer> ids);
+
+    /**
+     * Registers the callback for evictions published by any replica.
+     */
+    void onEviction(Consumer<Collection<Integer>> listener);
+}
@@ -0,0 +1,205 @@
+package com.example.songservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded in-process LRU cache of song rows, reachable by song ID and by resource ID. Songs are written once by
+ * resource-processor and never updated, so entries only leave through deletes, the size bound or the TTL. When a
+ * {@link SharedSongCache} is configured, local misses fall through to it and deletes are broadcast to the other
+ * replicas through it.
+ */
+@Component
+public class SongCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Optional<SharedSongCache> sharedCache;
+    private final Map<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, Integer> idsByResourceId = new HashMap<>();
+    /** Bumped on every eviction so loads that started before it do not put a deleted song back. */
+    private long invalidationEpoch;
+    private final Counter localHitCounter;
+    private final Counter sharedHitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter deleteEvictionCounter;
+
+    public SongCache(MeterRegistry meterRegistry,
+                     @Value("${songs.cache.enabled:true}") boolean enabled,
+                     @Value("${songs.cache.max-entries:10000}") int maxEntries,
+                     @Value("${songs.cache.ttl-seconds:600}") long ttlSeconds,
+                     Optional<SharedSongCache> sharedCache) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.sharedCache = sharedCache;
+        this.localHitCounter = Counter.builder("song.cache.hits")
+                .description("Song reads answered from a cache tier")
+                .tag("tier", "local")
+                .register(meterRegistry);
+        this.sharedHitCounter = Counter.builder("song.cache.hits")
+                .description("Song reads answered from a cache tier")
+                .tag("tier", "shared")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("song.cache.misses")
+                .description("Song reads that had to query the database")
+                .register(meterRegistry);
+        this.sizeEvictionCounter = Counter.builder("song.cache.evictions")
+                .description("Songs dropped from the local cache")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.deleteEvictionCounter = Counter.builder("song.cache.evictions")
+                .description("Songs dropped from the local cache")
+                .tag("cause", "delete")
+                .register(meterRegistry);
+        Gauge.builder("song.cache.entries", this, SongCache::getEntryCount)
+                .description("Songs currently held in the local cache")
+                .register(meterRegistry);
+        sharedCache.ifPresent(shared -> shared.onEviction(this::evictLocally));
+    }
+
+    public Optional<CachedSong> getById(Integer id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long epoch;
+        synchronized (this) {
+            Entry entry = liveEntry(id);
+            if (Objects.nonNull(entry)) {
+                localHitCounter.increment();
+                return Optional.of(entry.song());
+            }
+            epoch = invalidationEpoch;
+        }
+        return fromSharedTier(sharedCache.flatMap(shared -> shared.getById(id)), epoch);
+    }
+
+    public Optional<CachedSong> getByResourceId(Integer resourceId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long epoch;
+        synchronized (this) {
+            Integer id = idsByResourceId.get(resourceId);
+            Entry entry = Objects.nonNull(id) ? liveEntry(id) : null;
+            if (Objects.nonNull(entry)) {
+                localHitCounter.increment();
+                return Optional.of(entry.song());
+            }
+            epoch = invalidationEpoch;
+        }
+        return fromSharedTier(sharedCache.flatMap(shared -> shared.getByResourceId(resourceId)), epoch);
+    }
+
+    /**
+     * Read a value with this before going to the database and pass it to {@link #put(CachedSong, long)}.
+     */
+    public synchronized long currentEpoch() {
+        return invalidationEpoch;
+    }
+
+    /**
+     * Write-through for a song that was just inserted.
+     */
+    public void put(CachedSong song) {
+        put(song, currentEpoch());
+    }
+
+    /**
+     * Caches a song loaded from the database, unless an eviction happened after {@code loadedAtEpoch}.
+     */
+    public void put(CachedSong song, long loadedAtEpoch) {
+        if (!enabled || Objects.isNull(song.id())) {
+            return;
+        }
+        synchronized (this) {
+            if (loadedAtEpoch != invalidationEpoch) {
+                return;
+            }
+            putLocally(song);
+        }
+        sharedCache.ifPresent(shared -> shared.put(song));
+    }
+
+    /**
+     * Drops deleted songs here and, through the shared tier, on every other replica.
+     */
+    public void evict(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        evictLocally(ids);
+        sharedCache.ifPresent(shared -> shared.evict(ids));
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    private synchronized void evictLocally(Collection<Integer> ids) {
+        invalidationEpoch++;
+        for (Integer id : ids) {
+            Entry entry = entries.remove(id);
+            if (Objects.nonNull(entry)) {
+                idsByResourceId.remove(entry.song().resourceId(), id);
+                deleteEvictionCounter.increment();
+            }
+        }
+    }
+
+    private Optional<CachedSong> fromSharedTier(Optional<CachedSong> song, long lookedUpAtEpoch) {
+        if (song.isPresent()) {
+            sharedHitCounter.increment();
+            synchronized (this) {
+                if (lookedUpAtEpoch == invalidationEpoch) {
+                    putLocally(song.get());
+                }
+            }
+        } else {
+            missCounter.increment();
+        }
+        return song;
+    }
+
+    // Caller holds the monitor
+    private Entry liveEntry(Integer id) {
+        Entry entry = entries.get(id);
+        if (Objects.nonNull(entry) && entry.expiresAtMillis() < System.currentTimeMillis()) {
+            entries.remove(id);
+            idsByResourceId.remove(entry.song().resourceId(), id);
+            return null;
+        }
+        return entry;
+    }
+
+    // Caller holds the monitor
+    private void putLocally(CachedSong song) {
+        entries.put(song.id(), new Entry(song, System.currentTimeMillis() + ttlMillis));
+        if (Objects.nonNull(song.resourceId())) {
+            idsByResourceId.put(song.resourceId(), song.id());
+        }
+        Iterator<Map.Entry<Integer, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            idsByResourceId.remove(evicted.song().resourceId(), evicted.song().id());
+            sizeEvictionCounter.increment();
+        }
+    }
+
+    private record Entry(CachedSong song, long expiresAtMillis) {
+    }
+}
@@ -8,9 +8,11 @@ import com.example.songservice.exception.InvalidDataException;
 import com.example.songservice.exception.NotFoundException;
 import com.example.songservice.mapper.SongMapper;
 import com.example.songservice.model.ErrorResponse;
+import com.example.songservice.model.SongBatchItemResult;
 import com.example.songservice.model.ValidationErrorResponse;
 import com.example.songservice.service.SongService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -47,6 +49,9 @@ public class SongRestController {
             return ResponseEntity.ok(prepareResponseObject(songEntity));
         } catch (ConflictDataException e) {
             throw new ConflictDataException(this.songService.prepareErrorResponse(e.getMessage(), "409"));
+        } catch (final DataIntegrityViolationException e) {
+            // song_resource_id_uidx allows a single metadata row per resource
+            throw new ConflictDataException(this.songService.prepareErrorResponse(String.format("Metadata for resource ID=%s already exists", songDTO.getResourceId()), "409"));
         } catch (final InvalidDataException e) {
             if (Objects.nonNull(e.getErrorResponse())) {
                 ValidationErrorResponse e1 = e.getErrorResponse();
@@ -60,6 +65,14 @@ public class SongRestController {
         }
     }
 
+    /**
+     * Bulk variant of {@link #addSongMetadata}; answers 200 with one CREATED, CONFLICT or INVALID result per song.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<SongBatchItemResult>> addSongsMetadata(@RequestBody List<SongDTO> songDTOs) {
+        return ResponseEntity.ok(songService.addSongs(songDTOs));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Song> getSongMetadata(@PathVariable Integer id) {
         final Optional<SongEntity> songEntity = songService.getSong(id);
@@ -84,6 +97,11 @@ public class SongRestController {
         return ResponseEntity.ok(this.songService.deleteSongByIds(id));
     }
 
+    @DeleteMapping("/by-resource")
+    public ResponseEntity<Map<String, List<Integer>>> deleteSongsMetadataByResourceIds(@RequestParam String ids) {
+        return ResponseEntity.ok(this.songService.deleteSongsByResourceIds(ids));
+    }
+
     private Map<String, Integer> prepareResponseObject(final SongEntity songEntity) {
         final Map<String, Integer> responseObject = new HashMap<>();
         responseObject.put("id", songEntity.getId());
@@ -8,7 +8,8 @@ import org.springframework.lang.NonNull;
 public class SongEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "song_seq")
-    @SequenceGenerator(name = "song_seq", sequenceName = "song_seq", allocationSize = 1)
+    // Matches INCREMENT BY 50 of song_seq; Hibernate's pooled optimizer hands out 50 ids per nextval
+    @SequenceGenerator(name = "song_seq", sequenceName = "song_seq", allocationSize = 50)
     private Integer id;
 
     @NonNull
@@ -26,7 +27,7 @@ public class SongEntity {
     @Column(name = "year")
     private String year;
 
-    @Column(name = "resource_id")
+    @Column(name = "resource_id", unique = true)
     private Integer resourceId;
 
     public Integer getId() {
@@ -0,0 +1,24 @@
+package com.example.songservice.model;
+
+/**
+ * Outcome of one item of POST /songs/batch. Results are returned in request order.
+ */
+public record SongBatchItemResult(Integer resourceId, Status status, Integer id, String errorMessage) {
+
+    public enum Status {
+        CREATED, CONFLICT, INVALID
+    }
+
+    public static SongBatchItemResult created(Integer resourceId, Integer id) {
+        return new SongBatchItemResult(resourceId, Status.CREATED, id, null);
+    }
+
+    public static SongBatchItemResult conflict(Integer resourceId) {
+        return new SongBatchItemResult(resourceId, Status.CONFLICT, null,
+                String.format("Metadata for resource ID=%s already exists", resourceId));
+    }
+
+    public static SongBatchItemResult invalid(Integer resourceId, String errorMessage) {
+        return new SongBatchItemResult(resourceId, Status.INVALID, null, errorMessage);
+    }
+}
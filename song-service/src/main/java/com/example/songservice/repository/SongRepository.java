@@ -2,8 +2,44 @@ package com.example.songservice.repository;
 
 import com.example.songservice.entity.SongEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SongRepository extends JpaRepository<SongEntity, Integer> {
+    // Served by the unique index song_resource_id_uidx
+    Optional<SongEntity> findByResourceId(Integer resourceId);
+
+    @Query("select s.resourceId from SongEntity s where s.resourceId in :resourceIds")
+    List<Integer> findExistingResourceIds(@Param("resourceIds") Collection<Integer> resourceIds);
+
+    // A single statement and plan for any number of IDs; RETURNING reports the rows that actually existed.
+    // Not exported by Spring Data REST, which would otherwise publish these as GET search endpoints.
+    @RestResource(exported = false)
+    @Transactional
+    @Query(value = "DELETE FROM song WHERE resource_id = ANY(:resourceIds) RETURNING CAST(id AS INTEGER)", nativeQuery = true)
+    List<Integer> deleteByResourceIds(@Param("resourceIds") Integer[] resourceIds);
+
+    @RestResource(exported = false)
+    @Transactional
+    @Query(value = "DELETE FROM song WHERE id = ANY(:ids) RETURNING CAST(id AS INTEGER)", nativeQuery = true)
+    List<Integer> deleteByIds(@Param("ids") Integer[] ids);
+
+    // Returns the new song ID, or nothing when the resource already has metadata; never fails on song_resource_id_uidx.
+    // The ID is the top of a song_seq block that Hibernate's pooled optimizer never receives, so the two cannot clash.
+    @RestResource(exported = false)
+    @Transactional
+    @Query(value = "INSERT INTO song (id, name, artist, album, duration, year, resource_id) "
+            + "VALUES (nextval('song_seq'), :name, :artist, :album, :duration, :year, :resourceId) "
+            + "ON CONFLICT (resource_id) DO NOTHING RETURNING CAST(id AS INTEGER)", nativeQuery = true)
+    List<Integer> insertIfResourceAbsent(@Param("name") String name, @Param("artist") String artist,
+                                         @Param("album") String album, @Param("duration") String duration,
+                                         @Param("year") String year, @Param("resourceId") Integer resourceId);
 }
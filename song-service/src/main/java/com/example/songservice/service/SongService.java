@@ -1,13 +1,19 @@
 package com.example.songservice.service;
 
+import com.example.songservice.cache.CachedSong;
+import com.example.songservice.cache.SongCache;
 import com.example.songservice.dto.SongDTO;
 import com.example.songservice.entity.SongEntity;
 import com.example.songservice.exception.InvalidDataException;
 import com.example.songservice.exception.NotFoundException;
+import com.example.songservice.mapper.SongMapper;
 import com.example.songservice.model.ErrorResponse;
+import com.example.songservice.model.SongBatchItemResult;
 import com.example.songservice.model.ValidationErrorResponse;
 import com.example.songservice.repository.SongRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -19,11 +25,99 @@ public class SongService {
     public static final String BAD_REQUEST_CSV_TOO_LONG_ERROR_MESSAGE = "CSV string is too long: received %s characters, maximum allowed is 200";
     public static final String BAD_REQUEST_RESPONSE_CODE = "400";
     public static final String NOT_FOUND_REQUEST_RESPONSE_CODE = "404";
+    public static final String BAD_REQUEST_BATCH_TOO_LARGE_ERROR_MESSAGE = "Batch is too large: received %s songs, maximum allowed is %s";
+    public static final String BAD_REQUEST_TOO_MANY_IDS_ERROR_MESSAGE = "Too many IDs: received %s, maximum allowed is %s";
     @Autowired
     private SongRepository songRepository;
+    @Autowired
+    private SongMapper songMapper;
+    @Autowired
+    private SongCache songCache;
+    @Value("${songs.batch.max-size:500}")
+    private int maxBatchSize;
 
     public SongEntity addSong(SongEntity songEntity) {
-        return this.songRepository.save(songEntity);
+        final SongEntity savedEntity = this.songRepository.save(songEntity);
+        this.songCache.put(CachedSong.from(savedEntity));
+        return savedEntity;
+    }
+
+    /**
+     * Validates all songs in one pass, checks every resource ID against the database with a single query and inserts
+     * the remaining songs through one saveAll, which Hibernate sends as JDBC batches. Songs that lose a race with a
+     * concurrent insert of the same resource are reported as conflicts. Items are validated by the same checks as
+     * POST /songs and report the same error message.
+     */
+    public List<SongBatchItemResult> addSongs(final List<SongDTO> songs) {
+        if (songs.size() > maxBatchSize) {
+            throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_BATCH_TOO_LARGE_ERROR_MESSAGE, songs.size(), maxBatchSize), BAD_REQUEST_RESPONSE_CODE));
+        }
+        final SongBatchItemResult[] results = new SongBatchItemResult[songs.size()];
+        final Set<Integer> takenResourceIds = new HashSet<>(this.songRepository.findExistingResourceIds(
+                songs.stream().map(SongDTO::getResourceId).filter(Objects::nonNull).toList()));
+        final List<Integer> pendingIndexes = new ArrayList<>();
+        final List<SongEntity> pendingEntities = new ArrayList<>();
+        for (int i = 0; i < songs.size(); i++) {
+            final SongDTO song = songs.get(i);
+            final String validationError = findValidationError(song);
+            if (Objects.nonNull(validationError)) {
+                results[i] = SongBatchItemResult.invalid(song.getResourceId(), validationError);
+            } else if (Objects.nonNull(song.getResourceId()) && !takenResourceIds.add(song.getResourceId())) {
+                results[i] = SongBatchItemResult.conflict(song.getResourceId());
+            } else {
+                pendingIndexes.add(i);
+                pendingEntities.add(this.songMapper.mapToEntity(song));
+            }
+        }
+        List<SongEntity> savedEntities;
+        try {
+            savedEntities = this.songRepository.saveAll(pendingEntities);
+        } catch (final DataIntegrityViolationException e) {
+            savedEntities = insertOneByOne(pendingEntities);
+        }
+        for (int i = 0; i < pendingIndexes.size(); i++) {
+            final SongEntity saved = savedEntities.get(i);
+            final Integer resourceId = pendingEntities.get(i).getResourceId();
+            results[pendingIndexes.get(i)] = Objects.nonNull(saved)
+                    ? SongBatchItemResult.created(resourceId, saved.getId())
+                    : SongBatchItemResult.conflict(resourceId);
+            if (Objects.nonNull(saved)) {
+                this.songCache.put(CachedSong.from(saved));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // Slow path after the batch insert was rolled back; a null entry marks a song that already exists. Each row is
+    // its own statement and transaction, and a taken resource is skipped by ON CONFLICT rather than by another
+    // constraint violation, so the persistence context of the failed flush is not used again.
+    private List<SongEntity> insertOneByOne(final List<SongEntity> songEntities) {
+        final List<SongEntity> savedEntities = new ArrayList<>(songEntities.size());
+        for (final SongEntity songEntity : songEntities) {
+            final List<Integer> insertedIds = this.songRepository.insertIfResourceAbsent(songEntity.getName(),
+                    songEntity.getArtist(), songEntity.getAlbum(), songEntity.getDuration(), songEntity.getYear(),
+                    songEntity.getResourceId());
+            if (insertedIds.isEmpty()) {
+                savedEntities.add(null);
+            } else {
+                songEntity.setId(insertedIds.get(0));
+                savedEntities.add(songEntity);
+            }
+        }
+        return savedEntities;
+    }
+
+    // Same checks, in the same order, as POST /songs
+    private String findValidationError(final SongDTO songDTO) {
+        final ValidationErrorResponse validationErrorResponse = checkValidity(songDTO);
+        if (Objects.nonNull(validationErrorResponse.getErrorMessage()) && !validationErrorResponse.getErrorMessage().isEmpty()) {
+            return validationErrorResponse.getErrorMessage();
+        }
+        final ErrorResponse errorResponse = checkMissingFields(songDTO);
+        if (Objects.nonNull(errorResponse.getErrorMessage()) && !errorResponse.getErrorMessage().isEmpty()) {
+            return errorResponse.getErrorMessage();
+        }
+        return null;
     }
 
     public Optional<SongEntity> getSong(final Integer id) {
@@ -33,43 +127,69 @@ public class SongService {
         if (!isValidNumeric(String.valueOf(id))) {
             throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_INCORRECT_NUMBER_ERROR_MESSAGE, id), BAD_REQUEST_RESPONSE_CODE));
         }
-        if (!this.existById(Integer.valueOf(id))) {
+        final Optional<CachedSong> cachedSong = this.songCache.getById(id);
+        if (cachedSong.isPresent()) {
+            return cachedSong.map(CachedSong::toEntity);
+        }
+        final long epoch = this.songCache.currentEpoch();
+        final Optional<SongEntity> songEntity = this.songRepository.findById(id);
+        if (songEntity.isEmpty()) {
             throw new NotFoundException(prepareErrorResponse(String.format("Song metadata for ID=%s not found", id), NOT_FOUND_REQUEST_RESPONSE_CODE));
         }
-        return this.songRepository.findById(id);
+        this.songCache.put(CachedSong.from(songEntity.get()), epoch);
+        return songEntity;
     }
 
     public Optional<SongEntity> getSongByResourceId(final Integer resourceId) {
-        return this.songRepository.findAll().stream().filter(songEntity -> songEntity.getResourceId().equals(resourceId)).findFirst();
+        final Optional<CachedSong> cachedSong = this.songCache.getByResourceId(resourceId);
+        if (cachedSong.isPresent()) {
+            return cachedSong.map(CachedSong::toEntity);
+        }
+        final long epoch = this.songCache.currentEpoch();
+        final Optional<SongEntity> songEntity = this.songRepository.findByResourceId(resourceId);
+        songEntity.ifPresent(entity -> this.songCache.put(CachedSong.from(entity), epoch));
+        return songEntity;
     }
 
 
     public void deleteSong(final Integer id) {
         this.songRepository.deleteById(id);
+        this.songCache.evict(List.of(id));
     }
 
+    /**
+     * Validates the whole CSV first, then removes all songs with one DELETE ... RETURNING statement instead of an
+     * existence check and a delete per ID. IDs without a song are left out of the response.
+     */
     public Map<String, List<Integer>> deleteSongByIds(final String id) {
         if (Objects.nonNull(id) && id.length() > 200) {
             throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_CSV_TOO_LONG_ERROR_MESSAGE, id.length()), BAD_REQUEST_RESPONSE_CODE));
         }
-        String[] ids = Optional.ofNullable(id).map(param -> param.split(",")).orElse(new String[]{});
+        final List<Integer> ids = parseIds(id);
         final Map<String, List<Integer>> responseObject = new HashMap<>();
-        List<Integer> removedIds = new LinkedList<>();
-        Arrays.stream(ids).forEach(param -> {
-            if (!isNumeric(param)) {
-                throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_NOT_NUMBER_ERROR_MESSAGE, param), BAD_REQUEST_RESPONSE_CODE));
-            }
-            if (!isValidNumeric(param)) {
-                throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_INCORRECT_NUMBER_ERROR_MESSAGE, param), BAD_REQUEST_RESPONSE_CODE));
-            }
-        });
-        Arrays.stream(ids).forEach(param -> {
-            Integer songIdentifier = Integer.valueOf(param);
-            if (this.existById(songIdentifier)) {
-                this.deleteSong(songIdentifier);
-                removedIds.add(songIdentifier);
-            }
-        });
+        if (ids.isEmpty()) {
+            responseObject.put("ids", List.of());
+            return responseObject;
+        }
+        // RETURNING has no defined order; report the removed IDs in request order as before
+        final Set<Integer> removedIds = new HashSet<>(this.songRepository.deleteByIds(ids.toArray(Integer[]::new)));
+        this.songCache.evict(removedIds);
+        responseObject.put("ids", ids.stream().distinct().filter(removedIds::contains).toList());
+        return responseObject;
+    }
+
+    /**
+     * Removes the metadata of every listed resource in one statement, so callers can clear hundreds of resources per
+     * request. Returns the IDs of the removed songs; resources without metadata are skipped.
+     */
+    public Map<String, List<Integer>> deleteSongsByResourceIds(final String resourceIds) {
+        final List<Integer> ids = parseIds(resourceIds);
+        if (ids.size() > maxBatchSize) {
+            throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_TOO_MANY_IDS_ERROR_MESSAGE, ids.size(), maxBatchSize), BAD_REQUEST_RESPONSE_CODE));
+        }
+        final Map<String, List<Integer>> responseObject = new HashMap<>();
+        final List<Integer> removedIds = ids.isEmpty() ? List.of() : this.songRepository.deleteByResourceIds(ids.toArray(Integer[]::new));
+        this.songCache.evict(removedIds);
         responseObject.put("ids", removedIds);
         return responseObject;
     }
@@ -120,6 +240,22 @@ public class SongService {
         return isCorrectYear && (Integer.parseInt(year) > 1900 && Integer.valueOf(year) < 2099);
     }
 
+    // Rejects the whole CSV on the first malformed ID, before anything is deleted
+    private List<Integer> parseIds(final String csv) {
+        String[] ids = Optional.ofNullable(csv).map(param -> param.split(",")).orElse(new String[]{});
+        List<Integer> parsedIds = new ArrayList<>(ids.length);
+        for (String param : ids) {
+            if (!isNumeric(param)) {
+                throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_NOT_NUMBER_ERROR_MESSAGE, param), BAD_REQUEST_RESPONSE_CODE));
+            }
+            if (!isValidNumeric(param)) {
+                throw new InvalidDataException(prepareErrorResponse(String.format(BAD_REQUEST_INCORRECT_NUMBER_ERROR_MESSAGE, param), BAD_REQUEST_RESPONSE_CODE));
+            }
+            parsedIds.add(Integer.valueOf(param));
+        }
+        return parsedIds;
+    }
+
     private boolean isValidNumeric(String id) {
         final boolean isWholeNumber = Optional.ofNullable(id)
                                               .map(s -> s.chars().allMatch(Character::isDigit))
@@ -0,0 +1,112 @@
+package com.example.songservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SongCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SongCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SongCache(meterRegistry, true, 2, 600, Optional.empty());
+    }
+
+    @Test
+    void put_reachableBySongAndResourceId() {
+        cache.put(song(1, 10));
+
+        assertEquals("Song 1", cache.getById(1).orElseThrow().name());
+        assertEquals(1, cache.getByResourceId(10).orElseThrow().id());
+        assertTrue(cache.getById(2).isEmpty());
+        assertEquals(2.0, meterRegistry.get("song.cache.hits").tag("tier", "local").counter().count());
+        assertEquals(1.0, meterRegistry.get("song.cache.misses").counter().count());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedBeyondMaxEntries() {
+        cache.put(song(1, 10));
+        cache.put(song(2, 20));
+        cache.getById(1);
+        cache.put(song(3, 30));
+
+        assertTrue(cache.getById(2).isEmpty());
+        assertTrue(cache.getByResourceId(20).isEmpty());
+        assertTrue(cache.getById(1).isPresent());
+        assertEquals(1.0, meterRegistry.get("song.cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void evict_dropsBothKeysAndDiscardsLoadsStartedBefore() {
+        cache.put(song(1, 10));
+        long epoch = cache.currentEpoch();
+
+        cache.evict(List.of(1));
+        cache.put(song(1, 10), epoch);
+
+        assertTrue(cache.getById(1).isEmpty());
+        assertTrue(cache.getByResourceId(10).isEmpty());
+        assertEquals(1.0, meterRegistry.get("song.cache.evictions").tag("cause", "delete").counter().count());
+    }
+
+    @Test
+    void sharedTier_servesLocalMissesAndBroadcastsEvictions() {
+        InMemorySharedSongCache shared = new InMemorySharedSongCache();
+        shared.songs.add(song(5, 50));
+        SongCache replica = new SongCache(meterRegistry, true, 10, 600, Optional.of(shared));
+
+        assertEquals(5, replica.getByResourceId(50).orElseThrow().id());
+        assertEquals(1.0, meterRegistry.get("song.cache.hits").tag("tier", "shared").counter().count());
+
+        shared.listener.accept(List.of(5));
+        shared.songs.clear();
+
+        assertTrue(replica.getById(5).isEmpty());
+    }
+
+    private static CachedSong song(int id, int resourceId) {
+        return new CachedSong(id, "Song " + id, "Artist", "Album", "03:30", "2001", resourceId);
+    }
+
+    private static final class InMemorySharedSongCache implements SharedSongCache {
+        private final List<CachedSong> songs = new ArrayList<>();
+        private Consumer<Collection<Integer>> listener;
+
+        @Override
+        public Optional<CachedSong> getById(Integer id) {
+            return songs.stream().filter(song -> song.id().equals(id)).findFirst();
+        }
+
+        @Override
+        public Optional<CachedSong> getByResourceId(Integer resourceId) {
+            return songs.stream().filter(song -> song.resourceId().equals(resourceId)).findFirst();
+        }
+
+        @Override
+        public void put(CachedSong song) {
+            songs.add(song);
+        }
+
+        @Override
+        public void evict(Collection<Integer> ids) {
+            songs.removeIf(song -> ids.contains(song.id()));
+            listener.accept(ids);
+        }
+
+        @Override
+        public void onEviction(Consumer<Collection<Integer>> listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -8,12 +8,14 @@ import com.example.songservice.exception.InvalidDataException;
 import com.example.songservice.exception.NotFoundException;
 import com.example.songservice.mapper.SongMapper;
 import com.example.songservice.model.ErrorResponse;
+import com.example.songservice.model.SongBatchItemResult;
 import com.example.songservice.model.ValidationErrorResponse;
 import com.example.songservice.service.SongService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 
 import java.util.*;
@@ -63,6 +65,21 @@ class SongRestControllerTest {
         assertNotNull(ex);
     }
 
+    @Test
+    void addSongMetadata_duplicateResourceIdIsConflict() {
+        SongDTO dto = new SongDTO();
+        dto.setResourceId(5);
+        SongEntity entity = new SongEntity();
+
+        when(songService.checkValidity(dto)).thenReturn(new ValidationErrorResponse());
+        when(songService.checkMissingFields(dto)).thenReturn(new ErrorResponse());
+        when(songMapper.mapToEntity(dto)).thenReturn(entity);
+        when(songService.addSong(entity)).thenThrow(new DataIntegrityViolationException("song_resource_id_uidx"));
+        when(songService.prepareErrorResponse("Metadata for resource ID=5 already exists", "409")).thenReturn(new ErrorResponse());
+
+        assertThrows(ConflictDataException.class, () -> controller.addSongMetadata(dto));
+    }
+
     @Test
     void addSongMetadata_invalidData() {
         SongDTO dto = new SongDTO();
@@ -74,6 +91,18 @@ class SongRestControllerTest {
         assertEquals("Invalid", ex.getErrorResponse().getErrorMessage());
     }
 
+    @Test
+    void addSongsMetadata_returnsPerItemResults() {
+        List<SongDTO> dtos = List.of(new SongDTO(), new SongDTO());
+        List<SongBatchItemResult> results = List.of(SongBatchItemResult.created(1, 10), SongBatchItemResult.conflict(2));
+        when(songService.addSongs(dtos)).thenReturn(results);
+
+        ResponseEntity<List<SongBatchItemResult>> response = controller.addSongsMetadata(dtos);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(results, response.getBody());
+    }
+
     @Test
     void getSongMetadata_success() {
         SongEntity entity = new SongEntity();
@@ -133,4 +162,16 @@ class SongRestControllerTest {
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(Arrays.asList(1, 2), response.getBody().get("ids"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteSongsMetadataByResourceIds_success() {
+        Map<String, List<Integer>> result = new HashMap<>();
+        result.put("ids", Arrays.asList(7, 8));
+        when(songService.deleteSongsByResourceIds("70,80")).thenReturn(result);
+
+        ResponseEntity<Map<String, List<Integer>>> response = controller.deleteSongsMetadataByResourceIds("70,80");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(Arrays.asList(7, 8), response.getBody().get("ids"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.songservice.repository;
+
+import com.example.songservice.entity.SongEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query count and latency of removing songs by ID on PostgreSQL: the former existsById + deleteById loop of
+ * SongService.deleteSongByIds against the single {@code DELETE ... WHERE id = ANY(?) RETURNING id} at 1, 50 and 200
+ * IDs. StorageMetadataService.deleteStorageMetadataByIds issues the same statement shape against its storage table.
+ * <p>
+ * Needs Docker; skipped unless run with {@code mvn test -Dtest=SongDeleteBenchmarkTest -Dbenchmark=true}.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SongDeleteBenchmarkTest {
+
+    private static final Logger LOGGER = LogManager.getLogger(SongDeleteBenchmarkTest.class);
+    private static final int ROUNDS = 5;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired
+    private SongRepository songRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 200})
+    void setBasedDeleteIssuesOneStatement(int idCount) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long perIdNanos = 0;
+        long perIdStatements = 0;
+        long setBasedNanos = 0;
+        long setBasedStatements = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Integer> perIdIds = insertSongs(idCount);
+            statistics.clear();
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> perIdIds.forEach(id -> {
+                if (songRepository.existsById(id)) {
+                    songRepository.deleteById(id);
+                }
+            }));
+            perIdNanos += System.nanoTime() - start;
+            perIdStatements += statistics.getPrepareStatementCount();
+
+            List<Integer> setBasedIds = insertSongs(idCount);
+            statistics.clear();
+            start = System.nanoTime();
+            List<Integer> removedIds = songRepository.deleteByIds(setBasedIds.toArray(Integer[]::new));
+            setBasedNanos += System.nanoTime() - start;
+            setBasedStatements += statistics.getPrepareStatementCount();
+            assertThat(removedIds).containsExactlyInAnyOrderElementsOf(setBasedIds);
+        }
+
+        LOGGER.info("{} IDs: per-ID loop {} statements in {} us, set-based {} statements in {} us", idCount,
+                perIdStatements / ROUNDS, perIdNanos / ROUNDS / 1_000, setBasedStatements / ROUNDS,
+                setBasedNanos / ROUNDS / 1_000);
+        assertThat(setBasedStatements / ROUNDS).isEqualTo(1);
+        assertThat(perIdStatements / ROUNDS).isGreaterThanOrEqualTo(2L * idCount);
+    }
+
+    private List<Integer> insertSongs(int count) {
+        List<SongEntity> songs = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> {
+            SongEntity song = new SongEntity();
+            song.setName("Benchmark song " + i);
+            song.setArtist("Benchmark artist");
+            songs.add(song);
+        });
+        return songRepository.saveAll(songs).stream().map(SongEntity::getId).toList();
+    }
+}
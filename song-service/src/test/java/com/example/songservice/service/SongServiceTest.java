@@ -1,28 +1,41 @@
 package com.example.songservice.service;
 
+import com.example.songservice.cache.SongCache;
 import com.example.songservice.dto.SongDTO;
 import com.example.songservice.entity.SongEntity;
 import com.example.songservice.exception.InvalidDataException;
 import com.example.songservice.exception.NotFoundException;
+import com.example.songservice.mapper.SongMapper;
 import com.example.songservice.model.ErrorResponse;
+import com.example.songservice.model.SongBatchItemResult;
 import com.example.songservice.model.ValidationErrorResponse;
 import com.example.songservice.repository.SongRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SongServiceTest {
     @Mock
     private SongRepository songRepository;
+    @Spy
+    private SongMapper songMapper = new SongMapper();
+    @Spy
+    private SongCache songCache = new SongCache(new SimpleMeterRegistry(), true, 100, 600, Optional.empty());
 
     @InjectMocks
     private SongService songService;
@@ -36,13 +49,107 @@ class SongServiceTest {
         verify(songRepository).save(song);
     }
 
+    @Test
+    void addSongs_reportsResultPerItemInRequestOrder() {
+        ReflectionTestUtils.setField(songService, "maxBatchSize", 500);
+        SongDTO invalidDuration = song(2);
+        invalidDuration.setDuration("1:2");
+        List<SongDTO> songs = List.of(song(1), invalidDuration, song(3), song(1), song(4));
+        when(songRepository.findExistingResourceIds(anyCollection())).thenReturn(List.of(3));
+        when(songRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<SongEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId(entity.getResourceId() + 100));
+            return entities;
+        });
+
+        List<SongBatchItemResult> results = songService.addSongs(songs);
+
+        assertEquals(List.of(SongBatchItemResult.Status.CREATED, SongBatchItemResult.Status.INVALID,
+                SongBatchItemResult.Status.CONFLICT, SongBatchItemResult.Status.CONFLICT,
+                SongBatchItemResult.Status.CREATED), results.stream().map(SongBatchItemResult::status).toList());
+        assertEquals(101, results.get(0).id());
+        assertEquals("Validation error", results.get(1).errorMessage());
+        assertEquals(104, results.get(4).id());
+        verify(songRepository, times(1)).saveAll(anyList());
+        verify(songRepository, never()).save(any());
+    }
+
+    @Test
+    void addSongs_concurrentInsertFallsBackToConflictFreeInserts() {
+        ReflectionTestUtils.setField(songService, "maxBatchSize", 500);
+        when(songRepository.findExistingResourceIds(anyCollection())).thenReturn(List.of());
+        when(songRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("song_resource_id_uidx"));
+        when(songRepository.insertIfResourceAbsent(any(), any(), any(), any(), any(), eq(1))).thenReturn(List.of(7));
+        when(songRepository.insertIfResourceAbsent(any(), any(), any(), any(), any(), eq(2))).thenReturn(List.of());
+
+        List<SongBatchItemResult> results = songService.addSongs(List.of(song(1), song(2)));
+
+        assertEquals(SongBatchItemResult.created(1, 7), results.get(0));
+        assertEquals(SongBatchItemResult.conflict(2), results.get(1));
+        verify(songRepository, never()).save(any());
+    }
+
+    @Test
+    void addSongs_missingNameReportedLikeSingleInsert() {
+        ReflectionTestUtils.setField(songService, "maxBatchSize", 500);
+        SongDTO missingName = song(1);
+        missingName.setName("");
+        when(songRepository.findExistingResourceIds(anyCollection())).thenReturn(List.of());
+        when(songRepository.saveAll(anyList())).thenReturn(List.of());
+
+        List<SongBatchItemResult> results = songService.addSongs(List.of(missingName));
+
+        assertEquals(SongBatchItemResult.invalid(1, songService.checkMissingFields(missingName).getErrorMessage()),
+                results.get(0));
+    }
+
+    @Test
+    void addSongs_tooLargeBatchRejected() {
+        ReflectionTestUtils.setField(songService, "maxBatchSize", 1);
+
+        assertThrows(InvalidDataException.class, () -> songService.addSongs(List.of(song(1), song(2))));
+        verifyNoInteractions(songRepository);
+    }
+
     @Test
     void getSong_validId() {
         SongEntity song = new SongEntity();
-        when(songRepository.existsById(1)).thenReturn(true);
         when(songRepository.findById(1)).thenReturn(Optional.of(song));
         Optional<SongEntity> result = songService.getSong(1);
         assertTrue(result.isPresent());
+        verify(songRepository, never()).existsById(anyInt());
+    }
+
+    @Test
+    void getSong_servedFromCacheAfterFirstRead() {
+        SongEntity song = new SongEntity();
+        song.setId(1);
+        song.setResourceId(10);
+        song.setName("Cached");
+        when(songRepository.findById(1)).thenReturn(Optional.of(song));
+
+        songService.getSong(1);
+        Optional<SongEntity> byId = songService.getSong(1);
+        Optional<SongEntity> byResourceId = songService.getSongByResourceId(10);
+
+        assertEquals("Cached", byId.orElseThrow().getName());
+        assertEquals(1, byResourceId.orElseThrow().getId());
+        verify(songRepository, times(1)).findById(1);
+        verify(songRepository, never()).findByResourceId(anyInt());
+    }
+
+    @Test
+    void deleteSongByIds_evictsCachedSongs() {
+        SongEntity song = new SongEntity();
+        song.setId(1);
+        when(songRepository.save(song)).thenReturn(song);
+        when(songRepository.deleteByIds(new Integer[]{1})).thenReturn(List.of(1));
+        when(songRepository.findById(1)).thenReturn(Optional.empty());
+
+        songService.addSong(song);
+        songService.deleteSongByIds("1");
+
+        assertThrows(NotFoundException.class, () -> songService.getSong(1));
     }
 
     @Test
@@ -52,7 +159,7 @@ class SongServiceTest {
 
     @Test
     void getSong_notFound() {
-        when(songRepository.existsById(99)).thenReturn(false);
+        when(songRepository.findById(99)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> songService.getSong(99));
     }
 
@@ -60,14 +167,15 @@ class SongServiceTest {
     void getSongByResourceId_found() {
         SongEntity song = new SongEntity();
         song.setResourceId(123);
-        when(songRepository.findAll()).thenReturn(Collections.singletonList(song));
+        when(songRepository.findByResourceId(123)).thenReturn(Optional.of(song));
         Optional<SongEntity> result = songService.getSongByResourceId(123);
         assertTrue(result.isPresent());
+        verify(songRepository, never()).findAll();
     }
 
     @Test
     void getSongByResourceId_notFound() {
-        when(songRepository.findAll()).thenReturn(Collections.emptyList());
+        when(songRepository.findByResourceId(123)).thenReturn(Optional.empty());
         Optional<SongEntity> result = songService.getSongByResourceId(123);
         assertFalse(result.isPresent());
     }
@@ -80,10 +188,11 @@ class SongServiceTest {
 
     @Test
     void deleteSongByIds_valid() {
-        when(songRepository.existsById(anyInt())).thenReturn(true);
-        doNothing().when(songRepository).deleteById(anyInt());
-        Map<String, List<Integer>> result = songService.deleteSongByIds("1,2");
+        when(songRepository.deleteByIds(new Integer[]{1, 2, 3, 2})).thenReturn(List.of(2, 1));
+        Map<String, List<Integer>> result = songService.deleteSongByIds("1,2,3,2");
         assertEquals(Arrays.asList(1,2), result.get("ids"));
+        verify(songRepository, never()).existsById(anyInt());
+        verify(songRepository, never()).deleteById(anyInt());
     }
 
     @Test
@@ -91,6 +200,34 @@ class SongServiceTest {
         assertThrows(InvalidDataException.class, () -> songService.deleteSongByIds("abc"));
     }
 
+    @Test
+    void deleteSongByIds_validatesAllIdsBeforeDeleting() {
+        assertThrows(InvalidDataException.class, () -> songService.deleteSongByIds("1,2,0"));
+        verifyNoInteractions(songRepository);
+    }
+
+    @Test
+    void deleteSongsByResourceIds_singleStatement() {
+        ReflectionTestUtils.setField(songService, "maxBatchSize", 500);
+        when(songRepository.deleteByResourceIds(new Integer[]{10, 20, 30})).thenReturn(List.of(1, 3));
+
+        Map<String, List<Integer>> result = songService.deleteSongsByResourceIds("10,20,30");
+
+        assertEquals(List.of(1, 3), result.get("ids"));
+        verify(songRepository, never()).existsById(anyInt());
+        verify(songRepository, never()).deleteById(anyInt());
+    }
+
+    @Test
+    void deleteSongsByResourceIds_rejectsInvalidOrTooManyIds() {
+        ReflectionTestUtils.setField(songService, "maxBatchSize", 2);
+
+        assertThrows(InvalidDataException.class, () -> songService.deleteSongsByResourceIds("1,x"));
+        assertThrows(InvalidDataException.class, () -> songService.deleteSongsByResourceIds("1,-2"));
+        assertThrows(InvalidDataException.class, () -> songService.deleteSongsByResourceIds("1,2,3"));
+        verifyNoInteractions(songRepository);
+    }
+
     @Test
     void existById() {
         when(songRepository.existsById(1)).thenReturn(true);
@@ -142,4 +279,14 @@ class SongServiceTest {
         assertEquals("msg", response.getErrorMessage());
         assertEquals("400", response.getErrorCode());
     }
-}
\ No newline at end of file
+
+    private static SongDTO song(Integer resourceId) {
+        SongDTO dto = new SongDTO();
+        dto.setName("Song " + resourceId);
+        dto.setArtist("Artist");
+        dto.setDuration("03:15");
+        dto.setYear("2001");
+        dto.setResourceId(resourceId);
+        return dto;
+    }
+}
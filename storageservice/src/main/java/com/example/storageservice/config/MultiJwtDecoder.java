@@ -1,33 +1,159 @@
 package com.example.storageservice.config;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 
-import java.util.List;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 /**
- * Tries multiple JwtDecoders in order until one succeeds
+ * Picks the HS256 or the JWKS decoder from the token's {@code alg} header instead of trying them in turn, and keeps
+ * verified tokens in a bounded LRU keyed by the SHA-256 of the whole token (signature included) until their
+ * {@code exp}. Key selection by {@code kid} is left to the JWKS decoder's key source. Cache hits and misses are tagged
+ * with the decoder that verified the token, so the HS256 and JWKS hit rates can be told apart.
  */
 public class MultiJwtDecoder implements JwtDecoder {
 
-  private final List<JwtDecoder> decoders;
+  private static final Logger LOGGER = LogManager.getLogger(MultiJwtDecoder.class);
+  private static final String HMAC_DECODER = "hmac";
+  private static final String JWKS_DECODER = "jwks";
 
-  public MultiJwtDecoder(List<JwtDecoder> decoders) {
-    this.decoders = decoders;
+  private final JwtDecoder hmacDecoder;
+  private final JwtDecoder jwksDecoder;
+  private final int maxCachedTokens;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true);
+
+  public MultiJwtDecoder(JwtDecoder hmacDecoder, JwtDecoder jwksDecoder, int maxCachedTokens,
+      MeterRegistry meterRegistry) {
+    this.hmacDecoder = hmacDecoder;
+    this.jwksDecoder = jwksDecoder;
+    this.maxCachedTokens = maxCachedTokens;
+    this.meterRegistry = meterRegistry;
+    Gauge.builder("jwt.cache.entries", this, MultiJwtDecoder::getCachedTokenCount)
+        .description("Verified tokens currently cached")
+        .register(meterRegistry);
   }
 
   @Override
   public Jwt decode(String token) throws JwtException {
-    JwtException lastException = null;
-    for (JwtDecoder decoder : decoders) {
-      try {
-        return decoder.decode(token);
-      } catch (JwtException e) {
-        lastException = e; // remember last exception
-      }
-    }
-    // if none worked, throw the last exception
-    throw lastException != null ? lastException : new JwtException("No decoders configured");
+    String cacheKey = hash(token);
+    VerifiedToken cached = cachedToken(cacheKey);
+    if (Objects.nonNull(cached)) {
+      cacheCounter("jwt.cache.hits", "Tokens accepted from the verified-token cache", cached.decoderName())
+          .increment();
+      return cached.jwt();
+    }
+    JWSAlgorithm algorithm = parseHeader(token).getAlgorithm();
+    String decoderName;
+    JwtDecoder decoder;
+    if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+      decoderName = HMAC_DECODER;
+      decoder = hmacDecoder;
+    } else if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+      decoderName = JWKS_DECODER;
+      decoder = jwksDecoder;
+    } else {
+      throw new BadJwtException("Unsupported JWS algorithm: " + algorithm);
+    }
+    cacheCounter("jwt.cache.misses", "Tokens that needed a signature check", decoderName).increment();
+    Jwt jwt = decodeTimed(decoderName, decoder, token);
+    cacheToken(cacheKey, new VerifiedToken(jwt, decoderName));
+    return jwt;
+  }
+
+  public synchronized int getCachedTokenCount() {
+    return verifiedTokens.size();
+  }
+
+  private Jwt decodeTimed(String decoderName, JwtDecoder decoder, String token) {
+    Timer.Sample sample = Timer.start();
+    String outcome = "failure";
+    try {
+      Jwt jwt = decoder.decode(token);
+      outcome = "success";
+      return jwt;
+    } finally {
+      sample.stop(Timer.builder("jwt.decode")
+          .description("Signature and claim verification time per decoder")
+          .tag("decoder", decoderName)
+          .tag("outcome", outcome)
+          .register(meterRegistry));
+    }
+  }
+
+  private Counter cacheCounter(String name, String description, String decoderName) {
+    return Counter.builder(name)
+        .description(description)
+        .tag("decoder", decoderName)
+        .register(meterRegistry);
+  }
+
+  private synchronized VerifiedToken cachedToken(String cacheKey) {
+    VerifiedToken verified = verifiedTokens.get(cacheKey);
+    if (Objects.nonNull(verified) && !Instant.now().isBefore(verified.jwt().getExpiresAt())) {
+      verifiedTokens.remove(cacheKey);
+      return null;
+    }
+    return verified;
+  }
+
+  // Tokens without exp are verified on every request
+  private synchronized void cacheToken(String cacheKey, VerifiedToken verified) {
+    if (maxCachedTokens <= 0 || Objects.isNull(verified.jwt().getExpiresAt())) {
+      return;
+    }
+    verifiedTokens.put(cacheKey, verified);
+    Iterator<String> eldest = verifiedTokens.keySet().iterator();
+    while (verifiedTokens.size() > maxCachedTokens && eldest.hasNext()) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  private static JWSHeader parseHeader(String token) {
+    int headerEnd = token.indexOf('.');
+    if (headerEnd <= 0) {
+      throw new BadJwtException("Malformed token");
+    }
+    try {
+      return JWSHeader.parse(new Base64URL(token.substring(0, headerEnd)));
+    } catch (ParseException e) {
+      LOGGER.debug("Rejecting token with unreadable header: {}", e.getMessage());
+      throw new BadJwtException("Malformed token header", e);
+    }
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private record VerifiedToken(Jwt jwt, String decoderName) {
   }
 }
@@ -1,7 +1,12 @@
 package com.example.storageservice.config;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -14,10 +19,22 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.util.ArrayList;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Configuration
@@ -25,10 +42,18 @@ import java.util.stream.Collectors;
 public class SecurityConfig {
   private static final String HS256_SECRET = "3nK1U1Rkj7v5yN5dxq5FZJx2yB3hG9K0mFqk5N8Vh8c=";
   private static final String JWKS_URI = "http://host.docker.internal:9000/.well-known/jwks.json";
+  private static final Logger LOGGER = LogManager.getLogger(SecurityConfig.class);
+  @Value("${security.jwt.cache.max-entries:10000}")
+  private int tokenCacheMaxEntries;
+  @Value("${security.jwt.jwks.cache-ttl-seconds:300}")
+  private long jwksCacheTtlSeconds;
+  @Value("${security.jwt.jwks.refresh-ahead-seconds:30}")
+  private long jwksRefreshAheadSeconds;
 
 
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationConverter jwtConverter) throws Exception {
+  public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationConverter jwtConverter,
+      JwtDecoder delegatingJwtDecoder) throws Exception {
     http.csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(auth -> auth
             // endpoint patterns and HTTP method security
@@ -40,7 +65,7 @@ public class SecurityConfig {
         )
     .oauth2ResourceServer(oauth2 -> oauth2
         .jwt(jwt -> jwt
-            .decoder(delegatingJwtDecoder())
+            .decoder(delegatingJwtDecoder)
             .jwtAuthenticationConverter(jwtConverter)
         )
     );
@@ -49,23 +74,49 @@ public class SecurityConfig {
   }
 
   /**
-   * DelegatingJwtDecoder tries multiple decoders in order until one succeeds
+   * Routes each token to the HS256 or the JWKS decoder by its alg header and caches verified tokens until they expire
    */
   @Bean
-  public JwtDecoder delegatingJwtDecoder() {
-    List<JwtDecoder> decoders = new ArrayList<>();
-
+  public JwtDecoder delegatingJwtDecoder(JWKSource<SecurityContext> jwkSource, MeterRegistry meterRegistry) {
     // 1️⃣ HS256 decoder (shared secret)
     NimbusJwtDecoder hsDecoder = NimbusJwtDecoder
         .withSecretKey(new javax.crypto.spec.SecretKeySpec(HS256_SECRET.getBytes(), "HmacSHA256"))
         .build();
-    decoders.add(hsDecoder);
 
     // 2️⃣ RS256 decoder (JWKS from auth server)
-    NimbusJwtDecoder rsDecoder = NimbusJwtDecoder.withJwkSetUri(JWKS_URI).build();
-    decoders.add(rsDecoder);
+    DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+    jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.Family.RSA, jwkSource));
+    // claims are checked by the Spring validators of NimbusJwtDecoder, as with withJwkSetUri()
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+    });
+    NimbusJwtDecoder rsDecoder = new NimbusJwtDecoder(jwtProcessor);
+
+    return new MultiJwtDecoder(hsDecoder, rsDecoder, tokenCacheMaxEntries, meterRegistry);
+  }
+
+  /**
+   * Auth server keys, cached for {@code security.jwt.jwks.cache-ttl-seconds} and refreshed in the background shortly
+   * before they expire. A token signed with an unknown kid triggers a rate-limited reload, which picks up rotated keys.
+   */
+  @Bean
+  public JWKSource<SecurityContext> jwkSource() throws MalformedURLException {
+    return JWKSourceBuilder.<SecurityContext>create(new URL(JWKS_URI))
+        .cache(TimeUnit.SECONDS.toMillis(jwksCacheTtlSeconds), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+        .refreshAheadCache(TimeUnit.SECONDS.toMillis(jwksRefreshAheadSeconds), true)
+        .retrying(true)
+        .build();
+  }
 
-    return new MultiJwtDecoder(decoders);
+  // Loads the keys before the first RS256 request needs them
+  @EventListener(ApplicationReadyEvent.class)
+  public void prefetchJwks() {
+    try {
+      // the configuration proxy hands back the jwkSource singleton
+      int keys = jwkSource().get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+      LOGGER.info("Prefetched {} keys from {}", keys, JWKS_URI);
+    } catch (Exception e) {
+      LOGGER.warn("Could not prefetch keys from {}, they will be loaded on first use: {}", JWKS_URI, e.getMessage());
+    }
   }
 
   @Bean
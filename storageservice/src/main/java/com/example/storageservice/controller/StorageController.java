@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +19,7 @@ import com.example.storageservice.dto.StorageRequest;
 import com.example.storageservice.dto.StorageResponse;
 import com.example.storageservice.entity.StorageEntity;
 import com.example.storageservice.mapper.StorageMapper;
+import com.example.storageservice.model.StoragesSnapshot;
 import com.example.storageservice.service.StorageMetadataService;
 
 import jakarta.validation.Valid;
@@ -42,9 +44,14 @@ public class StorageController {
     return ResponseEntity.ok(result);
   }
 
+  /**
+   * Spring MVC compares the ETag with If-None-Match and answers 304 without writing the body when they match.
+   * no-cache replaces Spring Security's no-store, so the gateway may keep the list as long as it revalidates it.
+   */
   @GetMapping
   public ResponseEntity<List<StorageResponse>> getStoragesMetadata() {
-    return ResponseEntity.ok(storageMapper.toResponseList(service.findStoragesMetadata()));
+    StoragesSnapshot snapshot = service.getStoragesSnapshot();
+    return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(snapshot.etag()).body(snapshot.storages());
   }
 
   @DeleteMapping
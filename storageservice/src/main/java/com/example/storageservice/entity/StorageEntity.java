@@ -18,7 +18,8 @@ public class StorageEntity {
 
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "storage_seq")
-  @SequenceGenerator(name = "storage_seq", sequenceName = "storage_seq", allocationSize = 1)
+  // Same step as storage_seq (INCREMENT BY 50) so the pooled optimizer never hands out an id twice
+  @SequenceGenerator(name = "storage_seq", sequenceName = "storage_seq", allocationSize = 50)
   private Integer id;
   @Enumerated(EnumType.STRING)
   @Column(name = "storage_type", nullable = false, length = 255)
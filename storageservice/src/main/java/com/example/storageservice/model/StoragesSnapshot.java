@@ -0,0 +1,37 @@
+package com.example.storageservice.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.example.storageservice.dto.StorageResponse;
+
+/**
+ * The storage list as served by {@code GET /storages}, together with a strong entity tag derived from its content.
+ */
+public record StoragesSnapshot(List<StorageResponse> storages, String etag, long builtAtNanos) {
+
+  public static StoragesSnapshot of(List<StorageResponse> storages) {
+    return new StoragesSnapshot(List.copyOf(storages), etagOf(storages), System.nanoTime());
+  }
+
+  // Same rows give the same tag on every replica, whatever order the database returned them in
+  private static String etagOf(List<StorageResponse> storages) {
+    StringBuilder content = new StringBuilder();
+    storages.stream()
+        .sorted(Comparator.comparing(StorageResponse::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+        .forEach(storage -> content.append(storage.getId()).append('|')
+            .append(storage.getStorageType()).append('|')
+            .append(storage.getBucket()).append('|')
+            .append(storage.getPath()).append('\n'));
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+      return "\"" + HexFormat.of().formatHex(digest) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
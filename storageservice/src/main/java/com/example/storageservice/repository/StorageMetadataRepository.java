@@ -1,12 +1,21 @@
 package com.example.storageservice.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.storageservice.entity.StorageEntity;
 import com.example.storageservice.model.StorageType;
 
 public interface StorageMetadataRepository extends JpaRepository<StorageEntity, Integer> {
   Optional<StorageEntity> findByStorageType(StorageType storageType);
+
+  // One statement for the whole request; RETURNING tells which of the IDs existed
+  @Transactional
+  @Query(value = "DELETE FROM storage WHERE id = ANY(:ids) RETURNING CAST(id AS INTEGER)", nativeQuery = true)
+  List<Integer> deleteByIds(@Param("ids") Integer[] ids);
 }
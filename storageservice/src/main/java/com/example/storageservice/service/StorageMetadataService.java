@@ -1,20 +1,26 @@
 package com.example.storageservice.service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.storageservice.entity.StorageEntity;
 import com.example.storageservice.exception.DatabaseException;
 import com.example.storageservice.exception.InvalidDataException;
+import com.example.storageservice.mapper.StorageMapper;
+import com.example.storageservice.model.StoragesSnapshot;
 import com.example.storageservice.repository.StorageMetadataRepository;
 import com.example.storageservice.util.DataPreparerService;
 
@@ -33,12 +39,19 @@ public class StorageMetadataService {
   private final StorageMetadataRepository repository;
   private final DataPreparerService dataPreparerService;
   private final Retry retryDBOperationConfig;
+  private final StorageMapper storageMapper;
+  // Rows written behind this instance's back (other replicas, init scripts) show up after at most this long
+  @Value("${storages.snapshot.max-age-seconds:300}")
+  private long snapshotMaxAgeSeconds;
+  private final Object snapshotLock = new Object();
+  private volatile StoragesSnapshot storagesSnapshot;
 
   public StorageMetadataService(StorageMetadataRepository repository, DataPreparerService dataPreparerService,
-      @Qualifier("retryDBOperationConfig") Retry retryDBOperationConfig) {
+      @Qualifier("retryDBOperationConfig") Retry retryDBOperationConfig, StorageMapper storageMapper) {
     this.repository = repository;
     this.dataPreparerService = dataPreparerService;
     this.retryDBOperationConfig = retryDBOperationConfig;
+    this.storageMapper = storageMapper;
   }
 
   public StorageEntity addStorageMetadata(StorageEntity storageEntity) {
@@ -50,6 +63,27 @@ public class StorageMetadataService {
       LOGGER.error("All retries failed while saving storage", e);
       throw new DatabaseException(
           dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
+    } finally {
+      invalidateStoragesSnapshot();
+    }
+  }
+
+  /**
+   * Serves the storage list from memory. The snapshot is dropped whenever this service adds or deletes storages and
+   * rebuilt by the next read, so repeated polls cost neither a query nor a mapping pass.
+   */
+  public StoragesSnapshot getStoragesSnapshot() {
+    StoragesSnapshot current = storagesSnapshot;
+    if (isFresh(current)) {
+      return current;
+    }
+    synchronized (snapshotLock) {
+      current = storagesSnapshot;
+      if (!isFresh(current)) {
+        current = StoragesSnapshot.of(storageMapper.toResponseList(findStoragesMetadata()));
+        storagesSnapshot = current;
+      }
+      return current;
     }
   }
 
@@ -65,23 +99,23 @@ public class StorageMetadataService {
     }
   }
 
+  /**
+   * Validates every ID up front and then deletes them all with a single DELETE ... RETURNING statement. The response
+   * lists the IDs that existed, in request order.
+   */
   public Map<String, List<Integer>> deleteStorageMetadataByIds(final String id) {
-    validateResourceIds(id);
-    String[] ids = (id != null && !id.isBlank()) ? id.split(",") : new String[]{};
-    List<Integer> removedIds = new LinkedList<>();
-    for (String param : ids) {
-      Integer resourceId = Integer.valueOf(param);
-      Optional<StorageEntity> storage = repository.findById(resourceId);
-      if (storage.isPresent()) {
-        try {
-          repository.delete(storage.get());
-          removedIds.add(resourceId);
-        } catch (Exception e) {
-          LOGGER.error("Unexpected error occurred while deleting resource for resource ID={}. Error: {}", resourceId,
-              e.getMessage(), e);
-          throw new DatabaseException(
-              dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
-        }
+    List<Integer> ids = parseResourceIds(id);
+    List<Integer> removedIds = List.of();
+    if (!ids.isEmpty()) {
+      try {
+        Set<Integer> deletedIds = new HashSet<>(repository.deleteByIds(ids.toArray(Integer[]::new)));
+        removedIds = ids.stream().distinct().filter(deletedIds::contains).toList();
+      } catch (Exception e) {
+        LOGGER.error("Unexpected error occurred while deleting storages with IDs={}. Error: {}", ids, e.getMessage(), e);
+        throw new DatabaseException(
+            dataPreparerService.prepareErrorResponse(DATABASE_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_RESPONSE_CODE));
+      } finally {
+        invalidateStoragesSnapshot();
       }
     }
     final Map<String, List<Integer>> responseObject = new HashMap<>();
@@ -89,13 +123,26 @@ public class StorageMetadataService {
     return responseObject;
   }
 
-  private void validateResourceIds(String id) {
+  // Runs after the write has committed; taking the lock waits out a rebuild that may have read the old rows
+  private void invalidateStoragesSnapshot() {
+    synchronized (snapshotLock) {
+      storagesSnapshot = null;
+    }
+  }
+
+  private boolean isFresh(StoragesSnapshot snapshot) {
+    return Objects.nonNull(snapshot)
+        && System.nanoTime() - snapshot.builtAtNanos() < TimeUnit.SECONDS.toNanos(snapshotMaxAgeSeconds);
+  }
+
+  private List<Integer> parseResourceIds(String id) {
     if (Objects.nonNull(id) && id.length() > 200) {
       throw new InvalidDataException(
           dataPreparerService.prepareErrorResponse(String.format(BAD_REQUEST_CSV_TOO_LONG_ERROR_MESSAGE, id.length()),
               BAD_REQUEST_RESPONSE_CODE));
     }
     String[] ids = (id != null && !id.isBlank()) ? id.split(",") : new String[]{};
+    List<Integer> parsedIds = new ArrayList<>(ids.length);
     for (String param : ids) {
       if (!isNumeric(param)) {
         throw new InvalidDataException(
@@ -107,7 +154,9 @@ public class StorageMetadataService {
             dataPreparerService.prepareErrorResponse(String.format(BAD_REQUEST_INCORRECT_NUMBER_ERROR_MESSAGE, param),
                 BAD_REQUEST_RESPONSE_CODE));
       }
+      parsedIds.add(Integer.valueOf(param));
     }
+    return parsedIds;
   }
 
   private boolean isNumeric(final String value) {
@@ -0,0 +1,195 @@
+package com.example.storageservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MultiJwtDecoderTest {
+
+    private static final int MAX_CACHED_TOKENS = 2;
+
+    @Mock
+    private JwtDecoder hmacDecoder;
+    @Mock
+    private JwtDecoder jwksDecoder;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MultiJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new MultiJwtDecoder(hmacDecoder, jwksDecoder, MAX_CACHED_TOKENS, meterRegistry);
+    }
+
+    @Test
+    void decode_hs256GoesOnlyToHmacDecoder() {
+        String token = token("HS256", "sig");
+        Jwt jwt = jwt(token, Instant.now().plusSeconds(60));
+        when(hmacDecoder.decode(token)).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode(token));
+
+        verifyNoInteractions(jwksDecoder);
+        assertEquals(1.0, meterRegistry.get("jwt.cache.misses").tag("decoder", "hmac").counter().count());
+    }
+
+    @Test
+    void decode_rs256GoesOnlyToJwksDecoder() {
+        String token = token("RS256", "sig");
+        Jwt jwt = jwt(token, Instant.now().plusSeconds(60));
+        when(jwksDecoder.decode(token)).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode(token));
+
+        verifyNoInteractions(hmacDecoder);
+        assertEquals(1.0, meterRegistry.get("jwt.cache.misses").tag("decoder", "jwks").counter().count());
+    }
+
+    @Test
+    void decode_unsupportedAlgorithmIsRejected() {
+        assertThrows(BadJwtException.class, () -> decoder.decode(token("ES256", "sig")));
+
+        verifyNoInteractions(hmacDecoder, jwksDecoder);
+    }
+
+    @Test
+    void decode_malformedHeaderIsRejected() {
+        String notJson = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("not-json".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("no-dots-at-all"));
+        assertThrows(BadJwtException.class, () -> decoder.decode(notJson + ".payload.sig"));
+        assertThrows(BadJwtException.class, () -> decoder.decode(token("none", "")));
+
+        verifyNoInteractions(hmacDecoder, jwksDecoder);
+    }
+
+    @Test
+    void decode_repeatedTokenIsServedFromCache() {
+        String token = token("HS256", "sig");
+        Jwt jwt = jwt(token, Instant.now().plusSeconds(60));
+        when(hmacDecoder.decode(token)).thenReturn(jwt);
+
+        decoder.decode(token);
+        assertSame(jwt, decoder.decode(token));
+
+        verify(hmacDecoder, times(1)).decode(token);
+        assertEquals(1.0, meterRegistry.get("jwt.cache.hits").tag("decoder", "hmac").counter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.cache.misses").tag("decoder", "hmac").counter().count());
+    }
+
+    @Test
+    void decode_changedSignatureIsVerifiedAgain() {
+        String token = token("HS256", "sig");
+        String tampered = token("HS256", "forged");
+        when(hmacDecoder.decode(token)).thenReturn(jwt(token, Instant.now().plusSeconds(60)));
+        when(hmacDecoder.decode(tampered)).thenThrow(new BadJwtException("Invalid signature"));
+
+        decoder.decode(token);
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(tampered));
+        verify(hmacDecoder).decode(tampered);
+        assertEquals(1, decoder.getCachedTokenCount());
+    }
+
+    @Test
+    void decode_entryIsNotServedOnceExpReached() {
+        String token = token("HS256", "sig");
+        when(hmacDecoder.decode(token)).thenReturn(jwt(token, Instant.now().minusSeconds(1)));
+
+        decoder.decode(token);
+        decoder.decode(token);
+
+        verify(hmacDecoder, times(2)).decode(token);
+        assertTrue(meterRegistry.find("jwt.cache.hits").counters().isEmpty());
+    }
+
+    @Test
+    void decode_tokenWithoutExpIsNotCached() {
+        String token = token("RS256", "sig");
+        when(jwksDecoder.decode(token)).thenReturn(jwt(token, null));
+
+        decoder.decode(token);
+        decoder.decode(token);
+
+        verify(jwksDecoder, times(2)).decode(token);
+        assertEquals(0, decoder.getCachedTokenCount());
+    }
+
+    @Test
+    void decode_evictsLeastRecentlyUsedTokenBeyondMaxEntries() {
+        when(hmacDecoder.decode(anyString()))
+                .thenAnswer(invocation -> jwt(invocation.getArgument(0), Instant.now().plusSeconds(60)));
+        String first = token("HS256", "first");
+        String second = token("HS256", "second");
+        String third = token("HS256", "third");
+
+        decoder.decode(first);
+        decoder.decode(second);
+        decoder.decode(first);
+        decoder.decode(third);
+
+        assertEquals(MAX_CACHED_TOKENS, decoder.getCachedTokenCount());
+        decoder.decode(first);
+        decoder.decode(third);
+        verify(hmacDecoder, times(1)).decode(first);
+        verify(hmacDecoder, times(1)).decode(third);
+        decoder.decode(second);
+        verify(hmacDecoder, times(2)).decode(second);
+    }
+
+    @Test
+    void decode_disabledCacheVerifiesEveryToken() {
+        decoder = new MultiJwtDecoder(hmacDecoder, jwksDecoder, 0, meterRegistry);
+        String token = token("HS256", "sig");
+        when(hmacDecoder.decode(token)).thenReturn(jwt(token, Instant.now().plusSeconds(60)));
+
+        decoder.decode(token);
+        decoder.decode(token);
+
+        verify(hmacDecoder, times(2)).decode(token);
+        verify(jwksDecoder, never()).decode(anyString());
+    }
+
+    private static String token(String algorithm, String signature) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString(
+                ("{\"alg\":\"" + algorithm + "\",\"typ\":\"JWT\"}").getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString("{\"sub\":\"user\"}".getBytes(StandardCharsets.UTF_8));
+        return header + "." + claims + "." + signature;
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("user");
+        if (expiresAt != null) {
+            builder.expiresAt(expiresAt);
+        }
+        return builder.build();
+    }
+}
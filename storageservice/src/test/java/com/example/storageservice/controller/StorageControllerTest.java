@@ -0,0 +1,73 @@
+package com.example.storageservice.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.storageservice.dto.StorageResponse;
+import com.example.storageservice.mapper.StorageMapper;
+import com.example.storageservice.model.StorageType;
+import com.example.storageservice.model.StoragesSnapshot;
+import com.example.storageservice.service.StorageMetadataService;
+
+@ExtendWith(MockitoExtension.class)
+class StorageControllerTest {
+
+    @Mock
+    private StorageMetadataService service;
+    @Mock
+    private StorageMapper storageMapper;
+
+    private MockMvc mockMvc;
+    private StoragesSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StorageController(service, storageMapper)).build();
+        StorageResponse staging = new StorageResponse();
+        staging.setId(1L);
+        staging.setStorageType(StorageType.STAGING);
+        staging.setBucket("staging-bucket");
+        staging.setPath("/files");
+        snapshot = StoragesSnapshot.of(List.of(staging));
+        when(service.getStoragesSnapshot()).thenReturn(snapshot);
+    }
+
+    @Test
+    void getStoragesMetadata_returnsListWithEtag() throws Exception {
+        mockMvc.perform(get("/storages"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$[0].bucket").value("staging-bucket"));
+    }
+
+    @Test
+    void getStoragesMetadata_matchingIfNoneMatchIsNotModifiedWithoutBody() throws Exception {
+        mockMvc.perform(get("/storages").header(HttpHeaders.IF_NONE_MATCH, snapshot.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getStoragesMetadata_staleIfNoneMatchReturnsList() throws Exception {
+        mockMvc.perform(get("/storages").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].storageType").value("STAGING"));
+    }
+}
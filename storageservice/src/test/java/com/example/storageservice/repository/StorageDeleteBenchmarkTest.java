@@ -0,0 +1,118 @@
+package com.example.storageservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.storageservice.entity.StorageEntity;
+import com.example.storageservice.model.StorageType;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Query count and latency of removing storages by ID on PostgreSQL: the former findById + delete loop of
+ * StorageMetadataService.deleteStorageMetadataByIds against the single {@code DELETE ... WHERE id = ANY(?) RETURNING id}
+ * at 1, 50 and 200 IDs, measured the same way as SongDeleteBenchmarkTest in song-service.
+ * <p>
+ * Needs Docker; skipped unless run with {@code mvn test -Dtest=StorageDeleteBenchmarkTest -Dbenchmark=true}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StorageDeleteBenchmarkTest {
+
+    private static final Logger LOGGER = LogManager.getLogger(StorageDeleteBenchmarkTest.class);
+    private static final int ROUNDS = 5;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @Autowired
+    private StorageMetadataRepository storageRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 200})
+    void setBasedDeleteIssuesOneStatement(int idCount) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long perIdNanos = 0;
+        long perIdStatements = 0;
+        long setBasedNanos = 0;
+        long setBasedStatements = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Integer> perIdIds = insertStorages(idCount);
+            statistics.clear();
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> perIdIds.forEach(id ->
+                    storageRepository.findById(id).ifPresent(storageRepository::delete)));
+            perIdNanos += System.nanoTime() - start;
+            perIdStatements += statistics.getPrepareStatementCount();
+
+            List<Integer> setBasedIds = insertStorages(idCount);
+            statistics.clear();
+            start = System.nanoTime();
+            List<Integer> removedIds = storageRepository.deleteByIds(setBasedIds.toArray(Integer[]::new));
+            setBasedNanos += System.nanoTime() - start;
+            setBasedStatements += statistics.getPrepareStatementCount();
+            assertThat(removedIds).containsExactlyInAnyOrderElementsOf(setBasedIds);
+        }
+
+        LOGGER.info("{} IDs: per-ID loop {} statements in {} us, set-based {} statements in {} us", idCount,
+                perIdStatements / ROUNDS, perIdNanos / ROUNDS / 1_000, setBasedStatements / ROUNDS,
+                setBasedNanos / ROUNDS / 1_000);
+        assertThat(setBasedStatements / ROUNDS).isEqualTo(1);
+        assertThat(perIdStatements / ROUNDS).isGreaterThanOrEqualTo(2L * idCount);
+    }
+
+    // bucket and path are unique, so every row gets its own
+    private List<Integer> insertStorages(int count) {
+        List<StorageEntity> storages = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> {
+            StorageEntity storage = new StorageEntity();
+            storage.setStorageType(StorageType.STAGING);
+            storage.setBucket("benchmark-" + UUID.randomUUID());
+            storage.setPath("/benchmark/" + UUID.randomUUID());
+            storages.add(storage);
+        });
+        return storageRepository.saveAll(storages).stream().map(StorageEntity::getId).toList();
+    }
+}
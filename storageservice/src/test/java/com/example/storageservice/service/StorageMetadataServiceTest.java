@@ -0,0 +1,164 @@
+package com.example.storageservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.storageservice.entity.StorageEntity;
+import com.example.storageservice.exception.DatabaseException;
+import com.example.storageservice.exception.InvalidDataException;
+import com.example.storageservice.mapper.StorageMapper;
+import com.example.storageservice.model.StorageType;
+import com.example.storageservice.model.StoragesSnapshot;
+import com.example.storageservice.repository.StorageMetadataRepository;
+import com.example.storageservice.util.DataPreparerService;
+
+import io.github.resilience4j.retry.Retry;
+
+@ExtendWith(MockitoExtension.class)
+class StorageMetadataServiceTest {
+
+    @Mock
+    private StorageMetadataRepository repository;
+
+    private StorageMetadataService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StorageMetadataService(repository, new DataPreparerService(), Retry.ofDefaults("test"),
+                Mappers.getMapper(StorageMapper.class));
+        ReflectionTestUtils.setField(service, "snapshotMaxAgeSeconds", 300L);
+    }
+
+    @Test
+    void getStoragesSnapshot_repeatedReadsQueryOnce() {
+        when(repository.findAll()).thenReturn(List.of(storage(1, StorageType.STAGING)));
+
+        StoragesSnapshot first = service.getStoragesSnapshot();
+        StoragesSnapshot second = service.getStoragesSnapshot();
+
+        assertSame(first, second);
+        assertEquals(1, first.storages().size());
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void addStorageMetadata_rebuildsSnapshot() {
+        StorageEntity staging = storage(1, StorageType.STAGING);
+        StorageEntity permanent = storage(2, StorageType.PERMANENT);
+        when(repository.findAll()).thenReturn(List.of(staging)).thenReturn(List.of(staging, permanent));
+        when(repository.save(permanent)).thenReturn(permanent);
+        StoragesSnapshot before = service.getStoragesSnapshot();
+
+        service.addStorageMetadata(permanent);
+        StoragesSnapshot after = service.getStoragesSnapshot();
+
+        verify(repository, times(2)).findAll();
+        assertEquals(2, after.storages().size());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void deleteStorageMetadataByIds_rebuildsSnapshot() {
+        StorageEntity staging = storage(1, StorageType.STAGING);
+        StorageEntity permanent = storage(2, StorageType.PERMANENT);
+        when(repository.findAll()).thenReturn(List.of(staging, permanent)).thenReturn(List.of(staging));
+        when(repository.deleteByIds(any())).thenReturn(List.of(2));
+        StoragesSnapshot before = service.getStoragesSnapshot();
+
+        service.deleteStorageMetadataByIds("2");
+        StoragesSnapshot after = service.getStoragesSnapshot();
+
+        verify(repository, times(2)).findAll();
+        assertEquals(1, after.storages().size());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void getStoragesSnapshot_etagDoesNotDependOnRowOrder() {
+        StorageEntity staging = storage(1, StorageType.STAGING);
+        StorageEntity permanent = storage(2, StorageType.PERMANENT);
+        when(repository.findAll()).thenReturn(List.of(staging, permanent)).thenReturn(List.of(permanent, staging));
+        when(repository.deleteByIds(any())).thenReturn(List.of());
+        StoragesSnapshot before = service.getStoragesSnapshot();
+
+        service.deleteStorageMetadataByIds("99");
+        StoragesSnapshot after = service.getStoragesSnapshot();
+
+        verify(repository, times(2)).findAll();
+        assertEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void deleteStorageMetadataByIds_deletesAllIdsInOneStatementAndKeepsRequestOrder() {
+        ArgumentCaptor<Integer[]> deletedIds = ArgumentCaptor.forClass(Integer[].class);
+        when(repository.deleteByIds(deletedIds.capture())).thenReturn(List.of(1, 3, 7));
+
+        Map<String, List<Integer>> response = service.deleteStorageMetadataByIds("7,3,1");
+
+        assertArrayEquals(new Integer[]{7, 3, 1}, deletedIds.getValue());
+        assertEquals(List.of(7, 3, 1), response.get("ids"));
+        verify(repository, times(1)).deleteByIds(any());
+    }
+
+    @Test
+    void deleteStorageMetadataByIds_listsDuplicateIdOnce() {
+        when(repository.deleteByIds(any())).thenReturn(List.of(1, 3));
+
+        Map<String, List<Integer>> response = service.deleteStorageMetadataByIds("3,1,3");
+
+        assertEquals(List.of(3, 1), response.get("ids"));
+    }
+
+    @Test
+    void deleteStorageMetadataByIds_leavesOutUnknownIds() {
+        when(repository.deleteByIds(any())).thenReturn(List.of(2));
+
+        Map<String, List<Integer>> response = service.deleteStorageMetadataByIds("5,2,9");
+
+        assertEquals(List.of(2), response.get("ids"));
+    }
+
+    @Test
+    void deleteStorageMetadataByIds_invalidIdRejectsWholeRequestBeforeDeleting() {
+        assertThrows(InvalidDataException.class, () -> service.deleteStorageMetadataByIds("1,abc,3"));
+        assertThrows(InvalidDataException.class, () -> service.deleteStorageMetadataByIds("1,0"));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void deleteStorageMetadataByIds_failedStatementIsDatabaseError() {
+        when(repository.deleteByIds(any())).thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(DatabaseException.class, () -> service.deleteStorageMetadataByIds("1"));
+    }
+
+    private static StorageEntity storage(int id, StorageType storageType) {
+        StorageEntity storage = new StorageEntity();
+        storage.setId(id);
+        storage.setStorageType(storageType);
+        storage.setBucket(storageType.name().toLowerCase() + "-bucket");
+        storage.setPath("/files");
+        return storage;
+    }
+}